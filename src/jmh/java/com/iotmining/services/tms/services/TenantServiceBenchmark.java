@@ -0,0 +1,111 @@
+package com.iotmining.services.tms.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.support.TestDataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths behind the tree and listing endpoints, over a synthetic
+ * hierarchy: one organization with {@code width} children per node,
+ * {@code depth} levels below it (width 10, depth 3 is 1,111 tenants).
+ * Run with the {@code benchmark} profile, see pom.xml; {@code -prof gc}
+ * adds allocation per operation ({@code gc.alloc.rate.norm}).
+ *
+ * <p>Below the root every tenant is a SUB_TENANT - the read paths don't
+ * enforce hierarchy rules, only the shape matters here.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantServiceBenchmark {
+
+    @Param({"5", "20"})
+    public int width;
+
+    @Param({"2", "4"})
+    public int depth;
+
+    private List<Tenant> tenants;
+    private List<TenantSummaryResponse> subtree;
+    private UUID rootId;
+    private TenantHierarchyIndex index;
+    private CompanyWithUsersResponse tree;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        tenants = hierarchy(width, depth);
+        // Breadth-first, i.e. shallowest first - the order the closure-table
+        // query returns and buildCompanyTree relies on.
+        subtree = tenants.stream().map(TestDataFactory::summary).toList();
+        rootId = subtree.get(0).getTenantId();
+        index = new TenantHierarchyIndex(null);
+        index.replaceAll(subtree);
+        tree = TenantService.buildCompanyTree(subtree);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public CompanyWithUsersResponse buildCompanyTree() {
+        return TenantService.buildCompanyTree(subtree);
+    }
+
+    // The same tree as served once the hierarchy index has loaded.
+    @Benchmark
+    public CompanyWithUsersResponse indexSubtree() {
+        return index.subtree(rootId);
+    }
+
+    @Benchmark
+    public void mapToSummary(Blackhole blackhole) {
+        for (Tenant tenant : tenants) {
+            blackhole.consume(TenantService.mapToSummary(tenant));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCompanyTree() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    static List<Tenant> hierarchy(int width, int depth) {
+        List<Tenant> all = new ArrayList<>();
+        all.add(TestDataFactory.organization("Org"));
+        int levelStart = 0;
+        for (int level = 1; level <= depth; level++) {
+            int levelEnd = all.size();
+            for (int p = levelStart; p < levelEnd; p++) {
+                Tenant parent = all.get(p);
+                for (int c = 0; c < width; c++) {
+                    all.add(TestDataFactory.subTenant(parent.getTenantName() + "." + c, parent));
+                }
+            }
+            levelStart = levelEnd;
+        }
+        return all;
+    }
+}
@@ -0,0 +1,51 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.common.data.tenant.TenantType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * determineTenantType on the role lists createTenant actually sees - kept
+ * apart from TenantServiceBenchmark so it isn't repeated for every
+ * hierarchy size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantTypeBenchmark {
+
+    @Param({"none", "superAdmin", "admin", "user"})
+    public String roles;
+
+    private List<String> roleList;
+
+    @Setup
+    public void setUp() {
+        roleList = switch (roles) {
+            case "superAdmin" -> List.of("ROLE_USER", "ROLE_SUPER_ADMIN");
+            case "admin" -> List.of("ROLE_USER", "ROLE_ADMIN");
+            case "user" -> List.of("ROLE_USER");
+            default -> List.of();
+        };
+    }
+
+    @Benchmark
+    public TenantType determineTenantType() {
+        return TenantService.determineTenantType(roleList);
+    }
+}
@@ -0,0 +1,115 @@
+package com.iotmining.services.tms.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.configurations.ContentNegotiationConfig;
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import com.iotmining.services.tms.support.TestDataFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and (de)serialization time of a companies-with-users tree per
+ * response encoding, with and without gzip (what server.compression adds).
+ * The mappers are the ones ContentNegotiationConfig registers; JSON is
+ * Boot's default. The payload size is reported next to each timing as the
+ * {@code bytes} secondary result:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=TreeEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeEncodingBenchmark {
+
+    public enum Encoding { JSON, SMILE, CBOR }
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public Encoding encoding;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"5", "20"})
+    public int width;
+
+    @Param({"3"})
+    public int depth;
+
+    private ObjectMapper mapper;
+    private CompanyWithUsersResponse tree;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ContentNegotiationConfig config = new ContentNegotiationConfig();
+        mapper = switch (encoding) {
+            case JSON -> Jackson2ObjectMapperBuilder.json().build();
+            case SMILE -> config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            case CBOR -> config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        };
+        tree = TenantService.buildCompanyTree(TenantServiceBenchmark.hierarchy(width, depth).stream()
+                .map(TestDataFactory::summary)
+                .toList());
+        encoded = encode();
+    }
+
+    /** Size of the encoded tree - the same on every call, so it's set, not added up. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize size) throws IOException {
+        byte[] bytes = encode();
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public CompanyWithUsersResponse deserialize(PayloadSize size) throws IOException {
+        size.bytes = encoded.length;
+        try (InputStream in = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return mapper.readValue(in, CompanyWithUsersResponse.class);
+        }
+    }
+
+    private byte[] encode() throws IOException {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(tree);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            mapper.writeValue(compressed, tree);
+        }
+        return out.toByteArray();
+    }
+}
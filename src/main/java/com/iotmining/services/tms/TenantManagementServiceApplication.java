@@ -2,12 +2,22 @@ package com.iotmining.services.tms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {"com.iotmining"})
+@EnableScheduling
 public class TenantManagementServiceApplication {
 
+	// Startup steps kept for /actuator/startup and StartupTimelineLogger -
+	// one per bean created, plus the context phases. Once the buffer is
+	// full, later steps are dropped.
+	static final int STARTUP_TIMELINE_CAPACITY = 10_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(TenantManagementServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(TenantManagementServiceApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,34 @@
+package com.iotmining.services.tms.aot;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.aot.BeanRegistrationAotProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+
+/**
+ * Reflection hints for the beans iiotedge-security-starter contributes.
+ *
+ * <p>{@code @PreAuthorize("@tenantSecurity.isTenantMember(#tenantId...)")}
+ * calls the starter's bean through SpEL, i.e. reflectively, and the starter
+ * ships no native metadata of its own. Rather than name its classes here,
+ * every bean the starter registers (its {@code com.iiotedge} packages) and
+ * whatever class ends up as {@code tenantSecurity} gets its methods and
+ * fields registered at build time. Listed in META-INF/spring/aot.factories.</p>
+ */
+public class SecurityStarterBeanAotProcessor implements BeanRegistrationAotProcessor {
+
+    static final String STARTER_PACKAGE = "com.iiotedge.";
+    static final String TENANT_SECURITY_BEAN = "tenantSecurity";
+
+    @Override
+    public BeanRegistrationAotContribution processAheadOfTime(RegisteredBean registeredBean) {
+        Class<?> beanClass = registeredBean.getBeanClass();
+        if (!beanClass.getName().startsWith(STARTER_PACKAGE)
+                && !TENANT_SECURITY_BEAN.equals(registeredBean.getBeanName())) {
+            return null;
+        }
+        return (generationContext, beanRegistrationCode) -> generationContext.getRuntimeHints().reflection()
+                .registerType(beanClass, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
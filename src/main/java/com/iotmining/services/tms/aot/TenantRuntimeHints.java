@@ -0,0 +1,54 @@
+package com.iotmining.services.tms.aot;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.model.TenantClosure;
+import com.iotmining.services.tms.model.TenantOutboxEvent;
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.services.TenantInitializer;
+import com.iotmining.services.tms.services.TenantService;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Connection;
+
+/**
+ * What the native image can't discover on its own: everything this
+ * service reaches only by reflection, proxy or classpath lookup.
+ *
+ * <p>Spring AOT already covers the beans, the controllers' request and
+ * response bodies and the JPA entities it finds by scanning. Left over
+ * are the SpEL in the cache and security annotations, Hibernate's
+ * constructor expressions and the {@code @IdClass}, the JDK proxy
+ * ConcurrencyLimitingDataSource hands out, and Flyway's migration
+ * scripts. The JSON that goes through Redis and Kafka is registered in
+ * NativeImageConfig.</p>
+ */
+public class TenantRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Hibernate builds, reads and enhances these reflectively; the
+        // @IdClass and the enum column are not entities of their own.
+        for (Class<?> entity : new Class<?>[]{Tenant.class, TenantClosure.class, TenantClosure.Key.class,
+                TenantOutboxEvent.class, TenantProvisioning.class, TenantProvisioning.Status.class}) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        // TenantRepository.SUMMARY_SELECT: "select new ...TenantSummaryResponse(...)".
+        hints.reflection().registerType(TenantSummaryResponse.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // T(...TenantInitializer).SYSTEM_TENANT_ID in TenantService's cache keys.
+        hints.reflection().registerType(TenantInitializer.class, MemberCategory.PUBLIC_FIELDS);
+        // #parentId, #request.parentId etc. - SpEL reads parameter names
+        // off the reflective Method (compiled with -parameters).
+        hints.reflection().registerType(TenantService.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // ConcurrencyLimitingDataSource wraps every connection in one.
+        hints.proxies().registerJdkProxy(Connection.class);
+
+        // Flyway lists classpath:db/migration at startup.
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
@@ -0,0 +1,24 @@
+package com.iotmining.services.tms.cache;
+
+/**
+ * Tells the other replicas to drop L1 entries that {@link TwoLevelCache}
+ * has just evicted from the shared tier. Sent only once the shared evict
+ * is done, so a replica that refills its L1 right after receiving it can't
+ * pick up the old value from Redis. Implementations must not throw.
+ */
+public interface CacheInvalidationPublisher {
+
+    CacheInvalidationPublisher NONE = new CacheInvalidationPublisher() {
+        @Override
+        public void evicted(String cacheName, Object key) {
+        }
+
+        @Override
+        public void cleared(String cacheName) {
+        }
+    };
+
+    void evicted(String cacheName, Object key);
+
+    void cleared(String cacheName);
+}
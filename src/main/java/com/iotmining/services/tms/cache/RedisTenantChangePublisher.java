@@ -0,0 +1,78 @@
+package com.iotmining.services.tms.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.services.TenantChangePublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publishes committed tenant writes and shared-cache evictions on a Redis
+ * pub/sub channel for the other replicas' {@link TenantChangeListener}s.
+ * One channel, so a replica sees a write's index update before the cache
+ * evictions that follow it. Fire-and-forget: a failed publish is logged,
+ * never propagated to the (already committed) caller.
+ */
+@Slf4j
+public class RedisTenantChangePublisher implements TenantChangePublisher, CacheInvalidationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String origin = UUID.randomUUID().toString();
+
+    public RedisTenantChangePublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    /** Identifies this replica in published messages. */
+    public String getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void tenantSaved(TenantSummaryResponse tenant) {
+        publish(new TenantChangeMessage(origin, TenantChangeMessage.Type.SAVED, tenant.getTenantId(), tenant));
+    }
+
+    @Override
+    public void tenantsSaved(List<TenantSummaryResponse> tenants) {
+        publish(new TenantChangeMessage(origin, TenantChangeMessage.Type.SAVED_BATCH, null, null, null, tenants));
+    }
+
+    @Override
+    public void tenantDeleted(UUID tenantId) {
+        publish(new TenantChangeMessage(origin, TenantChangeMessage.Type.DELETED, tenantId, null));
+    }
+
+    @Override
+    public void evicted(String cacheName, Object key) {
+        if (!(key instanceof UUID tenantId)) {
+            // Not a tenant id - the message can't carry it, so drop the lot.
+            cleared(cacheName);
+            return;
+        }
+        publish(new TenantChangeMessage(origin, TenantChangeMessage.Type.CACHE_EVICTED, tenantId, null,
+                cacheName));
+    }
+
+    @Override
+    public void cleared(String cacheName) {
+        publish(new TenantChangeMessage(origin, TenantChangeMessage.Type.CACHE_CLEARED, null, null, cacheName));
+    }
+
+    private void publish(TenantChangeMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Failed to publish tenant change {} for {}, other replicas stay stale until TTL/refresh",
+                    message.getType(), message.getTenantId(), ex);
+        }
+    }
+}
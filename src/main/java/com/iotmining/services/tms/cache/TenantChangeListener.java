@@ -0,0 +1,58 @@
+package com.iotmining.services.tms.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.services.TenantHierarchyIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+/**
+ * Applies another replica's changes locally: a committed tenant write to
+ * the hierarchy index, a shared-cache eviction to the L1 caches. The
+ * shared (Redis) tier needs nothing - the writer already evicted it, and
+ * only then published the eviction.
+ */
+@Slf4j
+public class TenantChangeListener implements MessageListener {
+
+    private final ObjectMapper objectMapper;
+    private final String origin;
+    private final TenantHierarchyIndex hierarchyIndex;
+    private final TwoLevelCacheManager cacheManager;
+
+    public TenantChangeListener(ObjectMapper objectMapper, String origin,
+                                TenantHierarchyIndex hierarchyIndex, TwoLevelCacheManager cacheManager) {
+        this.objectMapper = objectMapper;
+        this.origin = origin;
+        this.hierarchyIndex = hierarchyIndex;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        TenantChangeMessage change;
+        try {
+            change = objectMapper.readValue(message.getBody(), TenantChangeMessage.class);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable tenant change message", ex);
+            return;
+        }
+        if (origin.equals(change.getOrigin())) {
+            return;
+        }
+        apply(change);
+    }
+
+    void apply(TenantChangeMessage change) {
+        switch (change.getType()) {
+            case SAVED -> hierarchyIndex.put(change.getTenant());
+            case SAVED_BATCH -> change.getTenants().forEach(hierarchyIndex::put);
+            // The whole subtree went, and only its root is in the message.
+            case DELETED -> hierarchyIndex.remove(change.getTenantId());
+            case CACHE_EVICTED -> cacheManager.evictLocal(change.getCacheName(), change.getTenantId());
+            case CACHE_CLEARED -> cacheManager.clearLocal(change.getCacheName());
+        }
+    }
+}
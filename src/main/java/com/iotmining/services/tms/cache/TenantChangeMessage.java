@@ -0,0 +1,43 @@
+package com.iotmining.services.tms.cache;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pub/sub payload for a committed tenant write or a shared-cache eviction.
+ * {@code origin} identifies the publishing replica so it can skip its own
+ * message; {@code tenant} is only set for SAVED, carrying everything a
+ * receiver needs to update its hierarchy index without a database read.
+ * SAVED_BATCH carries a whole bulk create in {@code tenants} instead,
+ * parents before children, so a bulk create is one message, not one per
+ * tenant. CACHE_EVICTED and CACHE_CLEARED name the cache in {@code cacheName};
+ * every cache is keyed by tenant id, so an evicted key is {@code tenantId}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantChangeMessage {
+
+    public enum Type { SAVED, SAVED_BATCH, DELETED, CACHE_EVICTED, CACHE_CLEARED }
+
+    private String origin;
+    private Type type;
+    private UUID tenantId;
+    private TenantSummaryResponse tenant;
+    private String cacheName;
+    private List<TenantSummaryResponse> tenants;
+
+    public TenantChangeMessage(String origin, Type type, UUID tenantId, TenantSummaryResponse tenant) {
+        this(origin, type, tenantId, tenant, null, null);
+    }
+
+    public TenantChangeMessage(String origin, Type type, UUID tenantId, TenantSummaryResponse tenant,
+                               String cacheName) {
+        this(origin, type, tenantId, tenant, cacheName, null);
+    }
+}
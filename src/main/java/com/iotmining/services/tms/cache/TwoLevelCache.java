@@ -0,0 +1,176 @@
+package com.iotmining.services.tms.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A replica-local Caffeine cache (L1) in front of a shared Redis cache (L2).
+ *
+ * <p>Reads check L1, then L2, back-filling L1 on an L2 hit - so a freshly
+ * started replica is served from Redis instead of Postgres. Writes and
+ * evictions go to both. Redis failures are logged and treated as misses:
+ * the shared tier is an optimization, never a reason to fail a request.</p>
+ *
+ * <p>Evictions reach this replica's L1 directly. Other replicas drop theirs
+ * when {@link TenantChangeListener} receives the invalidation published
+ * here, after the shared evict - never before it, or they could refill
+ * from the stale Redis entry.</p>
+ *
+ * <p>Entries aren't versioned, so a read that loaded the old row before
+ * the write committed can still put it back after the evict - into Redis,
+ * where every replica would serve it until the TTL. Given a scheduler,
+ * each evict and clear is therefore repeated once {@code reEvictDelay}
+ * later, by which time such a read has finished.</p>
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final CaffeineCache local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher invalidations;
+    private final ScheduledExecutorService reEvictions;
+    private final long reEvictDelayNanos;
+
+    public TwoLevelCache(CaffeineCache local, Cache remote, CacheInvalidationPublisher invalidations) {
+        this(local, remote, invalidations, null, Duration.ZERO);
+    }
+
+    public TwoLevelCache(CaffeineCache local, Cache remote, CacheInvalidationPublisher invalidations,
+                         ScheduledExecutorService reEvictions, Duration reEvictDelay) {
+        this.local = local;
+        this.remote = remote;
+        this.invalidations = invalidations;
+        this.reEvictions = reEvictions;
+        this.reEvictDelayNanos = reEvictDelay.toNanos();
+    }
+
+    public CaffeineCache getLocal() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        try {
+            value = remote.get(key);
+        } catch (RuntimeException ex) {
+            log.warn("Shared cache read failed for {}, treating as a miss", getName(), ex);
+            return null;
+        }
+        if (value != null && value.get() != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException ex) {
+            log.warn("Shared cache write failed for {}", getName(), ex);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictBoth(key);
+        reEvict(() -> evictBoth(key));
+    }
+
+    @Override
+    public void clear() {
+        clearBoth();
+        reEvict(this::clearBoth);
+    }
+
+    private void evictBoth(Object key) {
+        local.evict(key);
+        try {
+            remote.evict(key);
+        } catch (RuntimeException ex) {
+            log.warn("Shared cache evict failed for {}", getName(), ex);
+        }
+        invalidations.evicted(getName(), key);
+    }
+
+    private void clearBoth() {
+        local.clear();
+        try {
+            remote.clear();
+        } catch (RuntimeException ex) {
+            log.warn("Shared cache clear failed for {}", getName(), ex);
+        }
+        invalidations.cleared(getName());
+    }
+
+    private void reEvict(Runnable eviction) {
+        if (reEvictions == null || reEvictDelayNanos <= 0) {
+            return;
+        }
+        try {
+            reEvictions.schedule(eviction, reEvictDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Shutting down - the TTL bounds what's left.
+        }
+    }
+
+    public void evictLocal(Object key) {
+        local.evict(key);
+    }
+
+    public void clearLocal() {
+        local.clear();
+    }
+}
@@ -0,0 +1,81 @@
+package com.iotmining.services.tms.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Pairs each cache of a local {@link CaffeineCacheManager} with the
+ * same-named cache of a shared (Redis) manager. Transaction-aware, like the
+ * single-level setup in CacheConfig, so evictions land after commit. With
+ * a positive {@code reEvictDelay} every eviction is repeated that much
+ * later, see {@link TwoLevelCache}.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements DisposableBean {
+
+    private final CaffeineCacheManager local;
+    private final CacheManager remote;
+    private final CacheInvalidationPublisher invalidations;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Duration reEvictDelay;
+    private final ScheduledExecutorService reEvictions;
+
+    public TwoLevelCacheManager(CaffeineCacheManager local, CacheManager remote,
+                                CacheInvalidationPublisher invalidations, Duration reEvictDelay) {
+        this.local = local;
+        this.remote = remote;
+        this.invalidations = invalidations;
+        this.reEvictDelay = reEvictDelay;
+        this.reEvictions = reEvictDelay.isPositive()
+                ? Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("tms-cache-re-evict").daemon().factory())
+                : null;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<TwoLevelCache> loaded = new ArrayList<>();
+        for (String name : local.getCacheNames()) {
+            TwoLevelCache cache = new TwoLevelCache((CaffeineCache) local.getCache(name), remote.getCache(name),
+                    invalidations, reEvictions, reEvictDelay);
+            caches.put(name, cache);
+            loaded.add(cache);
+        }
+        return loaded;
+    }
+
+    /** Drops a key from this replica's L1 only - the shared tier was already evicted by the writer. */
+    public void evictLocal(String cacheName, Object key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    public void clearLocal(String cacheName) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (reEvictions != null) {
+            reEvictions.shutdownNow();
+        }
+    }
+}
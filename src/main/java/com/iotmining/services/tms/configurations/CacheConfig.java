@@ -0,0 +1,123 @@
+package com.iotmining.services.tms.configurations;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iotmining.services.tms.cache.CacheInvalidationPublisher;
+import com.iotmining.services.tms.cache.TwoLevelCache;
+import com.iotmining.services.tms.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches in front of TenantService's hot reads.
+ *
+ * <p>By default these are local, bounded Caffeine caches. With
+ * {@code tms.cache.redis.enabled} each one becomes the L1 of a
+ * {@link TwoLevelCache} backed by a shared Redis cache, so a replica that
+ * just started (scale-out, restart) is warmed from Redis instead of
+ * Postgres. Other replicas' L1s are invalidated over pub/sub, see
+ * RedisConfig.</p>
+ *
+ * <p>Either way the manager is transaction-aware, so the
+ * {@code @CacheEvict}s on createTenant/deleteTenant only take effect after
+ * the transaction commits - otherwise a concurrent read could repopulate
+ * the entry from the pre-commit state. {@code recordStats()} feeds
+ * {@code cache_gets_total}, {@code cache_puts_total} and
+ * {@code cache_evictions_total} (tagged {@code cache=<name>}) on
+ * /actuator/prometheus; for the two-level caches these report the L1.</p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TENANT_SUMMARIES = "tenantSummaries";
+    public static final String TENANT_CHILDREN = "tenantChildren";
+    public static final String TENANT_SUBTREES = "tenantSubtrees";
+
+    @Value("${tms.cache.summaries.maximum-size:100000}")
+    private long summariesMaximumSize;
+
+    @Value("${tms.cache.children.maximum-size:10000}")
+    private long childrenMaximumSize;
+
+    @Value("${tms.cache.subtrees.maximum-size:1000}")
+    private long subtreesMaximumSize;
+
+    @Value("${tms.cache.expire-after-write:PT5M}")
+    private Duration expireAfterWrite;
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(localCacheManager());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.cache.redis.enabled", havingValue = "true")
+    public TwoLevelCacheManager twoLevelCacheManager(
+            RedisConnectionFactory connectionFactory,
+            CacheInvalidationPublisher invalidations,
+            @Value("${tms.cache.redis.time-to-live:PT10M}") Duration timeToLive,
+            @Value("${tms.cache.redis.re-evict-delay:PT2S}") Duration reEvictDelay) {
+        // The serializer keeps its own ObjectMapper (with type hints), which
+        // doesn't know java.time - TenantSummaryResponse.updatedAt needs it.
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        serializer.configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(timeToLive)
+                .disableCachingNullValues()
+                .prefixCacheNameWith("tms:")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        // SCAN rather than KEYS for allEntries evictions - KEYS blocks Redis.
+        RedisCacheManager remote = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+                .cacheDefaults(defaults)
+                .build();
+        remote.afterPropertiesSet();
+        return new TwoLevelCacheManager(localCacheManager(), remote, invalidations, reEvictDelay);
+    }
+
+    // Boot's binders only recognise the stock cache types.
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getLocal().getNativeCache(), cache.getName(), tags);
+    }
+
+    private CaffeineCacheManager localCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // Static: an unknown cache name fails fast instead of quietly
+        // creating an unbounded default cache.
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(TENANT_SUMMARIES, localCache(summariesMaximumSize));
+        cacheManager.registerCustomCache(TENANT_CHILDREN, localCache(childrenMaximumSize));
+        cacheManager.registerCustomCache(TENANT_SUBTREES, localCache(subtreesMaximumSize));
+        return cacheManager;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.iotmining.services.tms.configurations;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary alternatives to JSON for the large responses (mainly
+ * companies-with-users trees), picked by the client's {@code Accept}:
+ * {@code application/x-jackson-smile} or {@code application/cbor}. JSON
+ * stays the default - Boot keeps these converters after the JSON one, so a
+ * wildcard or missing {@code Accept} still gets JSON.
+ *
+ * <p>Both mappers come from Boot's builder, so {@code spring.jackson.*}
+ * settings and modules apply as they do to JSON. Smile also back-references
+ * repeated string values, not just field names - a tree repeats the same
+ * tenant type, access level and plan on every node. See
+ * TreeEncodingBenchmark (src/jmh) for sizes and timings.</p>
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(factory).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,72 @@
+package com.iotmining.services.tms.configurations;
+
+import com.iotmining.services.tms.metrics.QueryBudgetAspect;
+import com.iotmining.services.tms.metrics.SqlStatementCounter;
+import com.iotmining.services.tms.metrics.SqlStatementMetricsInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Service-level metrics on /actuator/prometheus, on top of Boot's JVM,
+ * Hikari and {@code http.server.requests} meters:
+ *
+ * <ul>
+ *   <li>{@code tms.tenant.service} - a timer per TenantService method
+ *       ({@code @Timed}, tagged class/method/exception)</li>
+ *   <li>{@code tms.sql.statements} and, per endpoint,
+ *       {@code tms.http.server.sql.statements} - statements Hibernate
+ *       prepared, counted by a StatementInspector</li>
+ *   <li>{@code tms.tenant.tree.size}/{@code .depth} and
+ *       {@code tms.sql.in.list.size} - see TenantMetrics</li>
+ *   <li>{@code tms.query.budget.exceeded} - {@code @QueryBudget}
+ *       violations, see QueryBudgetAspect</li>
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig {
+
+    // @Timed does nothing without the aspect.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(MeterRegistry meterRegistry) {
+        return new SqlStatementCounter(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter counter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public QueryBudgetAspect queryBudgetAspect(
+            SqlStatementCounter counter,
+            MeterRegistry meterRegistry,
+            @Value("${tms.query-budget.mode:RECORD}") QueryBudgetAspect.Mode mode,
+            @Value("${tms.query-budget.log-interval:PT1M}") Duration logInterval) {
+        return new QueryBudgetAspect(counter, meterRegistry, mode, logInterval);
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlStatementMetricsConfigurer(SqlStatementCounter counter, MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlStatementMetricsInterceptor(counter, meterRegistry))
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+}
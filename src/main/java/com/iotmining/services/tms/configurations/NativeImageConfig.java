@@ -0,0 +1,45 @@
+package com.iotmining.services.tms.configurations;
+
+import com.iotmining.services.tms.aot.TenantRuntimeHints;
+import com.iotmining.services.tms.cache.TenantChangeMessage;
+import com.iotmining.services.tms.dto.BulkCreateTenantRequest;
+import com.iotmining.services.tms.dto.BulkCreateTenantResponse;
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantAncestryRequest;
+import com.iotmining.services.tms.dto.TenantAncestryResponse;
+import com.iotmining.services.tms.dto.TenantBatchGetRequest;
+import com.iotmining.services.tms.dto.TenantBatchGetResponse;
+import com.iotmining.services.tms.dto.TenantCursor;
+import com.iotmining.services.tms.dto.TenantCursorPage;
+import com.iotmining.services.tms.dto.TenantExportFilter;
+import com.iotmining.services.tms.dto.TenantExportRow;
+import com.iotmining.services.tms.dto.TenantLifecycleEvent;
+import com.iotmining.services.tms.dto.TenantProvisioningResponse;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Native image (GraalVM, {@code mvn -Pnative}) hints. A no-op on the JVM.
+ *
+ * <p>Every DTO is registered for Jackson binding, not just the ones AOT
+ * sees on a controller signature: the Redis cache tier stores summaries
+ * and trees as typed JSON, the change channel carries TenantChangeMessage,
+ * the outbox writes TenantLifecycleEvent, and the export writes its rows
+ * through the ObjectMapper itself. The rest is in TenantRuntimeHints, and the security
+ * starter's beans in SecurityStarterBeanAotProcessor.</p>
+ */
+@Configuration
+@ImportRuntimeHints(TenantRuntimeHints.class)
+@RegisterReflectionForBinding({
+        BulkCreateTenantRequest.class, BulkCreateTenantResponse.class, CompanyWithUsersResponse.class,
+        CreateTenantRequest.class, CreateTenantResponse.class,
+        TenantAncestryRequest.class, TenantAncestryResponse.class, TenantBatchGetRequest.class,
+        TenantBatchGetResponse.class, TenantCursor.class, TenantCursorPage.class, TenantExportFilter.class,
+        TenantExportRow.class, TenantLifecycleEvent.class, TenantProvisioningResponse.class,
+        TenantSummaryResponse.class, TenantChangeMessage.class})
+public class NativeImageConfig {
+}
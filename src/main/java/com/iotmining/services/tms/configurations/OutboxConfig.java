@@ -0,0 +1,55 @@
+package com.iotmining.services.tms.configurations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.outbox.JpaTenantEventOutbox;
+import com.iotmining.services.tms.outbox.TenantOutboxRelay;
+import com.iotmining.services.tms.repository.TenantOutboxRepository;
+import com.iotmining.services.tms.services.TenantEventOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Tenant lifecycle events for other services, through a transactional
+ * outbox: TenantService writes each create/delete's events to
+ * tenant_outbox in the same transaction, and TenantOutboxRelay publishes
+ * them to {@code tms.outbox.topic}. Off by default (no broker in dev);
+ * with it off nothing is written. Broker and producer settings are
+ * spring.kafka.*.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.outbox.enabled", havingValue = "true")
+    public TenantEventOutbox tenantEventOutbox(TenantOutboxRepository repository, ObjectMapper objectMapper) {
+        return new JpaTenantEventOutbox(repository, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.outbox.enabled", havingValue = "false", matchIfMissing = true)
+    public TenantEventOutbox noopTenantEventOutbox() {
+        return TenantEventOutbox.NONE;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.outbox.enabled", havingValue = "true")
+    public TenantOutboxRelay tenantOutboxRelay(
+            TenantOutboxRepository repository,
+            KafkaTemplate<String, String> kafkaTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${tms.outbox.topic:tms.tenant-lifecycle}") String topic,
+            @Value("${tms.outbox.batch-size:500}") int batchSize,
+            @Value("${tms.outbox.send-timeout:PT10S}") Duration sendTimeout) {
+        return new TenantOutboxRelay(repository, kafkaTemplate, new TransactionTemplate(transactionManager),
+                registry, topic, batchSize, sendTimeout);
+    }
+}
@@ -0,0 +1,64 @@
+package com.iotmining.services.tms.configurations;
+
+import com.iotmining.services.tms.provisioning.FakeKeyspaceProvisioner;
+import com.iotmining.services.tms.provisioning.KeyspaceProvisioner;
+import com.iotmining.services.tms.provisioning.RestKeyspaceProvisioner;
+import com.iotmining.services.tms.provisioning.TenantProvisioningWorker;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Keyspace provisioning off the request path. Every created tenant gets a
+ * PENDING tenant_provisioning row in its create transaction, always; with
+ * {@code tms.provisioning.enabled} this replica also works those rows off
+ * (TenantProvisioningWorker) using the provisioner named by
+ * {@code tms.provisioning.provisioner}: {@code rest} (the storage
+ * service at {@code tms.provisioning.url}, the default) or {@code fake}
+ * (in memory, for local runs and tests). Off unless enabled, which only
+ * the dev profile does by default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tms.provisioning.enabled", havingValue = "true")
+public class ProvisioningConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.provisioning.provisioner", havingValue = "rest", matchIfMissing = true)
+    public KeyspaceProvisioner restKeyspaceProvisioner(
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${tms.provisioning.url:}") String url,
+            @Value("${tms.provisioning.timeout:PT30S}") Duration timeout) {
+        return new RestKeyspaceProvisioner(
+                restTemplateBuilder.connectTimeout(timeout).readTimeout(timeout).build(), url);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.provisioning.provisioner", havingValue = "fake")
+    public FakeKeyspaceProvisioner fakeKeyspaceProvisioner(
+            @Value("${tms.provisioning.fake-latency:PT0S}") Duration latency) {
+        return new FakeKeyspaceProvisioner(latency);
+    }
+
+    @Bean
+    public TenantProvisioningWorker tenantProvisioningWorker(
+            TenantProvisioningRepository repository,
+            KeyspaceProvisioner provisioner,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${tms.provisioning.workers:4}") int workers,
+            @Value("${tms.provisioning.max-attempts:8}") int maxAttempts,
+            @Value("${tms.provisioning.initial-backoff:PT2S}") Duration initialBackoff,
+            @Value("${tms.provisioning.max-backoff:PT5M}") Duration maxBackoff,
+            @Value("${tms.provisioning.lease:PT5M}") Duration lease) {
+        return new TenantProvisioningWorker(repository, provisioner, new TransactionTemplate(transactionManager),
+                registry, workers, maxAttempts, initialBackoff, maxBackoff, lease);
+    }
+}
@@ -0,0 +1,172 @@
+package com.iotmining.services.tms.configurations;
+
+import com.iotmining.services.tms.datasource.ConcurrencyLimitingDataSource;
+import com.iotmining.services.tms.datasource.ReadYourWrites;
+import com.iotmining.services.tms.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas ({@code tms.db.replicas.enabled}).
+ *
+ * <p>The primary DataSource is wrapped in a ReplicaRoutingDataSource that
+ * sends read-only transactions to the pools at
+ * {@code tms.db.replicas.urls}, one Hikari pool per replica, each a copy
+ * of the primary's settings apart from its URL and
+ * {@code tms.db.replicas.pool-size}. Replicas that fail, or fall more than
+ * {@code tms.db.replicas.max-lag} behind, are skipped until a later health
+ * check passes. For {@code tms.db.replicas.read-your-writes} after a
+ * tenant write, reads stay on the primary.</p>
+ *
+ * <p>With virtual threads the primary arrives already behind
+ * VirtualThreadConfig's concurrency limit; each replica pool then gets a
+ * limit of its own, sized to its pool, so a read waits only on the target
+ * it was routed to.</p>
+ *
+ * <p>The ReadYourWrites bean exists with replicas off too - TenantService
+ * records its writes either way, and nothing reads the window then.</p>
+ */
+@Slf4j
+@Configuration
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${tms.db.replicas.read-your-writes:PT2S}") Duration window) {
+        return new ReadYourWrites(window);
+    }
+
+    // Static so it's registered before the DataSource is created. The
+    // concrete return type lets the context see PriorityOrdered before
+    // instantiating it, so it runs right after VirtualThreadConfig's
+    // limiting post-processor and every other one sees the routing
+    // DataSource.
+    @Bean
+    @ConditionalOnProperty(name = "tms.db.replicas.enabled", havingValue = "true")
+    public static ReplicaRoutingPostProcessor replicaRoutingDataSourcePostProcessor(
+            Environment environment, ObjectProvider<ReadYourWrites> readYourWrites) {
+        return new ReplicaRoutingPostProcessor(environment, readYourWrites);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.db.replicas.enabled", havingValue = "true")
+    public MeterBinder replicaRoutingMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                dataSource.unwrap(ReplicaRoutingDataSource.class).bindTo(registry);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("DataSource is not replica-routed", ex);
+            }
+        };
+    }
+
+    static final class ReplicaRoutingPostProcessor implements BeanPostProcessor, PriorityOrdered, DisposableBean {
+
+        private final Environment environment;
+        private final ObjectProvider<ReadYourWrites> readYourWrites;
+        private final List<ReplicaRoutingDataSource> created = new ArrayList<>();
+
+        private ReplicaRoutingPostProcessor(Environment environment,
+                                            ObjectProvider<ReadYourWrites> readYourWrites) {
+            this.environment = environment;
+            this.readYourWrites = readYourWrites;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)
+                    || bean instanceof ReplicaRoutingDataSource) {
+                return bean;
+            }
+            String[] urls = environment.getProperty("tms.db.replicas.urls", String[].class, new String[0]);
+            if (urls.length == 0) {
+                throw new IllegalStateException("tms.db.replicas.enabled is set but tms.db.replicas.urls is empty");
+            }
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            for (int i = 0; i < urls.length; i++) {
+                String name = "replica-" + (i + 1);
+                HikariDataSource pool = replicaPool(primary, name, urls[i].trim());
+                replicas.put(name, primary instanceof ConcurrencyLimitingDataSource limited
+                        ? new ConcurrencyLimitingDataSource(pool, pool.getMaximumPoolSize(),
+                                limited.getAcquireTimeout())
+                        : pool);
+            }
+            Duration maxLag = environment.getProperty("tms.db.replicas.max-lag", Duration.class,
+                    Duration.ofSeconds(5));
+            Duration healthCheckInterval = environment.getProperty("tms.db.replicas.health-check-interval",
+                    Duration.class, Duration.ofSeconds(5));
+
+            // Resolved on the first read, long after ReadYourWrites exists.
+            ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                    () -> readYourWrites.getObject().isActive(), maxLag);
+            routing.start(healthCheckInterval);
+            created.add(routing);
+            log.info("TMS Boot: routing read-only transactions on '{}' to {} replica(s) (max lag {})",
+                    beanName, replicas.size(), maxLag);
+            return routing;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+
+        @Override
+        public void destroy() {
+            created.forEach(ReplicaRoutingDataSource::close);
+        }
+
+        // Same settings as the primary pool - credentials included - so only
+        // what differs needs configuring. A replica that's down at startup
+        // must not fail the boot, hence no initialization fail timeout.
+        private HikariDataSource replicaPool(DataSource primary, String name, String url) {
+            HikariConfig config = new HikariConfig();
+            HikariDataSource hikari = unwrapHikari(primary);
+            if (hikari != null) {
+                hikari.copyStateTo(config);
+            } else {
+                config.setUsername(environment.getProperty("spring.datasource.username"));
+                config.setPassword(environment.getProperty("spring.datasource.password"));
+            }
+            config.setJdbcUrl(url);
+            config.setPoolName(config.getPoolName() == null ? "TenantServicePool-" + name
+                    : config.getPoolName() + "-" + name);
+            config.setMaximumPoolSize(environment.getProperty("tms.db.replicas.pool-size", Integer.class,
+                    config.getMaximumPoolSize()));
+            config.setMinimumIdle(Math.min(config.getMinimumIdle(), config.getMaximumPoolSize()));
+            config.setConnectionTimeout(environment.getProperty("tms.db.replicas.connection-timeout",
+                    Duration.class, Duration.ofSeconds(1)).toMillis());
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            return new HikariDataSource(config);
+        }
+
+        // The primary pool, also from behind the concurrency limit.
+        private static HikariDataSource unwrapHikari(DataSource primary) {
+            try {
+                return primary.isWrapperFor(HikariDataSource.class) ? primary.unwrap(HikariDataSource.class) : null;
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Cannot unwrap the primary DataSource", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.iotmining.services.tms.configurations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.cache.RedisTenantChangePublisher;
+import com.iotmining.services.tms.cache.TenantChangeListener;
+import com.iotmining.services.tms.cache.TwoLevelCacheManager;
+import com.iotmining.services.tms.services.TenantChangePublisher;
+import com.iotmining.services.tms.services.TenantHierarchyIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Cross-replica propagation of tenant writes over Redis pub/sub.
+ *
+ * <p>Each replica keeps replica-local state - the L1 caches and the
+ * TenantHierarchyIndex - that a write on another replica makes stale.
+ * TenantService publishes every committed write, and TwoLevelCache every
+ * shared-tier eviction once Redis has applied it; the listener on each
+ * other replica applies the writes to its index and the evictions to its
+ * L1 caches.
+ * Delivery is at-most-once: a replica that misses a message converges at
+ * the next L1 expiry / index refresh.</p>
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.cache.redis.enabled", havingValue = "true")
+    public RedisTenantChangePublisher tenantChangePublisher(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${tms.cache.redis.channel:tms:tenant-changes}") String channel) {
+        return new RedisTenantChangePublisher(redisTemplate, objectMapper, channel);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+    public TenantChangePublisher noopTenantChangePublisher() {
+        return TenantChangePublisher.NONE;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.cache.redis.enabled", havingValue = "true")
+    public TenantChangeListener tenantChangeListener(
+            ObjectMapper objectMapper,
+            RedisTenantChangePublisher publisher,
+            TenantHierarchyIndex hierarchyIndex,
+            TwoLevelCacheManager cacheManager) {
+        return new TenantChangeListener(objectMapper, publisher.getOrigin(), hierarchyIndex, cacheManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tms.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer tenantChangeListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TenantChangeListener listener,
+            @Value("${tms.cache.redis.channel:tms:tenant-changes}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener, new ChannelTopic(channel));
+        return container;
+    }
+}
@@ -0,0 +1,80 @@
+package com.iotmining.services.tms.configurations;
+
+import com.iotmining.services.tms.datasource.ConcurrencyLimitingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode ({@code spring.threads.virtual.enabled}).
+ *
+ * <p>Boot itself moves Tomcat request handling, the MVC async executor
+ * (the streamed /tenants/export) and the {@code @Scheduled} index refresh
+ * onto virtual threads. This adds the one thing that stops being bounded
+ * once the Tomcat thread pool is gone: concurrent database access. The
+ * DataSource is wrapped so that at most {@code tms.db.max-concurrency}
+ * threads - by default the Hikari pool size - hold a connection, and the
+ * rest queue for up to {@code tms.db.acquire-timeout}. The limit goes on
+ * the primary pool itself, before ReadReplicaConfig wraps it; each replica
+ * pool gets its own, sized to {@code tms.db.replicas.pool-size}, so reads
+ * scale with the replicas and only wait on the one they were routed to.</p>
+ *
+ * <p>Nothing on the request path blocks inside a {@code synchronized}
+ * block, which would pin the carrier thread: TenantHierarchyIndex uses a
+ * ReentrantReadWriteLock, and HikariCP 5.1+/pgjdbc 42.6+ use j.u.c. locks
+ * internally. Check with {@code -Djdk.tracePinnedThreads=short} when
+ * upgrading either.</p>
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Static so it's registered before the DataSource is created. The
+    // concrete return type lets the context see PriorityOrdered before
+    // instantiating it, so it wraps the primary pool ahead of
+    // ReadReplicaConfig's routing post-processor.
+    @Bean
+    public static ConcurrencyLimitingPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            Environment environment) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        return new ConcurrencyLimitingPostProcessor(
+                environment.getProperty("tms.db.max-concurrency", Integer.class, poolSize),
+                environment.getProperty("tms.db.acquire-timeout", Duration.class, Duration.ofSeconds(5)));
+    }
+
+    static final class ConcurrencyLimitingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final int maxConcurrency;
+        private final Duration acquireTimeout;
+
+        private ConcurrencyLimitingPostProcessor(int maxConcurrency, Duration acquireTimeout) {
+            this.maxConcurrency = maxConcurrency;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                log.info("TMS Boot: virtual threads enabled, limiting '{}' to {} concurrent connections "
+                        + "(acquire timeout {})", beanName, maxConcurrency, acquireTimeout);
+                return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.iotmining.services.tms.controller;
+
+import com.iotmining.services.tms.dto.TenantBatchGetRequest;
+import com.iotmining.services.tms.dto.TenantBatchGetResponse;
+import com.iotmining.services.tms.services.TenantService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Collection-level custom methods ({@code /tenants:verb}). They live apart
+ * from TenantController because a class-level {@code /api/v1/tenants}
+ * mapping always joins a method path with a slash.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class TenantBatchController {
+
+    private final TenantService tenantService;
+
+    // Resolves a list of ids in one round trip instead of one GET per
+    // tenant. Always 200: ids that don't exist are listed under "missing".
+    // GET for short lists (?ids=a,b,c), POST when the ids won't fit a URL.
+    @GetMapping("/tenants:batchGet")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin() or hasAuthority('SCOPE_INTERNAL')")
+    public ResponseEntity<TenantBatchGetResponse> batchGet(@RequestParam("ids") List<UUID> ids) {
+        return ResponseEntity.ok(tenantService.getTenantSummaries(ids));
+    }
+
+    @PostMapping("/tenants:batchGet")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin() or hasAuthority('SCOPE_INTERNAL')")
+    public ResponseEntity<TenantBatchGetResponse> batchGet(@Valid @RequestBody TenantBatchGetRequest request) {
+        return ResponseEntity.ok(tenantService.getTenantSummaries(request.getTenantIds()));
+    }
+}
@@ -1,21 +1,38 @@
 package com.iotmining.services.tms.controller;
 
+import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.dto.BulkCreateTenantRequest;
+import com.iotmining.services.tms.dto.BulkCreateTenantResponse;
 import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
 import com.iotmining.services.tms.dto.CreateTenantRequest;
 import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantAncestryRequest;
+import com.iotmining.services.tms.dto.TenantAncestryResponse;
+import com.iotmining.services.tms.dto.TenantCursor;
+import com.iotmining.services.tms.dto.TenantCursorPage;
+import com.iotmining.services.tms.dto.TenantExportFilter;
 import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.services.TenantExportService;
 import com.iotmining.services.tms.services.TenantService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,7 +41,14 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TenantController {
 
+    // Clients may keep a copy but must revalidate it (If-None-Match) on
+    // every use; shared caches must not keep one at all. Every versioned
+    // response also varies by Accept: the same version is sent as JSON,
+    // Smile or CBOR (ContentNegotiationConfig).
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TenantService tenantService;
+    private final TenantExportService tenantExportService;
 
     // Allows both an interactive SUPER_ADMIN action and auth-service's
     // signup-time internal call (see JwtTokenProvider.issueInternalToken).
@@ -35,8 +59,17 @@ public class TenantController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    // Onboarding a large customer in one call. Always 200: whether each item
+    // was created is reported per item in the body.
+    @PostMapping("/bulk")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin() or hasAuthority('SCOPE_INTERNAL')")
+    public ResponseEntity<BulkCreateTenantResponse> createTenants(@Valid @RequestBody BulkCreateTenantRequest request) {
+        return ResponseEntity.ok(tenantService.createTenants(request.getTenants()));
+    }
+
     // Internal-service-only: never reachable with an ordinary end-user token,
     // regardless of role. This is auth-service's compensating-transaction call.
+    // Idempotent: 204 whether or not the tenant still existed.
     @DeleteMapping("/internal/{tenantId}")
     @PreAuthorize("hasAuthority('SCOPE_INTERNAL')")
     public ResponseEntity<Void> rollbackTenantCreation(@PathVariable("tenantId") UUID tenantId) {
@@ -44,14 +77,58 @@ public class TenantController {
         return ResponseEntity.noContent().build();
     }
 
+    // Batch hierarchy lookups for other services' authorization checks.
+    // The ETag hashes the request body with the persisted versions of the
+    // requested tenants and their ancestors, so any replica issues the same
+    // one for the same answer. Served from the database (no ETag) while the
+    // index loads.
+    @PostMapping("/ancestry")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin() or hasAuthority('SCOPE_INTERNAL')")
+    public ResponseEntity<TenantAncestryResponse> resolveAncestry(
+            @Valid @RequestBody TenantAncestryRequest request,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TenantAncestryResponse response = tenantService.resolveAncestry(request);
+        if (response.getHierarchyVersion() == null) {
+            return ResponseEntity.ok(response);
+        }
+        String version = response.getHierarchyVersion();
+        if (matches(ifNoneMatch, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(version).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok().eTag(version).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(response);
+    }
+
+    // Name search for admin UIs, best match first. Anyone but a SUPER_ADMIN
+    // has to scope it to a tenant they belong to.
+    @GetMapping("/search")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin() "
+            + "or (#within != null and @tenantSecurity.isTenantMember(#within.toString()))")
+    public ResponseEntity<List<TenantSummaryResponse>> searchTenants(
+            @RequestParam("q") String query,
+            @RequestParam(name = "within", required = false) UUID within,
+            @RequestParam(name = "fuzzy", defaultValue = "true") boolean fuzzy,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tenantService.searchTenants(query, fuzzy, within, limit));
+    }
+
+    // Strong ETag from the row (see rowTag), plus Last-Modified. Spring
+    // answers a matching If-None-Match / If-Modified-Since with 304 itself.
     @GetMapping("/{tenantId}")
     @PreAuthorize("@tenantSecurity.isTenantMember(#tenantId.toString())")
     public ResponseEntity<TenantSummaryResponse> getTenantDetails(@PathVariable("tenantId") UUID tenantId) {
         TenantSummaryResponse details = tenantService.getTenantSummary(tenantId);
-        if (details != null) {
-            return ResponseEntity.ok(details);
+        if (details == null) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(rowTag(details))
+                .cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT);
+        if (details.getUpdatedAt() != null) {
+            response.lastModified(details.getUpdatedAt());
+        }
+        return response.body(details);
     }
 
     // Platform-wide tenant listing - SUPER_ADMIN only. Paginated: an
@@ -63,15 +140,89 @@ public class TenantController {
         return ResponseEntity.ok(tenantService.getAllTenants(pageable));
     }
 
+    // Keyset mode, selected by the cursor parameter (empty for the first
+    // page, then each response's nextCursor). No COUNT, and page N costs
+    // the same as page 1; includeTotal adds a statistics-based estimate.
+    @GetMapping(params = "cursor")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin()")
+    public ResponseEntity<TenantCursorPage> getAllTenantsByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        Slice<TenantSummaryResponse> slice = tenantService.getTenantsAfter(TenantCursor.decode(cursor), size);
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            TenantSummaryResponse last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new TenantCursor(last.getTenantName(), last.getTenantId()).encode();
+        }
+        Long approximateTotal = includeTotal ? tenantService.estimateTenantCount() : null;
+        return ResponseEntity.ok(new TenantCursorPage(slice.getContent(), slice.hasNext(), nextCursor, approximateTotal));
+    }
+
+    // Full directory for billing/analytics jobs as NDJSON, streamed from a
+    // database cursor instead of paging. createdFrom is inclusive,
+    // createdTo exclusive (ISO-8601 instants).
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("@tenantSecurity.isSuperAdmin()")
+    public ResponseEntity<StreamingResponseBody> exportTenants(
+            @RequestParam(name = "tenantType", required = false) TenantType tenantType,
+            @RequestParam(name = "createdFrom", required = false) Instant createdFrom,
+            @RequestParam(name = "createdTo", required = false) Instant createdTo) {
+        TenantExportFilter filter = new TenantExportFilter(tenantType, createdFrom, createdTo);
+        StreamingResponseBody body = out -> tenantExportService.export(filter, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/children/{parentId}")
     @PreAuthorize("@tenantSecurity.isTenantMember(#parentId.toString())")
     public ResponseEntity<List<TenantSummaryResponse>> getSubTenants(@PathVariable("parentId") UUID parentId) {
         return ResponseEntity.ok(tenantService.getSubTenants(parentId));
     }
 
+    // The ETag is the subtree version, which changes with any tenant in the
+    // tree. It's derived from the rows alone, so every replica sends the
+    // same one for the same tree. With the index loaded, a matching
+    // If-None-Match is answered before the tree is built or fetched from
+    // cache; while it loads, once the tree has been read.
     @GetMapping("/{tenantId}/companies-with-users")
     @PreAuthorize("@tenantSecurity.isTenantMember(#tenantId.toString())")
-    public ResponseEntity<List<CompanyWithUsersResponse>> getCompaniesWithUsers(@PathVariable("tenantId") UUID tenantId) {
-        return ResponseEntity.ok(tenantService.getCompaniesAndUsers(tenantId));
+    public ResponseEntity<List<CompanyWithUsersResponse>> getCompaniesWithUsers(
+            @PathVariable("tenantId") UUID tenantId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String current = tenantService.getSubtreeVersion(tenantId);
+        if (current != null && matches(ifNoneMatch, current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(current).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        List<CompanyWithUsersResponse> trees = tenantService.getCompaniesAndUsers(tenantId);
+        // Tagged with the version the (possibly cached) tree was built at,
+        // not the one just read - a tag must never be newer than its body.
+        String version = trees.get(0).getVersion();
+        if (version == null) {
+            return ResponseEntity.ok(trees);
+        }
+        if (matches(ifNoneMatch, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(version).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok().eTag(version).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(trees);
+    }
+
+    // The row version alone doesn't identify the content: it stays 0 until
+    // a tenant is first updated, so a tenant deleted and re-created under
+    // the same id would match the old tag. updated_at (microseconds, as
+    // Postgres keeps it) is new for every insert and update.
+    private static String rowTag(TenantSummaryResponse details) {
+        if (details.getUpdatedAt() == null) {
+            return Long.toString(details.getVersion());
+        }
+        return details.getVersion() + "-" + ChronoUnit.MICROS.between(Instant.EPOCH, details.getUpdatedAt());
+    }
+
+    private static boolean matches(String ifNoneMatch, String version) {
+        String etag = "\"" + version + "\"";
+        return ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(",")).map(String::trim).anyMatch(etag::equals);
     }
 }
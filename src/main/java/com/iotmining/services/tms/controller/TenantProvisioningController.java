@@ -0,0 +1,47 @@
+package com.iotmining.services.tms.controller;
+
+import com.iotmining.services.tms.dto.TenantProvisioningResponse;
+import com.iotmining.services.tms.services.TenantProvisioningService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Keyspace provisioning status. Creating a tenant only queues its
+ * provisioning; callers that need the keyspace (auth-service at signup)
+ * poll the status until it is READY or FAILED instead of blocking on the
+ * create.
+ */
+@RestController
+@RequestMapping("/api/v1/tenants/{tenantId}/provisioning")
+@RequiredArgsConstructor
+public class TenantProvisioningController {
+
+    private final TenantProvisioningService provisioningService;
+
+    // no-store: the status changes under the poller, a cached copy is
+    // always wrong.
+    @GetMapping
+    @PreAuthorize("@tenantSecurity.isTenantMember(#tenantId.toString()) or hasAuthority('SCOPE_INTERNAL')")
+    public ResponseEntity<TenantProvisioningResponse> getProvisioning(@PathVariable("tenantId") UUID tenantId) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(provisioningService.getProvisioning(tenantId));
+    }
+
+    // 202: the attempt itself runs later on a provisioning worker. 409
+    // unless the provisioning had FAILED.
+    @PostMapping("/retry")
+    @PreAuthorize("@tenantSecurity.isSuperAdmin() or hasAuthority('SCOPE_INTERNAL')")
+    public ResponseEntity<TenantProvisioningResponse> retry(@PathVariable("tenantId") UUID tenantId) {
+        return ResponseEntity.accepted().body(provisioningService.retry(tenantId));
+    }
+}
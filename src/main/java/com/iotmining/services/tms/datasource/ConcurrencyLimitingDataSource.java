@@ -0,0 +1,151 @@
+package com.iotmining.services.tms.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds how many threads hold a connection at once.
+ *
+ * <p>With virtual threads there is no request-thread pool to throttle
+ * traffic, so a burst turns straight into thousands of threads contending
+ * for the Hikari pool - and any that wait longer than Hikari's
+ * connection-timeout fail. Set to the pool size, this makes them queue
+ * FIFO on a fair semaphore instead (j.u.c., so a waiting virtual thread
+ * unmounts rather than pinning its carrier), and only the acquire timeout
+ * here turns a wait into an error.</p>
+ *
+ * <p>The permit is held from getConnection() until the connection is
+ * closed, i.e. returned to the pool.</p>
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeout = acquireTimeout;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection(username, password));
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public int getActive() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms waiting for one of "
+                        + maxConcurrency + " database permits (" + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database permit", ex);
+        }
+    }
+
+    // Releases the permit if the pool itself fails to hand out a connection.
+    private Connection guard(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+        return (Connection) Proxy.newProxyInstance(ConcurrencyLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ReleasingHandler(connection));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    // close() may be called more than once (Hibernate and Spring both do on
+    // some paths); only the first one gives the permit back.
+    private final class ReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            } finally {
+                if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
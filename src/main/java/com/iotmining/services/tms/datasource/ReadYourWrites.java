@@ -0,0 +1,42 @@
+package com.iotmining.services.tms.datasource;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pins read-only transactions to the primary for a short window after a
+ * tenant write commits, so a create followed straight away by a read of the
+ * new tenant can't miss it on a lagging replica.
+ *
+ * <p>The window is per instance, not per caller: any write opens it for
+ * every reader here. Writes are rare next to reads, so that costs little,
+ * and most reads after a local write are served by the hierarchy index
+ * anyway. Other instances learn of the write through the change channel,
+ * not through this.</p>
+ */
+public class ReadYourWrites {
+
+    private final long windowNanos;
+    private final AtomicLong lastWriteNanos;
+
+    public ReadYourWrites(Duration window) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("read-your-writes window must not be negative");
+        }
+        this.windowNanos = window.toNanos();
+        // Starts closed.
+        this.lastWriteNanos = new AtomicLong(System.nanoTime() - windowNanos - 1);
+    }
+
+    public void recordWrite() {
+        lastWriteNanos.set(System.nanoTime());
+    }
+
+    public boolean isActive() {
+        return windowNanos > 0 && System.nanoTime() - lastWriteNanos.get() <= windowNanos;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+}
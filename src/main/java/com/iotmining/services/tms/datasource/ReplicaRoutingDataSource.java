@@ -0,0 +1,233 @@
+package com.iotmining.services.tms.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends read-only transactions to replica pools and everything else to the
+ * primary.
+ *
+ * <p>Routing happens when the first statement runs, not when the
+ * transaction begins: the transaction manager marks the (lazy) connection
+ * read-only before anything touches the database, and only then is a
+ * physical connection taken - from a replica if the connection is
+ * read-only, from the primary otherwise. That covers
+ * {@code @Transactional(readOnly = true)} service methods and the
+ * repositories' own read-only transactions alike.</p>
+ *
+ * <p>Replicas are picked round-robin among the healthy ones. A replica is
+ * marked down when it fails to hand out a connection, or when the periodic
+ * health check finds it unreachable or more than {@code maxLag} behind;
+ * only a later passing check brings it back. A read falls back to the
+ * primary when no replica is healthy, and while the read-your-writes
+ * window is open.</p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements MeterBinder {
+
+    // 0 once the replica has replayed all WAL it received - an idle primary
+    // would otherwise show as ever-growing lag. 0 on a non-replica too.
+    static final String LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END""";
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final BooleanSupplier readYourWrites;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong pinnedReads = new AtomicLong();
+    private final AtomicLong failoverReads = new AtomicLong();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    BooleanSupplier readYourWrites, Duration maxLag) {
+        super(primary);
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("at least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        setReadOnlyDataSource(new ReadRouter());
+    }
+
+    /**
+     * Starts the health checks. Until the first one passes, every replica
+     * counts as down and reads go to the primary.
+     */
+    public synchronized void start(Duration healthCheckInterval) {
+        if (healthChecker != null) {
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("tms-replica-health").daemon().factory());
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the health checks and closes the replica pools. The primary is
+     * left alone - it isn't ours.
+     */
+    public synchronized void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        // Unwrapped, since a pool may sit behind a concurrency limit.
+        for (Replica replica : replicas) {
+            try {
+                if (replica.dataSource.isWrapperFor(AutoCloseable.class)) {
+                    replica.dataSource.unwrap(AutoCloseable.class).close();
+                }
+            } catch (Exception ex) {
+                log.warn("Failed to close replica pool '{}'", replica.name, ex);
+            }
+        }
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    replica.lagSeconds = rs.getDouble(1);
+                }
+                if (replica.lagSeconds > maxLagSeconds) {
+                    replica.markDown("replication lag " + replica.lagSeconds + "s");
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+    }
+
+    public boolean isHealthy(String replicaName) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(replicaName) && replica.healthy);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("tms.db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 while the replica takes reads, 0 while it is down")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("tms.db.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag at the last health check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        readCounter(registry, "replica", "healthy", replicaReads);
+        readCounter(registry, "primary", "read-your-writes", pinnedReads);
+        readCounter(registry, "primary", "no-healthy-replica", failoverReads);
+    }
+
+    private static void readCounter(MeterRegistry registry, String target, String reason, AtomicLong count) {
+        FunctionCounter.builder("tms.db.reads", count, AtomicLong::get)
+                .description("Read-only connections, by where they were routed")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (readYourWrites.getAsBoolean()) {
+            pinnedReads.incrementAndGet();
+            return source.from(primary);
+        }
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = source.from(replica.dataSource);
+                replicaReads.incrementAndGet();
+                return connection;
+            } catch (SQLException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+        failoverReads.incrementAndGet();
+        return source.from(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    private final class ReadRouter extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route(DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route(dataSource -> dataSource.getConnection(username, password));
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(String reason) {
+            if (healthy) {
+                log.warn("Replica '{}' is down, reading from the primary instead: {}", name, reason);
+            }
+            healthy = false;
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                log.info("Replica '{}' is up, lag {}s", name, lagSeconds);
+            }
+            healthy = true;
+        }
+    }
+}
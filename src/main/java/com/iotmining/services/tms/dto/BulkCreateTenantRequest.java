@@ -0,0 +1,24 @@
+package com.iotmining.services.tms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateTenantRequest {
+
+    public static final int MAX_TENANTS = 5000;
+
+    // Items are created in order: an item can only reference (parentRef) an
+    // item that comes before it.
+    @NotEmpty(message = "tenants must not be empty")
+    @Size(max = MAX_TENANTS, message = "At most " + MAX_TENANTS + " tenants per request")
+    private List<@Valid CreateTenantRequest> tenants;
+}
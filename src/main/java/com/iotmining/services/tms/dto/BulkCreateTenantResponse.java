@@ -0,0 +1,34 @@
+package com.iotmining.services.tms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateTenantResponse {
+    private int created;
+    private int failed;
+    private List<Result> results; // one per request item, same order
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Result {
+        private int index;
+        private String ref;
+        private CreateTenantResponse tenant; // null when the item failed
+        private String error; // null when the item was created
+
+        public static Result created(int index, String ref, CreateTenantResponse tenant) {
+            return new Result(index, ref, tenant, null);
+        }
+
+        public static Result failed(int index, String ref, String error) {
+            return new Result(index, ref, null, error);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.iotmining.services.tms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,10 @@ public class CompanyWithUsersResponse {
     private TenantSummaryResponse company;
     private List<TenantSummaryResponse> users;
     private List<CompanyWithUsersResponse> subCompanies;
+
+    // Root node only: the subtree version (HierarchyVersions), sent as the
+    // tree's ETag. Travels with the cached tree, local or shared, so the
+    // ETag always matches the content it's sent with.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String version;
 }
@@ -23,4 +23,17 @@ public class CreateTenantRequest {
 
     private UUID parentId;
     private List<String> roles; // Pass roles here for mapping
+
+    // Bulk create only (POST /bulk): lets an item name a parent created
+    // earlier in the same batch, whose id isn't known yet. An item gives
+    // parentId or parentRef, not both.
+    @Size(max = 64, message = "ref must be at most 64 characters")
+    private String ref;
+
+    @Size(max = 64, message = "parentRef must be at most 64 characters")
+    private String parentRef;
+
+    public CreateTenantRequest(String tenantName, String subscriptionPlan, UUID parentId, List<String> roles) {
+        this(tenantName, subscriptionPlan, parentId, roles, null, null);
+    }
 }
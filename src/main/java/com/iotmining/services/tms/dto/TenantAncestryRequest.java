@@ -0,0 +1,38 @@
+package com.iotmining.services.tms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantAncestryRequest {
+
+    public static final int MAX_ITEMS = 1000;
+
+    // Tenants whose ancestor chains should be returned.
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " tenantIds per request")
+    private List<@NotNull UUID> tenantIds;
+
+    // (principal, target) pairs to answer with a membership boolean.
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " memberships per request")
+    private List<@Valid MembershipCheck> memberships;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MembershipCheck {
+        @NotNull(message = "principalTenantId is required")
+        private UUID principalTenantId;
+
+        @NotNull(message = "tenantId is required")
+        private UUID tenantId;
+    }
+}
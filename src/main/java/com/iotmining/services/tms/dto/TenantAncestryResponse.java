@@ -0,0 +1,28 @@
+package com.iotmining.services.tms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantAncestryResponse {
+    private String hierarchyVersion; // null when answered from the database
+    private Map<UUID, List<UUID>> ancestors; // per requested tenantId: parent first, root last
+    private List<Membership> memberships; // one per requested pair, same order
+    private List<UUID> unknown; // requested tenants (or membership targets) that don't exist
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Membership {
+        private UUID principalTenantId;
+        private UUID tenantId;
+        private boolean member; // tenantId is principalTenantId or one of its descendants
+    }
+}
@@ -0,0 +1,23 @@
+package com.iotmining.services.tms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantBatchGetRequest {
+
+    public static final int MAX_TENANT_IDS = 5000;
+
+    @NotEmpty(message = "tenantIds must not be empty")
+    @Size(max = MAX_TENANT_IDS, message = "At most " + MAX_TENANT_IDS + " tenant ids per request")
+    private List<@NotNull UUID> tenantIds;
+}
@@ -0,0 +1,16 @@
+package com.iotmining.services.tms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantBatchGetResponse {
+    private List<TenantSummaryResponse> tenants; // found tenants, in request order
+    private List<UUID> missing; // requested ids with no tenant
+}
@@ -0,0 +1,42 @@
+package com.iotmining.services.tms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (name, id) keyset listing. Clients only ever see the
+ * opaque {@link #encode() encoded} form.
+ */
+@Data
+@AllArgsConstructor
+public class TenantCursor {
+
+    private static final int UUID_LENGTH = 36;
+
+    private String tenantName;
+    private UUID tenantId;
+
+    // The id goes first: it has a fixed length, so no separator can clash
+    // with a character in the name.
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((tenantId + tenantName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a client-supplied cursor; blank means "from the start" and yields null. */
+    public static TenantCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new TenantCursor(raw.substring(UUID_LENGTH), UUID.fromString(raw.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
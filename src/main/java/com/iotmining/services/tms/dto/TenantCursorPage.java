@@ -0,0 +1,17 @@
+package com.iotmining.services.tms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantCursorPage {
+    private List<TenantSummaryResponse> content;
+    private boolean hasNext;
+    private String nextCursor; // pass back as ?cursor= for the next page; null on the last page
+    private Long approximateTotal; // only with includeTotal=true, and null until Postgres has statistics
+}
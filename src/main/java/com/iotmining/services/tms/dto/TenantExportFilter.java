@@ -0,0 +1,18 @@
+package com.iotmining.services.tms.dto;
+
+import com.iotmining.common.data.tenant.TenantType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// All optional; a null field doesn't filter.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantExportFilter {
+    private TenantType tenantType;
+    private Instant createdFrom; // inclusive
+    private Instant createdTo; // exclusive
+}
@@ -0,0 +1,24 @@
+package com.iotmining.services.tms.dto;
+
+import com.iotmining.common.data.tenant.TenantAccessLevel;
+import com.iotmining.common.data.tenant.TenantType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One line of GET /api/v1/tenants/export.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantExportRow {
+    private UUID tenantId;
+    private String tenantName;
+    private String subscriptionPlan;
+    private UUID parentId;
+    private TenantType tenantType;
+    private TenantAccessLevel accessLevel;
+    private Instant createdAt;
+}
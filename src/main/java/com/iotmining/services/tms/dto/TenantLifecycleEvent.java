@@ -0,0 +1,27 @@
+package com.iotmining.services.tms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Kafka payload for a committed tenant create or delete, keyed by
+ * {@code tenantId}. Delivery is at-least-once, so consumers should
+ * de-duplicate on {@code eventId}. {@code tenant} is only set for CREATED.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantLifecycleEvent {
+
+    public enum Type { CREATED, DELETED }
+
+    private UUID eventId;
+    private Type type;
+    private UUID tenantId;
+    private Instant occurredAt;
+    private TenantSummaryResponse tenant;
+}
@@ -0,0 +1,27 @@
+package com.iotmining.services.tms.dto;
+
+import com.iotmining.services.tms.model.TenantProvisioning;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Where a tenant's keyspace provisioning stands. {@code nextAttemptAt} is
+ * the scheduled retry while PENDING; {@code lastError} is the most recent
+ * failure, kept after a later attempt succeeds.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantProvisioningResponse {
+    private UUID tenantId;
+    private String keyspaceName;
+    private TenantProvisioning.Status status;
+    private int attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+    private Instant updatedAt;
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Data
@@ -19,4 +20,6 @@ public class TenantSummaryResponse {
     private UUID parentId;
     private TenantType tenantType;
     private TenantAccessLevel accessLevel;
+    private long version; // Tenant row version, also the tenant's ETag
+    private Instant updatedAt;
 }
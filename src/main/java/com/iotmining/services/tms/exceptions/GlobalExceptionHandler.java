@@ -3,6 +3,7 @@ package com.iotmining.services.tms.exceptions;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -50,6 +51,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    // A unique index rejected a write that lost a race the service's own
+    // check couldn't see (e.g. two creates claiming the same keyspace name).
+    // The constraint details stay in the log.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        log.warn("Write rejected by a database constraint", ex);
+        Map<String, Object> response = new HashMap<>();
+        response.put("statusCode", HttpStatus.CONFLICT.value());
+        response.put("error", "Conflict");
+        response.put("message", "The request conflicts with a concurrent change, retry it.");
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
         Map<String, Object> response = new HashMap<>();
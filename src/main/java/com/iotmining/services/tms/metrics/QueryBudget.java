@@ -0,0 +1,25 @@
+package com.iotmining.services.tms.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one call of the annotated method may issue,
+ * counted across everything it calls, including the commit flush of its
+ * own transaction. Cache hits and index reads count zero. Enforced by
+ * QueryBudgetAspect: a violation fails in tests
+ * ({@code tms.query-budget.mode=FAIL}) and is only recorded in production.
+ *
+ * <p>Works on any Spring bean method called through its proxy - service
+ * methods and controller endpoints alike.</p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    int value();
+}
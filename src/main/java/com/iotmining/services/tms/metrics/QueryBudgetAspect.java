@@ -0,0 +1,100 @@
+package com.iotmining.services.tms.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces {@link QueryBudget}. Every violation increments
+ * {@code tms.query.budget.exceeded} (tagged with the method, e.g.
+ * {@code TenantService.getSubTenants}); at most one per method per
+ * log interval is also logged with the statements that ran, so a
+ * regression that hits every request doesn't flood the log. In
+ * {@link Mode#FAIL} the call then fails with QueryBudgetExceededError.
+ *
+ * <p>Runs outside every other advice, so the count includes the commit
+ * flush of a {@code @Transactional} method and a cache hit counts zero.</p>
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryBudgetAspect {
+
+    public enum Mode {
+        /** Record violations as metrics and sampled log entries. */
+        RECORD,
+        /** Also fail the call - for tests. */
+        FAIL
+    }
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+    private final Mode mode;
+    private final long logIntervalNanos;
+    private final Map<String, AtomicLong> lastLogged = new ConcurrentHashMap<>();
+
+    public QueryBudgetAspect(SqlStatementCounter counter, MeterRegistry registry, Mode mode, Duration logInterval) {
+        this.counter = counter;
+        this.registry = registry;
+        this.mode = mode;
+        this.logIntervalNanos = logInterval.toNanos();
+    }
+
+    @Around("@annotation(budget)")
+    public Object enforce(ProceedingJoinPoint joinPoint, QueryBudget budget) throws Throwable {
+        SqlStatementCounter.Scope scope = counter.open();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            // Still recorded, but never masks the original failure.
+            check(joinPoint, budget, scope, false);
+            throw ex;
+        }
+        check(joinPoint, budget, scope, mode == Mode.FAIL);
+        return result;
+    }
+
+    private void check(ProceedingJoinPoint joinPoint, QueryBudget budget, SqlStatementCounter.Scope scope,
+                       boolean fail) {
+        int statements = scope.count();
+        List<String> sql = statements > budget.value() ? scope.statements() : List.of();
+        scope.close();
+        if (statements <= budget.value()) {
+            return;
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        Counter.builder("tms.query.budget.exceeded")
+                .description("Calls that issued more SQL statements than their @QueryBudget")
+                .tag("method", method)
+                .register(registry)
+                .increment();
+        if (fail) {
+            throw new QueryBudgetExceededError(method, statements, budget.value(), sql);
+        }
+        if (shouldLog(method)) {
+            log.warn("Query budget exceeded: {} issued {} SQL statements, budget is {}:\n  {}",
+                    method, statements, budget.value(), String.join("\n  ", sql));
+        }
+    }
+
+    private boolean shouldLog(String method) {
+        AtomicLong last = lastLogged.computeIfAbsent(method, m -> new AtomicLong(System.nanoTime() - logIntervalNanos));
+        long previous = last.get();
+        long now = System.nanoTime();
+        return now - previous >= logIntervalNanos && last.compareAndSet(previous, now);
+    }
+}
@@ -0,0 +1,16 @@
+package com.iotmining.services.tms.metrics;
+
+import java.util.List;
+
+/**
+ * Thrown in {@code FAIL} mode when a {@link QueryBudget} is exceeded. An
+ * AssertionError on purpose: it's a test failure, and must not be turned
+ * into an ordinary error response by GlobalExceptionHandler.
+ */
+public class QueryBudgetExceededError extends AssertionError {
+
+    public QueryBudgetExceededError(String method, int statements, int budget, List<String> sql) {
+        super(method + " issued " + statements + " SQL statements, budget is " + budget + ":\n  "
+                + String.join("\n  ", sql));
+    }
+}
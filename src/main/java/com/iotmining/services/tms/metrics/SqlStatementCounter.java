@@ -0,0 +1,101 @@
+package com.iotmining.services.tms.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares, in total and within
+ * {@link Scope}s on the current thread - one per HTTP request (see
+ * SqlStatementMetricsInterceptor) and one per {@code @QueryBudget} call
+ * (see QueryBudgetAspect). Scopes nest: a statement counts towards every
+ * scope open on its thread. A JDBC batch is prepared once, so it counts as
+ * one statement however many rows it carries.
+ *
+ * <p>While a scope is open the statement texts are kept too (up to
+ * {@link #MAX_CAPTURED} per thread), so a budget violation can show what
+ * ran. They are Hibernate's parameterised SQL - no bound values.</p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    public static final int MAX_CAPTURED = 100;
+
+    private final ThreadLocal<State> current = new ThreadLocal<>();
+    private final Counter total;
+
+    public SqlStatementCounter(MeterRegistry registry) {
+        this.total = Counter.builder("tms.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(registry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        total.increment();
+        State state = current.get();
+        if (state != null) {
+            state.count++;
+            if (state.statements.size() < MAX_CAPTURED) {
+                state.statements.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    /** Starts counting on this thread until the returned scope is closed. */
+    public Scope open() {
+        State state = current.get();
+        if (state == null) {
+            state = new State();
+            current.set(state);
+        }
+        state.openScopes++;
+        return new Scope(state, state.count, state.statements.size());
+    }
+
+    private static final class State {
+        private int count;
+        private int openScopes;
+        private final List<String> statements = new ArrayList<>();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final State state;
+        private final int startCount;
+        private final int startCaptured;
+        private boolean closed;
+        private int count;
+
+        private Scope(State state, int startCount, int startCaptured) {
+            this.state = state;
+            this.startCount = startCount;
+            this.startCaptured = startCaptured;
+        }
+
+        /** Statements so far, or in total once closed. */
+        public int count() {
+            return closed ? count : state.count - startCount;
+        }
+
+        /** The captured statement texts, oldest first. Only valid while open. */
+        public List<String> statements() {
+            return List.copyOf(state.statements.subList(startCaptured, state.statements.size()));
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            count = count();
+            closed = true;
+            if (--state.openScopes == 0 && current.get() == state) {
+                current.remove();
+            }
+        }
+    }
+}
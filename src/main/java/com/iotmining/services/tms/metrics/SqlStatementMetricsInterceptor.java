@@ -0,0 +1,65 @@
+package com.iotmining.services.tms.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each request issued, as
+ * {@code tms.http.server.sql.statements} tagged with the HTTP method and
+ * the matched URI template (e.g. {@code /api/v1/tenants/{tenantId}}), the
+ * same low-cardinality tags as {@code http.server.requests}.
+ *
+ * <p>Only the request thread is counted. For an async request (the
+ * export) the counting stops when the handler returns; the statements run
+ * by the async work aren't included.</p>
+ */
+public class SqlStatementMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = SqlStatementMetricsInterceptor.class.getName() + ".scope";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+
+    public SqlStatementMetricsInterceptor(SqlStatementCounter counter, MeterRegistry registry) {
+        this.counter = counter;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(SCOPE_ATTRIBUTE, counter.open());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope) {
+            scope.close();
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope)) {
+            return;
+        }
+        scope.close();
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("tms.http.server.sql.statements")
+                .baseUnit("statements")
+                .description("SQL statements issued while handling a request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(scope.count());
+    }
+}
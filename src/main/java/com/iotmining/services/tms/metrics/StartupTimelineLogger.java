@@ -0,0 +1,80 @@
+package com.iotmining.services.tms.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs the slowest startup steps once the application is ready, from the
+ * BufferingApplicationStartup set up in main(). The whole timeline stays
+ * available at {@code /actuator/startup}; this is the short version for
+ * whoever reads the boot log.
+ *
+ * <p>Steps are ranked by self time - their own duration minus the steps
+ * nested in them - since creating one bean also creates everything it
+ * depends on. {@code entityManagerFactory} is the JPA bootstrap (Flyway
+ * included), {@code eurekaClient} the first registry fetch and
+ * {@code tms.platform-tenant.seed} TenantInitializer, which runs first
+ * among the ready listeners. {@code tms.startup.log-slowest} steps are logged; 0 turns it off.</p>
+ */
+@Slf4j
+@Component
+public class StartupTimelineLogger {
+
+    private final int slowest;
+
+    public StartupTimelineLogger(@Value("${tms.startup.log-slowest:10}") int slowest) {
+        this.slowest = slowest;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logSlowestSteps(ApplicationReadyEvent event) {
+        if (slowest <= 0 || !(event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        log.info("TMS Boot: slowest startup steps (self/total ms), full timeline at /actuator/startup:");
+        for (StepTime step : slowestSteps(timeline, slowest)) {
+            log.info("TMS Boot: {} / {} {}", step.self().toMillis(), step.total().toMillis(), step.description());
+        }
+    }
+
+    static List<StepTime> slowestSteps(StartupTimeline timeline, int limit) {
+        Map<Long, Duration> nested = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                nested.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+        return timeline.getEvents().stream()
+                .map(event -> new StepTime(describe(event.getStartupStep()), event.getDuration(),
+                        event.getDuration().minus(nested.getOrDefault(event.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Comparator.comparing(StepTime::self).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            description.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return description.toString();
+    }
+
+    record StepTime(String description, Duration total, Duration self) {
+    }
+}
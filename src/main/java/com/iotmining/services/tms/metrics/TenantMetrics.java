@@ -0,0 +1,81 @@
+package com.iotmining.services.tms.metrics;
+
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Shape metrics for TenantService's work - how big the trees it builds
+ * are, how long the IN-lists it sends. Tags are fixed strings (tree
+ * source, query name), never tenant ids, to keep cardinality flat.
+ */
+@Component
+public class TenantMetrics {
+
+    private final MeterRegistry registry;
+
+    public TenantMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records the node count and depth (root = 0) of a tree served by
+     * getCompaniesAndUsers; {@code source} is {@code index} or
+     * {@code database}.
+     */
+    public void recordTree(CompanyWithUsersResponse tree, String source) {
+        int size = 0;
+        int depth = 0;
+        Deque<CompanyWithUsersResponse> nodes = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        nodes.push(tree);
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            CompanyWithUsersResponse node = nodes.pop();
+            int nodeDepth = depths.pop();
+            size++;
+            depth = Math.max(depth, nodeDepth);
+            for (CompanyWithUsersResponse child : node.getSubCompanies()) {
+                nodes.push(child);
+                depths.push(nodeDepth + 1);
+            }
+        }
+        summary("tms.tenant.tree.size", "tenants", "Tenants in a served descendant tree", "source", source)
+                .record(size);
+        summary("tms.tenant.tree.depth", "levels", "Depth of a served descendant tree", "source", source)
+                .record(depth);
+    }
+
+    /** Records the number of values bound into one IN-list by {@code query}. */
+    public void recordInListSize(String query, int size) {
+        summary("tms.sql.in.list.size", "values", "Values bound into one IN-list", "query", query)
+                .record(size);
+    }
+
+    /**
+     * Counts tenants read from the database after the loaded hierarchy
+     * index missed them, and put into it.
+     */
+    public void recordIndexBackfill(int tenants) {
+        Counter.builder("tms.hierarchy.index.backfill")
+                .baseUnit("tenants")
+                .description("Tenants added to the hierarchy index after a miss")
+                .register(registry)
+                .increment(tenants);
+    }
+
+    private DistributionSummary summary(String name, String unit, String description, String tagKey,
+                                        String tagValue) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .description(description)
+                .tag(tagKey, tagValue)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -6,19 +6,22 @@ import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
 @Table(name = "tenants", indexes = {
         @Index(name = "idx_tenants_parent_id", columnList = "parent_id"),
-        @Index(name = "idx_tenants_tenant_type", columnList = "tenant_type")
+        @Index(name = "idx_tenants_tenant_type", columnList = "tenant_type"),
+        @Index(name = "idx_tenants_name_id", columnList = "name, id")
 })
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class Tenant {
+public class Tenant implements Persistable<UUID> {
 
     @Id
     @Column(name = "id")
@@ -33,6 +36,17 @@ public class Tenant {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    // Bumped by Hibernate on every update - an optimistic lock for
+    // concurrent writers, and the tenant's ETag. Added together with
+    // updated_at to older databases by
+    // db/migration/V5__tenants_version_updated_at.sql.
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     @ToString.Exclude
@@ -47,6 +61,42 @@ public class Tenant {
     @Enumerated(EnumType.STRING)
     @Column(name = "access_level", nullable = false)
     private TenantAccessLevel accessLevel;
+
+    // Ids are assigned by the application, so Spring Data can't tell a new
+    // tenant from a detached one by its id: save() would merge, i.e. SELECT
+    // before every INSERT, which also defeats JDBC insert batching.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private boolean isNew = true;
+
+    @Override
+    @JsonIgnore
+    public UUID getId() {
+        return tenantId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    // Microseconds, as Postgres stores it - so the in-memory copy the
+    // index and caches keep equals what a reload returns.
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
 
 //package com.iotmining.services.tms.model;
@@ -0,0 +1,50 @@
+package com.iotmining.services.tms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Closure-table row: {@code ancestorId} is an ancestor of (or, at depth 0,
+ * the same tenant as) {@code descendantId}. Every tenant has one row per
+ * ancestor plus its self row, so a whole subtree is a single primary-key
+ * prefix scan on {@code ancestor_id}.
+ *
+ * <p>Rows are written and removed by {@code TenantClosureRepository}'s
+ * set-based statements (and TenantRepository's subtree delete), never
+ * through this entity - it's mapped so that Hibernate validates the table
+ * alongside {@code tenants}.</p>
+ */
+@Entity
+@Table(name = "tenant_closure", indexes = {
+        @Index(name = "idx_tenant_closure_descendant", columnList = "descendant_id")
+})
+@IdClass(TenantClosure.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private UUID ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private UUID descendantId;
+
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private UUID ancestorId;
+        private UUID descendantId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.iotmining.services.tms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A tenant lifecycle event waiting to be published to Kafka. Written in the
+ * same transaction as the tenant change it describes, so an event exists
+ * if and only if the change committed; TenantOutboxRelay publishes the rows
+ * in {@code id} order and deletes them once Kafka has acknowledged them.
+ *
+ * <p>Rows are appended by {@code TenantOutboxRepository.append}'s
+ * set-based insert, never persisted through this entity - {@code id} is
+ * the identity column's default, assigned in insert order.</p>
+ */
+@Entity
+@Table(name = "tenant_outbox")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    // The Kafka record key, so a tenant's events share a partition.
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+
+    // The serialized TenantLifecycleEvent, published as-is.
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,99 @@
+package com.iotmining.services.tms.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keyspace provisioning state of one tenant, written PENDING in the
+ * tenant's create transaction and advanced by TenantProvisioningWorker.
+ *
+ * <p>{@code nextAttemptAt} is when the row is next due: the retry time
+ * while PENDING, the end of the worker's lease while IN_PROGRESS - a row
+ * whose worker died is picked up again once its lease runs out.
+ * {@code version} makes a worker whose lease was taken over lose the
+ * race instead of overwriting the newer attempt's result.</p>
+ *
+ * <p>Keyspace names are unique: TenantService checks a new tenant's name
+ * against the unique index before choosing its keyspace.</p>
+ */
+@Entity
+@Table(name = "tenant_provisioning", indexes = {
+        @Index(name = "idx_tenant_provisioning_due", columnList = "status, next_attempt_at"),
+        @Index(name = "uq_tenant_provisioning_keyspace_name", columnList = "keyspace_name", unique = true)
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TenantProvisioning implements Persistable<UUID> {
+
+    public enum Status { PENDING, IN_PROGRESS, READY, FAILED }
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "keyspace_name", nullable = false)
+    private String keyspaceName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Assigned ids, as on Tenant: without this save() would SELECT first.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private boolean isNew = true;
+
+    public static TenantProvisioning pending(UUID tenantId, String keyspaceName, Instant now) {
+        TenantProvisioning provisioning = new TenantProvisioning();
+        provisioning.setTenantId(tenantId);
+        provisioning.setKeyspaceName(keyspaceName);
+        provisioning.setStatus(Status.PENDING);
+        provisioning.setNextAttemptAt(now);
+        provisioning.setUpdatedAt(now);
+        return provisioning;
+    }
+
+    @Override
+    @JsonIgnore
+    public UUID getId() {
+        return tenantId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
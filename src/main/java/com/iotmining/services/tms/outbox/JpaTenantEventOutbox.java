@@ -0,0 +1,63 @@
+package com.iotmining.services.tms.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.dto.TenantLifecycleEvent;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.repository.TenantOutboxRepository;
+import com.iotmining.services.tms.services.TenantEventOutbox;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes lifecycle events to the tenant_outbox table, one statement per
+ * call. MANDATORY: an event written outside the change's transaction could
+ * be published for a change that then rolled back.
+ */
+@Transactional(propagation = Propagation.MANDATORY)
+public class JpaTenantEventOutbox implements TenantEventOutbox {
+
+    private final TenantOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public JpaTenantEventOutbox(TenantOutboxRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void tenantsCreated(List<TenantSummaryResponse> tenants) {
+        if (tenants.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        append(tenants.stream()
+                .map(tenant -> new TenantLifecycleEvent(UUID.randomUUID(), TenantLifecycleEvent.Type.CREATED,
+                        tenant.getTenantId(), now, tenant))
+                .toList());
+    }
+
+    @Override
+    public void tenantsDeleted(List<UUID> tenantIds) {
+        if (tenantIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        append(tenantIds.stream()
+                .map(tenantId -> new TenantLifecycleEvent(UUID.randomUUID(), TenantLifecycleEvent.Type.DELETED,
+                        tenantId, now, null))
+                .toList());
+    }
+
+    private void append(List<TenantLifecycleEvent> events) {
+        try {
+            repository.append(objectMapper.writeValueAsString(events));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize tenant lifecycle events", ex);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.iotmining.services.tms.outbox;
+
+import com.iotmining.services.tms.model.TenantOutboxEvent;
+import com.iotmining.services.tms.repository.TenantOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the tenant_outbox to Kafka, oldest first, keyed by tenant id.
+ *
+ * <p>Every {@code tms.outbox.linger} one replica - whichever takes the
+ * advisory lock - drains the table in batches of {@code batch-size}: send
+ * the batch, flush, wait for every acknowledgement, then delete the rows
+ * in the same transaction. Only one batch is ever in flight, so a slow or
+ * unavailable broker holds rows back in Postgres rather than in producer
+ * memory. A failed batch rolls back and is retried whole on the next
+ * tick, so delivery is at-least-once. A partial batch ends the drain, which
+ * bounds how long an event waits to one linger.</p>
+ *
+ * <p>Per tenant the order is the commit order: a tenant's events come from
+ * transactions that can't overlap (a delete needs the create committed),
+ * so their ids are increasing, and the idempotent producer keeps one
+ * partition's records in send order across retries.</p>
+ */
+@Slf4j
+public class TenantOutboxRelay {
+
+    static final long LOCK_KEY = 0x746d732d6f7574L; // "tms-out"
+
+    private final TenantOutboxRepository repository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Counter published;
+    private final Counter failures;
+
+    public TenantOutboxRelay(TenantOutboxRepository repository, KafkaTemplate<String, String> kafkaTemplate,
+                             TransactionTemplate transactionTemplate, MeterRegistry registry, String topic,
+                             int batchSize, Duration sendTimeout) {
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.published = Counter.builder("tms.outbox.published")
+                .baseUnit("events")
+                .description("Tenant lifecycle events published to Kafka")
+                .register(registry);
+        this.failures = Counter.builder("tms.outbox.failures")
+                .description("Outbox batches that failed to publish and will be retried")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${tms.outbox.linger:PT0.2S}", fixedDelayString = "${tms.outbox.linger:PT0.2S}")
+    public void drain() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> publishBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("Publishing the tenant outbox failed, retrying on the next run", ex);
+        }
+    }
+
+    // Returns how many events were published; 0 when another replica holds
+    // the lock or the outbox is empty.
+    int publishBatch() {
+        if (!repository.tryAdvisoryLock(LOCK_KEY)) {
+            return 0;
+        }
+        List<TenantOutboxEvent> batch = repository.findOldest(PageRequest.ofSize(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            TenantOutboxEvent event = batch.get(i);
+            acks[i] = kafkaTemplate.send(
+                    new ProducerRecord<>(topic, event.getTenantId().toString(), event.getPayload()));
+        }
+        // Don't sit out the producer's own linger.ms - the batch is complete.
+        kafkaTemplate.flush();
+        await(CompletableFuture.allOf(acks));
+
+        repository.deleteByIds(batch.stream().map(TenantOutboxEvent::getId).toList());
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    private void await(CompletableFuture<Void> acks) {
+        try {
+            acks.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for Kafka acknowledgements", ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Kafka did not acknowledge the outbox batch", ex);
+        }
+    }
+}
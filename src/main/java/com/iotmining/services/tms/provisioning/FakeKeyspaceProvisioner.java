@@ -0,0 +1,54 @@
+package com.iotmining.services.tms.provisioning;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for local runs and tests
+ * ({@code tms.provisioning.provisioner=fake}): remembers what it
+ * "provisioned", optionally after a delay, and can be told to fail the
+ * next attempts to exercise retries.
+ */
+@Slf4j
+public class FakeKeyspaceProvisioner implements KeyspaceProvisioner {
+
+    private final Duration latency;
+    private final Map<UUID, String> provisioned = new ConcurrentHashMap<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    public FakeKeyspaceProvisioner(Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public void provision(UUID tenantId, String keyspaceName) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted provisioning " + keyspaceName, ex);
+            }
+        }
+        if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new IllegalStateException("Simulated failure provisioning " + keyspaceName);
+        }
+        provisioned.put(tenantId, keyspaceName);
+        log.info("Provisioned keyspace {} for tenant {} (fake)", keyspaceName, tenantId);
+    }
+
+    /** Makes the next {@code attempts} calls fail. */
+    public void failNext(int attempts) {
+        failuresLeft.set(attempts);
+    }
+
+    /** Tenant id to keyspace name, for every tenant provisioned so far. */
+    public Map<UUID, String> getProvisioned() {
+        return Map.copyOf(provisioned);
+    }
+}
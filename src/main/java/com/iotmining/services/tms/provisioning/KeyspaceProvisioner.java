@@ -0,0 +1,14 @@
+package com.iotmining.services.tms.provisioning;
+
+import java.util.UUID;
+
+/**
+ * Sets up a tenant's keyspace. Called by TenantProvisioningWorker off the
+ * request path, possibly more than once for the same tenant (retries, a
+ * lease that ran out mid-call), so implementations must be idempotent.
+ * Any exception counts as a failed attempt and is retried with backoff.
+ */
+public interface KeyspaceProvisioner {
+
+    void provision(UUID tenantId, String keyspaceName);
+}
@@ -0,0 +1,31 @@
+package com.iotmining.services.tms.provisioning;
+
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Provisions through the platform's storage service:
+ * {@code PUT {tms.provisioning.url}/{keyspaceName}} with the tenant id.
+ * PUT because the call must be idempotent - a retry of a keyspace that
+ * already exists succeeds. Any non-2xx response is a failed attempt.
+ */
+public class RestKeyspaceProvisioner implements KeyspaceProvisioner {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public RestKeyspaceProvisioner(RestTemplate restTemplate, String url) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("tms.provisioning.url must be set for the rest provisioner");
+        }
+        this.restTemplate = restTemplate;
+        this.url = url.endsWith("/") ? url : url + "/";
+    }
+
+    @Override
+    public void provision(UUID tenantId, String keyspaceName) {
+        restTemplate.put(url + "{keyspaceName}", Map.of("tenantId", tenantId), keyspaceName);
+    }
+}
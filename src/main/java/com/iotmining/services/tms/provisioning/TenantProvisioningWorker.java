@@ -0,0 +1,211 @@
+package com.iotmining.services.tms.provisioning;
+
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs keyspace provisioning on a fixed pool of {@code workers} threads.
+ *
+ * <p>Every {@code poll-interval} it claims at most as many due rows as it
+ * has idle workers - so nothing queues in memory, and the backlog stays in
+ * tenant_provisioning where other replicas can take it. A claim marks the
+ * row IN_PROGRESS with a lease. A failed attempt goes back to PENDING
+ * after an exponential backoff with jitter, up to {@code max-attempts};
+ * after that the row is FAILED until someone retries it
+ * (TenantProvisioningService.retry). A lease that runs out on the last
+ * allowed attempt (its worker died) counts as that attempt failing.</p>
+ */
+@Slf4j
+public class TenantProvisioningWorker implements DisposableBean {
+
+    private static final List<TenantProvisioning.Status> CLAIMABLE =
+            List.of(TenantProvisioning.Status.PENDING, TenantProvisioning.Status.IN_PROGRESS);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final TenantProvisioningRepository repository;
+    private final KeyspaceProvisioner provisioner;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final ExecutorService executor;
+    private final AtomicInteger busy = new AtomicInteger();
+
+    public TenantProvisioningWorker(TenantProvisioningRepository repository, KeyspaceProvisioner provisioner,
+                                    TransactionTemplate transactionTemplate, MeterRegistry registry, int workers,
+                                    int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                                    Duration lease) {
+        this.repository = repository;
+        this.provisioner = provisioner;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform()
+                .name("tms-provisioning-", 1).daemon(true).factory());
+        registry.gauge("tms.provisioning.busy.workers", busy);
+    }
+
+    @Scheduled(initialDelayString = "${tms.provisioning.poll-interval:PT1S}",
+            fixedDelayString = "${tms.provisioning.poll-interval:PT1S}")
+    public void poll() {
+        int idle = workers - busy.get();
+        if (idle <= 0) {
+            return;
+        }
+        List<Claim> claims;
+        List<TenantProvisioning> abandoned = new ArrayList<>();
+        try {
+            claims = transactionTemplate.execute(status -> claim(idle, abandoned));
+        } catch (RuntimeException ex) {
+            log.warn("Claiming due keyspace provisioning failed, retrying on the next poll", ex);
+            return;
+        }
+        for (TenantProvisioning row : abandoned) {
+            log.error("Giving up provisioning keyspace {} for tenant {}: attempt {} of {} never reported back",
+                    row.getKeyspaceName(), row.getTenantId(), row.getAttempts(), maxAttempts);
+            countAttempt("failed");
+        }
+        for (Claim claim : claims) {
+            busy.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    attempt(claim);
+                } finally {
+                    busy.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    // An IN_PROGRESS row is only due once its lease ran out. If that was
+    // the last allowed attempt, it's marked FAILED - as record() would
+    // have - instead of being claimed for one attempt too many.
+    private List<Claim> claim(int limit, List<TenantProvisioning> abandoned) {
+        Instant now = now();
+        List<TenantProvisioning> due = repository.findDueForUpdate(CLAIMABLE, now, PageRequest.ofSize(limit));
+        List<TenantProvisioning> claimed = new ArrayList<>(due.size());
+        for (TenantProvisioning row : due) {
+            row.setUpdatedAt(now);
+            if (row.getStatus() == TenantProvisioning.Status.IN_PROGRESS && row.getAttempts() >= maxAttempts) {
+                row.setStatus(TenantProvisioning.Status.FAILED);
+                row.setNextAttemptAt(null);
+                row.setLastError("Lease expired: attempt " + row.getAttempts() + " never reported a result");
+                abandoned.add(row);
+                continue;
+            }
+            row.setStatus(TenantProvisioning.Status.IN_PROGRESS);
+            row.setAttempts(row.getAttempts() + 1);
+            row.setNextAttemptAt(now.plus(lease));
+            claimed.add(row);
+        }
+        repository.flush();
+        return claimed.stream()
+                .map(row -> new Claim(row.getTenantId(), row.getKeyspaceName(), row.getAttempts(), row.getVersion()))
+                .toList();
+    }
+
+    void attempt(Claim claim) {
+        String error = null;
+        try {
+            provisioner.provision(claim.tenantId(), claim.keyspaceName());
+        } catch (RuntimeException ex) {
+            error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+            log.warn("Provisioning keyspace {} for tenant {} failed (attempt {} of {})",
+                    claim.keyspaceName(), claim.tenantId(), claim.attempts(), maxAttempts, ex);
+        }
+        countAttempt(record(claim, error));
+    }
+
+    private void countAttempt(String outcome) {
+        Counter.builder("tms.provisioning.attempts")
+                .description("Keyspace provisioning attempts by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    // Records the attempt's result unless the row moved on meanwhile (the
+    // tenant was deleted, or the lease ran out and another attempt took
+    // over - its version is newer).
+    private String record(Claim claim, String error) {
+        String outcome = transactionTemplate.execute(status -> {
+            TenantProvisioning row = repository.findById(claim.tenantId()).orElse(null);
+            if (row == null || row.getVersion() != claim.version()) {
+                return "superseded";
+            }
+            Instant now = now();
+            row.setUpdatedAt(now);
+            if (error == null) {
+                row.setStatus(TenantProvisioning.Status.READY);
+                row.setNextAttemptAt(null);
+                return "ready";
+            }
+            row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (claim.attempts() >= maxAttempts) {
+                row.setStatus(TenantProvisioning.Status.FAILED);
+                row.setNextAttemptAt(null);
+                return "failed";
+            }
+            row.setStatus(TenantProvisioning.Status.PENDING);
+            row.setNextAttemptAt(now.plus(backoff(claim.attempts())));
+            return "retry";
+        });
+        if ("failed".equals(outcome)) {
+            log.error("Giving up provisioning keyspace {} for tenant {} after {} attempts",
+                    claim.keyspaceName(), claim.tenantId(), claim.attempts());
+        }
+        return outcome;
+    }
+
+    // initialBackoff * 2^(attempt - 1), capped at maxBackoff, then a random
+    // point in its upper half - so tenants that failed together (a storage
+    // outage) don't all retry in the same poll.
+    Duration backoff(int attempt) {
+        long cap = maxBackoff.toMillis();
+        long exponential = initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+        long delay = exponential <= 0 || exponential > cap ? cap : exponential;
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Unfinished attempts are picked up again once their lease expires.
+            executor.shutdownNow();
+        }
+    }
+
+    record Claim(UUID tenantId, String keyspaceName, int attempts, long version) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.iotmining.services.tms.repository;
+
+import com.iotmining.services.tms.model.TenantClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Read-only by default, like TenantRepository.
+@Transactional(readOnly = true)
+public interface TenantClosureRepository extends JpaRepository<TenantClosure, TenantClosure.Key> {
+
+    // Writes every (ancestor, descendant, depth) path for the given tenants by
+    // walking tenants.parent_id upwards, so it works whether or not the
+    // parents' own paths exist yet (e.g. parent and child inserted together).
+    // Flushes first so the tenants rows it joins against are visible. The
+    // same statement, unrestricted, is the backfill in
+    // db/migration/V3__tenant_closure_backfill.sql. Joins the caller's
+    // transaction, which must insert the tenants in the same one.
+    @Modifying(flushAutomatically = true)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = """
+            WITH RECURSIVE chain (ancestor_id, descendant_id, depth) AS (
+                SELECT t.id, t.id, 0 FROM tenants t WHERE t.id IN (:tenantIds)
+                UNION ALL
+                SELECT p.parent_id, c.descendant_id, c.depth + 1
+                FROM chain c JOIN tenants p ON p.id = c.ancestor_id
+                WHERE p.parent_id IS NOT NULL
+            )
+            INSERT INTO tenant_closure (ancestor_id, descendant_id, depth)
+            SELECT ancestor_id, descendant_id, depth FROM chain
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertPaths(@Param("tenantIds") Collection<UUID> tenantIds);
+
+    // Every path ending at the given tenants, self rows (depth 0) included -
+    // so a tenant with no rows doesn't exist. Served by
+    // idx_tenant_closure_descendant.
+    @Query("SELECT c FROM TenantClosure c WHERE c.descendantId IN :tenantIds ORDER BY c.descendantId, c.depth")
+    List<TenantClosure> findAncestorPaths(@Param("tenantIds") Collection<UUID> tenantIds);
+}
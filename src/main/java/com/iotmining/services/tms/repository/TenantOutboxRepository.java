@@ -0,0 +1,40 @@
+package com.iotmining.services.tms.repository;
+
+import com.iotmining.services.tms.model.TenantOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TenantOutboxRepository extends JpaRepository<TenantOutboxEvent, Long> {
+
+    // Appends one row per element of a JSON array of TenantLifecycleEvents,
+    // in array order, with one statement however many events - a bulk
+    // create's events would otherwise be one INSERT each (identity ids
+    // disable JDBC batching). The element text is stored verbatim as the
+    // payload (json, unlike jsonb, keeps it byte for byte).
+    @Modifying
+    @Query(value = """
+            INSERT INTO tenant_outbox (tenant_id, event_type, payload, created_at)
+            SELECT CAST(e ->> 'tenantId' AS uuid), e ->> 'type', CAST(e AS text), now()
+            FROM json_array_elements(CAST(:events AS json)) WITH ORDINALITY AS x(e, n)
+            ORDER BY n
+            """, nativeQuery = true)
+    int append(@Param("events") String events);
+
+    @Query("SELECT e FROM TenantOutboxEvent e ORDER BY e.id")
+    List<TenantOutboxEvent> findOldest(Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM TenantOutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Held until the surrounding transaction ends; false if another
+    // session holds it.
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(@Param("key") long key);
+}
@@ -0,0 +1,36 @@
+package com.iotmining.services.tms.repository;
+
+import com.iotmining.services.tms.model.TenantProvisioning;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface TenantProvisioningRepository extends JpaRepository<TenantProvisioning, UUID> {
+
+    // Due rows, oldest due first, locked FOR UPDATE SKIP LOCKED (lock
+    // timeout -2), so replicas polling at the same time claim disjoint
+    // rows instead of queueing behind each other. Served by
+    // idx_tenant_provisioning_due.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM TenantProvisioning p WHERE p.status IN :statuses AND p.nextAttemptAt <= :now "
+            + "ORDER BY p.nextAttemptAt")
+    List<TenantProvisioning> findDueForUpdate(@Param("statuses") Collection<TenantProvisioning.Status> statuses,
+                                              @Param("now") Instant now, Pageable page);
+
+    // Both served by uq_tenant_provisioning_keyspace_name.
+    boolean existsByKeyspaceName(String keyspaceName);
+
+    @Query("SELECT p.keyspaceName FROM TenantProvisioning p WHERE p.keyspaceName IN :keyspaceNames")
+    List<String> findTakenKeyspaceNames(@Param("keyspaceNames") Collection<String> keyspaceNames);
+}
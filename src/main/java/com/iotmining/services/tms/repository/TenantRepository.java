@@ -1,17 +1,85 @@
 package com.iotmining.services.tms.repository;
 
 import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
 import com.iotmining.services.tms.model.Tenant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface TenantRepository extends JpaRepository<Tenant, UUID> {
-    List<Tenant> findByParent_TenantId(UUID parentId);
-    List<Tenant> findByParent_TenantIdIn(Collection<UUID> parentIds);
+// Read-only by default, so a query method called outside a service
+// transaction still gets one - and with it a replica when tms.db.replicas
+// is on. Inherited writes (save, delete...) keep SimpleJpaRepository's own
+// read-write transactions.
+@Transactional(readOnly = true)
+public interface TenantRepository extends JpaRepository<Tenant, UUID>, TenantRepositoryCustom {
+
+    // Rows per round trip for streamForExport's cursor.
+    int EXPORT_FETCH_SIZE = 1000;
+
+    // Read paths select straight into TenantSummaryResponse: no managed
+    // entities, so no dirty-checking snapshots, no parent proxies and no
+    // persistence-context growth on large lists. t.parent.tenantId reads
+    // the parent_id FK column without joining the parent row.
+    String SUMMARY_SELECT = "select new com.iotmining.services.tms.dto.TenantSummaryResponse("
+            + "t.tenantId, t.tenantName, t.subscriptionPlan, t.parent.tenantId, t.tenantType, t.accessLevel, "
+            + "t.version, t.updatedAt) "
+            + "from Tenant t ";
+
     List<Tenant> findByParent_TenantIdAndTenantType(UUID parentId, TenantType tenantType);
     Optional<Tenant> findById(UUID tenantId);
-    List<Tenant> findByParentIsNull();
+
+    @Query(SUMMARY_SELECT + "where t.tenantId = :tenantId")
+    Optional<TenantSummaryResponse> findSummaryById(@Param("tenantId") UUID tenantId);
+
+    @Query(SUMMARY_SELECT + "where t.tenantId in :tenantIds")
+    List<TenantSummaryResponse> findSummariesByIdIn(@Param("tenantIds") Collection<UUID> tenantIds);
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(t) from Tenant t")
+    Page<TenantSummaryResponse> findAllSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where t.parent.tenantId = :parentId")
+    List<TenantSummaryResponse> findChildSummaries(@Param("parentId") UUID parentId);
+
+    @Query(SUMMARY_SELECT + "where t.parent is null")
+    List<TenantSummaryResponse> findRootSummaries();
+
+    // Whole subtree (root included) in one statement via the closure table,
+    // shallowest first - callers can attach each row to an already-seen parent.
+    @Query(SUMMARY_SELECT + "join TenantClosure c on c.descendantId = t.tenantId "
+            + "where c.ancestorId = :rootId order by c.depth")
+    List<TenantSummaryResponse> findSubtreeSummaries(@Param("rootId") UUID rootId);
+
+    // Keyset-paged summary scan for TenantHierarchyIndex's bulk load - each
+    // chunk is a primary-key range scan however far in.
+    @Query(SUMMARY_SELECT + "order by t.tenantId")
+    List<TenantSummaryResponse> findSummariesOrderedById(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where t.tenantId > :after order by t.tenantId")
+    List<TenantSummaryResponse> findSummariesAfter(@Param("after") UUID after, Pageable pageable);
+
+    // Keyset pages of the platform listing, in (name, id) order. The row
+    // comparison seeks straight into idx_tenants_name_id, so a deep page
+    // costs the same as the first; Slice fetches one extra row to know
+    // whether there's a next page instead of running a COUNT.
+    @Query(SUMMARY_SELECT + "order by t.tenantName, t.tenantId")
+    Slice<TenantSummaryResponse> findSummariesOrderedByName(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where (t.tenantName, t.tenantId) > (:name, :after) order by t.tenantName, t.tenantId")
+    Slice<TenantSummaryResponse> findSummariesByNameAfter(@Param("name") String name, @Param("after") UUID after,
+                                                          Pageable pageable);
+
+    // Planner statistics, refreshed by ANALYZE/autovacuum - no table scan.
+    // -1 until the table has been analyzed at least once.
+    @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'tenants'::regclass", nativeQuery = true)
+    long estimateRowCount();
 }
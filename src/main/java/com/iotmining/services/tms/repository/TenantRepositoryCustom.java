@@ -0,0 +1,46 @@
+package com.iotmining.services.tms.repository;
+
+import com.iotmining.services.tms.dto.TenantExportFilter;
+import com.iotmining.services.tms.dto.TenantExportRow;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Read on the interface: Spring Data takes fragment methods' transaction
+// settings from here, not from TenantRepositoryImpl.
+@Transactional(readOnly = true)
+public interface TenantRepositoryCustom {
+
+    /**
+     * Every tenant matching {@code filter}, read through a forward-only
+     * cursor {@link TenantRepository#EXPORT_FETCH_SIZE} rows at a time. Must
+     * be consumed inside a transaction (Postgres only honours the fetch size
+     * with autocommit off) and closed afterwards.
+     */
+    Stream<TenantExportRow> streamForExport(TenantExportFilter filter);
+
+    /**
+     * Ids of at most {@code limit} tenants whose name matches
+     * {@code query} case-insensitively, best match first: names starting
+     * with it, then - with {@code fuzzy} - names containing it or a word
+     * close to it (pg_trgm word similarity), by similarity. {@code within}
+     * restricts the search to that tenant's subtree, itself included;
+     * {@code null} searches everything.
+     */
+    List<UUID> searchIds(String query, boolean fuzzy, UUID within, int limit);
+
+    /**
+     * Deletes up to {@code limit} tenants of the subtree under
+     * {@code rootId} (root included) with their closure paths and
+     * provisioning rows, deepest first, and returns their ids. Flushes
+     * pending changes before and clears the persistence context after, like
+     * {@code @Modifying(flushAutomatically, clearAutomatically)} - which
+     * Spring Data only allows on statements returning a row count. Must run
+     * inside a (read-write) transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    List<UUID> deleteSubtreeBatch(UUID rootId, int limit);
+}
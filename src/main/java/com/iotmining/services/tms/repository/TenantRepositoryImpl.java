@@ -0,0 +1,135 @@
+package com.iotmining.services.tms.repository;
+
+import com.iotmining.services.tms.dto.TenantExportFilter;
+import com.iotmining.services.tms.dto.TenantExportRow;
+import com.iotmining.services.tms.model.Tenant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class TenantRepositoryImpl implements TenantRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Criteria rather than a JPQL string so that only the filters actually
+    // given end up in the WHERE clause - no "(:x is null or ...)" predicates,
+    // which Postgres can't type for null parameters and the planner can't
+    // use an index for. Selects straight into the row DTO: no managed
+    // entities, so the persistence context stays empty however many rows
+    // stream through.
+    @Override
+    public Stream<TenantExportRow> streamForExport(TenantExportFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TenantExportRow> query = cb.createQuery(TenantExportRow.class);
+        Root<Tenant> t = query.from(Tenant.class);
+        query.select(cb.construct(TenantExportRow.class,
+                t.get("tenantId"), t.get("tenantName"), t.get("subscriptionPlan"), t.get("parent").get("tenantId"),
+                t.get("tenantType"), t.get("accessLevel"), t.get("createdAt")));
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.getTenantType() != null) {
+            where.add(cb.equal(t.get("tenantType"), filter.getTenantType()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(t.<Instant>get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            where.add(cb.lessThan(t.<Instant>get("createdAt"), filter.getCreatedTo()));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, TenantRepository.EXPORT_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Native: the pg_trgm operators have no JPQL form. Every predicate is on
+    // lower(name), which idx_tenants_name_trgm (a GIN trigram index, see
+    // db/migration/V7__tenants_name_trgm_index.sql) serves for the LIKE patterns and <% alike,
+    // so only the matching rows are read and sorted for the top K. As in
+    // streamForExport, the subtree join and the fuzzy predicate are only
+    // added when asked for.
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> searchIds(String query, boolean fuzzy, UUID within, int limit) {
+        String normalized = query.toLowerCase(Locale.ROOT);
+        String escaped = normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        StringBuilder sql = new StringBuilder("SELECT t.id FROM tenants t ");
+        if (within != null) {
+            sql.append("JOIN tenant_closure c ON c.descendant_id = t.id AND c.ancestor_id = :within ");
+        }
+        if (fuzzy) {
+            sql.append("WHERE lower(t.name) LIKE :contains ESCAPE '\\' OR :query <% lower(t.name) ")
+                    .append("ORDER BY starts_with(lower(t.name), :query) DESC, ")
+                    .append("word_similarity(:query, lower(t.name)) DESC, ");
+        } else {
+            sql.append("WHERE lower(t.name) LIKE :prefix ESCAPE '\\' ORDER BY ");
+        }
+        sql.append("t.name, t.id LIMIT :limit");
+
+        Query search = entityManager.createNativeQuery(sql.toString(), UUID.class)
+                .setParameter("limit", limit);
+        if (within != null) {
+            search.setParameter("within", within);
+        }
+        if (fuzzy) {
+            search.setParameter("contains", "%" + escaped + "%").setParameter("query", normalized);
+        } else {
+            search.setParameter("prefix", escaped + "%");
+        }
+        return search.getResultList();
+    }
+
+    // One statement: a data-modifying CTE whose RETURNING gives the ids
+    // that actually went. Deepest first: a tenant goes no earlier than its
+    // children, so between batches every remaining tenant still has its
+    // parent, and the root goes in the last batch. Every path that starts
+    // inside the subtree also ends inside it, so deleting by descendant_id
+    // removes them all. Served by the closure's primary key (ancestor_id
+    // first), idx_tenant_closure_descendant and the tenants and
+    // tenant_provisioning primary keys. Hibernate doesn't know these rows
+    // went, so any of them loaded earlier in the transaction would be
+    // served from the persistence context - hence the clear.
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> deleteSubtreeBatch(UUID rootId, int limit) {
+        entityManager.flush();
+        List<UUID> deleted = entityManager.createNativeQuery("""
+                        WITH doomed AS (
+                            SELECT descendant_id AS id FROM tenant_closure
+                            WHERE ancestor_id = :rootId
+                            ORDER BY depth DESC
+                            LIMIT :limit
+                        ),
+                        paths AS (
+                            DELETE FROM tenant_closure WHERE descendant_id IN (SELECT id FROM doomed)
+                        ),
+                        provisioning AS (
+                            DELETE FROM tenant_provisioning WHERE tenant_id IN (SELECT id FROM doomed)
+                        ),
+                        deleted AS (
+                            DELETE FROM tenants WHERE id IN (SELECT id FROM doomed) RETURNING id
+                        )
+                        SELECT id FROM deleted
+                        """, UUID.class)
+                .setParameter("rootId", rootId)
+                .setParameter("limit", limit)
+                .getResultList();
+        entityManager.clear();
+        return deleted;
+    }
+}
@@ -0,0 +1,78 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Versions derived from persisted row data only - each tenant's id, row
+ * version and updated_at - so every replica, and the database fallback,
+ * computes the same one for the same rows. A row's version and updated_at
+ * change on every update, a move included.
+ *
+ * <p>A subtree's version is the sum of its rows' hashes: independent of
+ * the order the tree is walked in, and cheap to keep current - add a row's
+ * hash when it joins the subtree, subtract it when it leaves.</p>
+ *
+ * <p>An ancestry answer's version is instead an ordered fold (see
+ * {@link #fold}) of what the request asked and the rows the answer was
+ * read from, so two request bodies get different versions.</p>
+ */
+final class HierarchyVersions {
+
+    // updated_at of a row that came without one.
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    // Folded in for a requested id that isn't a tenant.
+    static final long UNKNOWN = 0x9e3779b97f4a7c15L;
+
+    private HierarchyVersions() {
+    }
+
+    static long row(long idHi, long idLo, long version, long updatedAtMicros) {
+        long h = mix(idHi);
+        h = mix(h ^ idLo);
+        h = mix(h ^ version);
+        return mix(h ^ updatedAtMicros);
+    }
+
+    static long row(TenantSummaryResponse row) {
+        return row(row.getTenantId().getMostSignificantBits(), row.getTenantId().getLeastSignificantBits(),
+                row.getVersion(), micros(row.getUpdatedAt()));
+    }
+
+    static String subtree(Collection<TenantSummaryResponse> rows) {
+        long sum = 0;
+        for (TenantSummaryResponse row : rows) {
+            sum += row(row);
+        }
+        return format(sum);
+    }
+
+    // Order matters: fold(fold(h, a), b) != fold(fold(h, b), a).
+    static long fold(long hash, long value) {
+        return mix(hash * 31 + value);
+    }
+
+    static long fold(long hash, UUID id) {
+        return fold(fold(hash, id.getMostSignificantBits()), id.getLeastSignificantBits());
+    }
+
+    // Microseconds since the epoch, Postgres's timestamptz precision.
+    static long micros(Instant instant) {
+        return instant != null ? ChronoUnit.MICROS.between(Instant.EPOCH, instant) : NO_TIMESTAMP;
+    }
+
+    static String format(long hash) {
+        return Long.toHexString(hash);
+    }
+
+    // SplitMix64's finalizer.
+    static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,38 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tells the other replicas about a committed tenant write, so they can drop
+ * their local cache entries and update their hierarchy index. Called after
+ * commit; implementations must not throw - a lost notification only costs
+ * staleness up to the local cache TTL / index refresh interval.
+ */
+public interface TenantChangePublisher {
+
+    /** Single-replica deployments (no shared broker configured). */
+    TenantChangePublisher NONE = new TenantChangePublisher() {
+        @Override
+        public void tenantSaved(TenantSummaryResponse tenant) {
+        }
+
+        @Override
+        public void tenantsSaved(List<TenantSummaryResponse> tenants) {
+        }
+
+        @Override
+        public void tenantDeleted(UUID tenantId) {
+        }
+    };
+
+    void tenantSaved(TenantSummaryResponse tenant);
+
+    /** A bulk create's tenants, parents before children, in one notification. */
+    void tenantsSaved(List<TenantSummaryResponse> tenants);
+
+    /** The tenant and its whole subtree were deleted. */
+    void tenantDeleted(UUID tenantId);
+}
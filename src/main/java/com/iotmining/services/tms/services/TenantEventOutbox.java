@@ -0,0 +1,32 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records tenant lifecycle events for other services. Unlike
+ * {@link TenantChangePublisher} this is called inside the write's
+ * transaction: the events commit or roll back with the change, and are
+ * published to Kafka afterwards (see TenantOutboxRelay).
+ */
+public interface TenantEventOutbox {
+
+    /** Deployments without a Kafka broker. */
+    TenantEventOutbox NONE = new TenantEventOutbox() {
+        @Override
+        public void tenantsCreated(List<TenantSummaryResponse> tenants) {
+        }
+
+        @Override
+        public void tenantsDeleted(List<UUID> tenantIds) {
+        }
+    };
+
+    /** One CREATED event per tenant, in list order. */
+    void tenantsCreated(List<TenantSummaryResponse> tenants);
+
+    /** One DELETED event per tenant, in list order (children before parents). */
+    void tenantsDeleted(List<UUID> tenantIds);
+}
@@ -0,0 +1,66 @@
+package com.iotmining.services.tms.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.iotmining.services.tms.dto.TenantExportFilter;
+import com.iotmining.services.tms.dto.TenantExportRow;
+import com.iotmining.services.tms.repository.TenantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the tenant directory as newline-delimited JSON, one
+ * {@link TenantExportRow} per line, in constant memory: rows come off a
+ * database cursor and go straight to the response stream.
+ */
+@Service
+@Slf4j
+public class TenantExportService {
+
+    private final TenantRepository tenantRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public TenantExportService(TenantRepository tenantRepository, ObjectMapper objectMapper) {
+        this.tenantRepository = tenantRepository;
+        this.objectMapper = objectMapper;
+        // The generator is flushed by the servlet container as its buffer
+        // fills, not after every row.
+        this.rowWriter = objectMapper.writerFor(TenantExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Runs in the StreamingResponseBody's async thread, so the transaction
+     * (which keeps the cursor open) spans the whole write.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(TenantExportFilter filter, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<TenantExportRow> stream = tenantRepository.streamForExport(filter);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines end in '\n' instead of the default ' ' between root values.
+            generator.setRootValueSeparator(null);
+            Iterator<TenantExportRow> it = stream.iterator();
+            while (it.hasNext()) {
+                rowWriter.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        log.info("Tenant export finished: {} rows", rows);
+        return rows;
+    }
+}
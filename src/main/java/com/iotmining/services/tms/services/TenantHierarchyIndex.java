@@ -0,0 +1,774 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.common.data.tenant.TenantAccessLevel;
+import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.repository.TenantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-process copy of the tenant hierarchy, so the read endpoints that
+ * dashboards poll (summary, children, descendant tree) never borrow a
+ * pooled connection once it's loaded.
+ *
+ * <p>Tenants live in flat, slot-indexed columns rather than a map of
+ * entities: each UUID is kept as two primitive longs, parent/child/sibling
+ * links are {@code int} slot numbers, enums are stored as ordinals, and an
+ * open-addressing table maps id to slot. That's roughly 95 bytes per tenant
+ * plus its name, versus several hundred for a boxed {@code Map<UUID, ...>}.</p>
+ *
+ * <p>Each tenant also keeps the sum of its subtree's row hashes (see
+ * {@link HierarchyVersions}), adjusted along the ancestor chain on every
+ * change. That sum, {@link #subtreeVersion}, changes whenever anything in
+ * the subtree does, and depends only on the rows - so it's the same on
+ * every replica and survives a reload. The tree endpoint's ETag is made
+ * of it.</p>
+ *
+ * <p>Loaded once the application is ready and refreshed on a fixed delay;
+ * {@link TenantService} applies its own creates/deletes incrementally after
+ * commit. Until the first load completes (or when disabled via
+ * {@code tms.hierarchy-index.enabled=false}), {@link #isReady()} is false and
+ * callers fall back to the database.</p>
+ */
+@Component
+@Slf4j
+public class TenantHierarchyIndex {
+
+    private static final int NO_SLOT = -1;
+    private static final long NO_TIMESTAMP = HierarchyVersions.NO_TIMESTAMP;
+    private static final TenantType[] TENANT_TYPES = TenantType.values();
+    private static final TenantAccessLevel[] ACCESS_LEVELS = TenantAccessLevel.values();
+
+    private final TenantRepository tenantRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held for a whole rebuild: the scheduled refresh, warm-up and a manual
+    // rebuild() would otherwise share, and clobber, one pendingWrites buffer.
+    private final Lock rebuildLock = new ReentrantLock();
+
+    @Value("${tms.hierarchy-index.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${tms.hierarchy-index.load-chunk-size:10000}")
+    private int loadChunkSize = 10_000;
+
+    // Guarded by lock. Null until the first load completes.
+    private Store current;
+    // Guarded by lock. Non-null only while a rebuild is in flight (one at a
+    // time, see rebuildLock): writes applied to the old store are replayed
+    // onto the new one before the swap, so a create/delete that commits
+    // mid-load isn't lost.
+    private List<Consumer<Store>> pendingWrites;
+
+    public TenantHierarchyIndex(TenantRepository tenantRepository) {
+        this.tenantRepository = tenantRepository;
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return current != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current != null ? current.count : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Runs before the readiness probe flips to ACCEPTING_TRAFFIC, so a fresh
+    // replica only takes traffic once it can serve reads from memory. A failed
+    // load is logged, not fatal - the service keeps answering from Postgres.
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("TMS Boot: tenant hierarchy index disabled, reads go to the database.");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.error("TMS Boot: tenant hierarchy index load failed, falling back to database reads", ex);
+        }
+    }
+
+    // Bounds drift from writes this replica didn't see (another replica's
+    // creates/deletes) - the incremental path only covers local writes.
+    @Scheduled(fixedDelayString = "${tms.hierarchy-index.refresh-interval:PT15M}",
+            initialDelayString = "${tms.hierarchy-index.refresh-interval:PT15M}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Tenant hierarchy index refresh failed, keeping the previous snapshot", ex);
+        }
+    }
+
+    /**
+     * Reloads the whole hierarchy in id-ordered chunks (keyset, not offset,
+     * so every chunk is an index range scan) and swaps it in atomically.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            beginRebuild();
+            Store next = null;
+            try {
+                Loader loader = new Loader();
+                List<TenantSummaryResponse> chunk =
+                        tenantRepository.findSummariesOrderedById(PageRequest.of(0, loadChunkSize));
+                while (!chunk.isEmpty()) {
+                    chunk.forEach(loader::append);
+                    if (chunk.size() < loadChunkSize) break;
+                    UUID last = chunk.get(chunk.size() - 1).getTenantId();
+                    chunk = tenantRepository.findSummariesAfter(last, PageRequest.of(0, loadChunkSize));
+                }
+                next = loader.link();
+            } finally {
+                finishRebuild(next);
+            }
+            log.info("Tenant hierarchy index loaded: {} tenants in {} ms",
+                    next.count, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents with {@code rows}, in any order. Used by
+     * {@link #rebuild()} and by tests that need a populated index without a
+     * repository.
+     */
+    void replaceAll(Iterable<TenantSummaryResponse> rows) {
+        rebuildLock.lock();
+        try {
+            beginRebuild();
+            Store next = null;
+            try {
+                Loader loader = new Loader();
+                rows.forEach(loader::append);
+                next = loader.link();
+            } finally {
+                finishRebuild(next);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void finishRebuild(Store next) {
+        lock.writeLock().lock();
+        try {
+            if (next != null) {
+                pendingWrites.forEach(write -> write.accept(next));
+                current = next;
+            }
+            pendingWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Reads ---
+
+    public TenantSummaryResponse find(UUID tenantId) {
+        lock.readLock().lock();
+        try {
+            int slot = current.find(tenantId.getMostSignificantBits(), tenantId.getLeastSignificantBits());
+            return slot == NO_SLOT ? null : current.summary(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<TenantSummaryResponse> children(UUID parentId) {
+        lock.readLock().lock();
+        try {
+            int slot = current.find(parentId.getMostSignificantBits(), parentId.getLeastSignificantBits());
+            return slot == NO_SLOT ? new ArrayList<>() : current.summaries(current.firstChild[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<TenantSummaryResponse> roots() {
+        lock.readLock().lock();
+        try {
+            return current.summaries(current.firstRoot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The full descendant tree rooted at {@code tenantId}, or null if the
+     * tenant isn't indexed.
+     */
+    public CompanyWithUsersResponse subtree(UUID tenantId) {
+        lock.readLock().lock();
+        try {
+            int slot = current.find(tenantId.getMostSignificantBits(), tenantId.getLeastSignificantBits());
+            if (slot == NO_SLOT) {
+                return null;
+            }
+            CompanyWithUsersResponse tree = current.subtree(slot);
+            tree.setVersion(HierarchyVersions.format(current.subtreeHashes[slot]));
+            return tree;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes whenever the tenant or any descendant is created, changed,
+     * moved or removed - the version {@link #subtree} stamps on its root,
+     * without building the tree. The same as
+     * {@link HierarchyVersions#subtree} of the subtree's rows. Null if the
+     * index isn't loaded or the tenant isn't in it.
+     */
+    public String subtreeVersion(UUID tenantId) {
+        lock.readLock().lock();
+        try {
+            if (current == null) {
+                return null;
+            }
+            int slot = current.find(tenantId.getMostSignificantBits(), tenantId.getLeastSignificantBits());
+            return slot == NO_SLOT ? null : HierarchyVersions.format(current.subtreeHashes[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ancestor chains for {@code tenantIds}, nearest first (parent, then
+     * grandparent, up to the root), plus a hash of the rows they were read
+     * from - both taken under one read lock. The hash folds in, in order,
+     * each id and the row hash of it and every ancestor (or
+     * {@link HierarchyVersions#UNKNOWN}), so it changes when any of those
+     * rows do, or an unknown id appears, and is the same on every replica.
+     * Unknown ids are left out of the map. Null if the index isn't loaded.
+     */
+    public Ancestors ancestors(Collection<UUID> tenantIds) {
+        lock.readLock().lock();
+        try {
+            if (current == null) {
+                return null;
+            }
+            Map<UUID, List<UUID>> chains = new LinkedHashMap<>();
+            long hash = 0;
+            for (UUID tenantId : tenantIds) {
+                int slot = current.find(tenantId.getMostSignificantBits(), tenantId.getLeastSignificantBits());
+                hash = HierarchyVersions.fold(hash, tenantId);
+                if (slot != NO_SLOT) {
+                    chains.put(tenantId, current.ancestors(slot));
+                    hash = current.foldChain(hash, slot);
+                } else {
+                    hash = HierarchyVersions.fold(hash, HierarchyVersions.UNKNOWN);
+                }
+            }
+            return new Ancestors(hash, chains);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Ancestors(long rowsHash, Map<UUID, List<UUID>> chains) {
+    }
+
+    // --- Incremental writes (called after the owning transaction commits) ---
+
+    public void put(TenantSummaryResponse row) {
+        applyWrite(store -> store.upsert(row));
+    }
+
+    public void remove(UUID tenantId) {
+        applyWrite(store -> store.removeSubtree(tenantId.getMostSignificantBits(), tenantId.getLeastSignificantBits()));
+    }
+
+    private void applyWrite(Consumer<Store> write) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (current != null) {
+                write.accept(current);
+            }
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bulk-load helper: appends rows unlinked (a child may arrive before its
+     * parent), remembering parent ids in temporary arrays, then links every
+     * slot in one pass once all ids are known.
+     */
+    private static final class Loader {
+        private final Store store = new Store(1024);
+        private final BitSet hasParent = new BitSet();
+        private long[] parentHi = new long[1024];
+        private long[] parentLo = new long[1024];
+
+        void append(TenantSummaryResponse row) {
+            int slot = store.insertUnlinked(row);
+            if (row.getParentId() != null) {
+                if (slot >= parentHi.length) {
+                    int capacity = Math.max(slot + 1, parentHi.length + (parentHi.length >> 1));
+                    parentHi = Arrays.copyOf(parentHi, capacity);
+                    parentLo = Arrays.copyOf(parentLo, capacity);
+                }
+                parentHi[slot] = row.getParentId().getMostSignificantBits();
+                parentLo[slot] = row.getParentId().getLeastSignificantBits();
+                hasParent.set(slot);
+            }
+        }
+
+        Store link() {
+            int orphans = 0;
+            for (int slot = 0; slot < store.highWater; slot++) {
+                if (!hasParent.get(slot)) {
+                    store.link(slot, NO_SLOT);
+                    continue;
+                }
+                int parentSlot = store.find(parentHi[slot], parentLo[slot]);
+                if (parentSlot == NO_SLOT) {
+                    orphans++;
+                } else {
+                    store.link(slot, parentSlot);
+                }
+            }
+            if (orphans > 0) {
+                log.warn("Tenant hierarchy index: {} tenants reference a parent that wasn't loaded", orphans);
+            }
+            store.sumSubtrees();
+            return store;
+        }
+    }
+
+    /**
+     * Slot-indexed column store. Not thread-safe - always accessed under the
+     * enclosing index's lock. Freed slots are recycled through a free list
+     * chained via {@code nextSibling}; a null name marks a free slot.
+     */
+    private static final class Store {
+        private long[] idHi;
+        private long[] idLo;
+        private int[] parent;
+        private int[] firstChild;
+        private int[] nextSibling;
+        private int[] prevSibling;
+        private String[] names;
+        private String[] plans;
+        private byte[] types;
+        private byte[] accessLevels;
+        private long[] versions;
+        // Microseconds since the epoch (Postgres's timestamptz precision);
+        // NO_TIMESTAMP if the row came without one.
+        private long[] updatedAtMicros;
+        // Sum of HierarchyVersions.row over the slot's subtree, itself
+        // included.
+        private long[] subtreeHashes;
+
+        // Open addressing with linear probing: entries hold slot + 1, 0 = empty.
+        private int[] table;
+
+        private int highWater;
+        private int count;
+        private int freeHead = NO_SLOT;
+        private int firstRoot = NO_SLOT;
+
+        // A handful of plan strings repeat across millions of rows - share one
+        // instance each instead of keeping every row's own copy alive.
+        private final Map<String, String> planPool = new HashMap<>();
+
+        Store(int capacity) {
+            idHi = new long[capacity];
+            idLo = new long[capacity];
+            parent = new int[capacity];
+            firstChild = new int[capacity];
+            nextSibling = new int[capacity];
+            prevSibling = new int[capacity];
+            names = new String[capacity];
+            plans = new String[capacity];
+            types = new byte[capacity];
+            accessLevels = new byte[capacity];
+            versions = new long[capacity];
+            updatedAtMicros = new long[capacity];
+            subtreeHashes = new long[capacity];
+            table = new int[Integer.highestOneBit(capacity) * 4];
+        }
+
+        int find(long hi, long lo) {
+            int mask = table.length - 1;
+            for (int i = hash(hi, lo) & mask; ; i = (i + 1) & mask) {
+                int entry = table[i];
+                if (entry == 0) {
+                    return NO_SLOT;
+                }
+                int slot = entry - 1;
+                if (idHi[slot] == hi && idLo[slot] == lo) {
+                    return slot;
+                }
+            }
+        }
+
+        int insertUnlinked(TenantSummaryResponse row) {
+            UUID id = row.getTenantId();
+            int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (slot == NO_SLOT) {
+                slot = allocate(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            }
+            setFields(slot, row);
+            return slot;
+        }
+
+        void upsert(TenantSummaryResponse row) {
+            UUID id = row.getTenantId();
+            int slot = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            boolean fresh = slot == NO_SLOT;
+            if (fresh) {
+                slot = allocate(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            }
+            long oldHash = fresh ? 0 : rowHash(slot);
+            setFields(slot, row);
+            long newHash = rowHash(slot);
+
+            int parentSlot = NO_SLOT;
+            if (row.getParentId() != null) {
+                parentSlot = find(row.getParentId().getMostSignificantBits(), row.getParentId().getLeastSignificantBits());
+                if (parentSlot == NO_SLOT) {
+                    log.warn("Tenant hierarchy index: parent {} of {} not indexed", row.getParentId(), id);
+                }
+            }
+            if (!fresh) {
+                if (parent[slot] == parentSlot && (parentSlot != NO_SLOT || isLinkedRoot(slot))) {
+                    addToChain(slot, newHash - oldHash);
+                    return;
+                }
+                // Moving takes the whole subtree out of the old ancestors' sums.
+                long subtree = subtreeHashes[slot];
+                addToChain(parent[slot], -subtree);
+                unlink(slot);
+                subtreeHashes[slot] = subtree - oldHash + newHash;
+            } else {
+                subtreeHashes[slot] = newHash;
+            }
+            if (row.getParentId() == null || parentSlot != NO_SLOT) {
+                link(slot, parentSlot);
+                addToChain(parentSlot, subtreeHashes[slot]);
+            }
+        }
+
+        int removeSubtree(long hi, long lo) {
+            int root = find(hi, lo);
+            if (root == NO_SLOT) {
+                return 0;
+            }
+            addToChain(parent[root], -subtreeHashes[root]);
+            unlink(root);
+            int removed = 0;
+            ArrayDeque<Integer> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                int slot = stack.pop();
+                for (int child = firstChild[slot]; child != NO_SLOT; child = nextSibling[child]) {
+                    stack.push(child);
+                }
+                free(slot);
+                removed++;
+            }
+            return removed;
+        }
+
+        TenantSummaryResponse summary(int slot) {
+            int parentSlot = parent[slot];
+            long micros = updatedAtMicros[slot];
+            return new TenantSummaryResponse(
+                    new UUID(idHi[slot], idLo[slot]),
+                    names[slot],
+                    plans[slot],
+                    parentSlot != NO_SLOT ? new UUID(idHi[parentSlot], idLo[parentSlot]) : null,
+                    TENANT_TYPES[types[slot]],
+                    ACCESS_LEVELS[accessLevels[slot]],
+                    versions[slot],
+                    micros != NO_TIMESTAMP ? Instant.EPOCH.plus(micros, ChronoUnit.MICROS) : null
+            );
+        }
+
+        List<TenantSummaryResponse> summaries(int head) {
+            List<TenantSummaryResponse> result = new ArrayList<>();
+            for (int slot = head; slot != NO_SLOT; slot = nextSibling[slot]) {
+                result.add(summary(slot));
+            }
+            return result;
+        }
+
+        // The parent links already are the ancestor index: the hierarchy
+        // rules cap a chain at PLATFORM -> ORGANIZATION -> SUB_TENANT, so
+        // this is at most a couple of array reads per tenant.
+        List<UUID> ancestors(int slot) {
+            List<UUID> chain = new ArrayList<>(2);
+            for (int p = parent[slot]; p != NO_SLOT; p = parent[p]) {
+                chain.add(new UUID(idHi[p], idLo[p]));
+            }
+            return chain;
+        }
+
+        // The slot's and its ancestors' row hashes folded into hash, nearest
+        // first. A move changes the moved row's version, so the chain's
+        // hashes change with it.
+        long foldChain(long hash, int slot) {
+            for (int s = slot; s != NO_SLOT; s = parent[s]) {
+                hash = HierarchyVersions.fold(hash, rowHash(s));
+            }
+            return hash;
+        }
+
+        // Iterative rather than recursive so a pathologically deep chain
+        // can't overflow the request thread's stack.
+        CompanyWithUsersResponse subtree(int root) {
+            CompanyWithUsersResponse rootDto = node(root);
+            ArrayDeque<Integer> slots = new ArrayDeque<>();
+            ArrayDeque<CompanyWithUsersResponse> dtos = new ArrayDeque<>();
+            slots.push(root);
+            dtos.push(rootDto);
+            while (!slots.isEmpty()) {
+                int slot = slots.pop();
+                CompanyWithUsersResponse dto = dtos.pop();
+                for (int child = firstChild[slot]; child != NO_SLOT; child = nextSibling[child]) {
+                    CompanyWithUsersResponse childDto = node(child);
+                    dto.getSubCompanies().add(childDto);
+                    slots.push(child);
+                    dtos.push(childDto);
+                }
+            }
+            return rootDto;
+        }
+
+        private CompanyWithUsersResponse node(int slot) {
+            return new CompanyWithUsersResponse(summary(slot), new ArrayList<>(), new ArrayList<>(), null);
+        }
+
+        private void setFields(int slot, TenantSummaryResponse row) {
+            names[slot] = row.getTenantName();
+            plans[slot] = row.getSubscriptionPlan() != null
+                    ? planPool.computeIfAbsent(row.getSubscriptionPlan(), Function.identity())
+                    : null;
+            types[slot] = (byte) row.getTenantType().ordinal();
+            accessLevels[slot] = (byte) row.getAccessLevel().ordinal();
+            versions[slot] = row.getVersion();
+            updatedAtMicros[slot] = HierarchyVersions.micros(row.getUpdatedAt());
+        }
+
+        private long rowHash(int slot) {
+            return HierarchyVersions.row(idHi[slot], idLo[slot], versions[slot], updatedAtMicros[slot]);
+        }
+
+        // Adds delta to the subtree sums of the slot and every ancestor.
+        // Chains are at most a few levels deep (see ancestors()).
+        private void addToChain(int slot, long delta) {
+            for (int s = slot; s != NO_SLOT; s = parent[s]) {
+                subtreeHashes[s] += delta;
+            }
+        }
+
+        // After a bulk load: every row's hash into its own and its
+        // ancestors' sums.
+        void sumSubtrees() {
+            for (int slot = 0; slot < highWater; slot++) {
+                if (names[slot] != null) {
+                    addToChain(slot, rowHash(slot));
+                }
+            }
+        }
+
+        void link(int slot, int parentSlot) {
+            int head = parentSlot == NO_SLOT ? firstRoot : firstChild[parentSlot];
+            parent[slot] = parentSlot;
+            prevSibling[slot] = NO_SLOT;
+            nextSibling[slot] = head;
+            if (head != NO_SLOT) {
+                prevSibling[head] = slot;
+            }
+            if (parentSlot == NO_SLOT) {
+                firstRoot = slot;
+            } else {
+                firstChild[parentSlot] = slot;
+            }
+        }
+
+        private boolean isLinkedRoot(int slot) {
+            return parent[slot] == NO_SLOT && (prevSibling[slot] != NO_SLOT || firstRoot == slot);
+        }
+
+        private void unlink(int slot) {
+            int prev = prevSibling[slot];
+            int next = nextSibling[slot];
+            if (prev != NO_SLOT) {
+                nextSibling[prev] = next;
+            } else if (parent[slot] != NO_SLOT) {
+                firstChild[parent[slot]] = next;
+            } else if (firstRoot == slot) {
+                firstRoot = next;
+            }
+            if (next != NO_SLOT) {
+                prevSibling[next] = prev;
+            }
+            parent[slot] = NO_SLOT;
+            prevSibling[slot] = NO_SLOT;
+            nextSibling[slot] = NO_SLOT;
+        }
+
+        private int allocate(long hi, long lo) {
+            if ((count + 1) * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            int slot;
+            if (freeHead != NO_SLOT) {
+                slot = freeHead;
+                freeHead = nextSibling[slot];
+            } else {
+                if (highWater == idHi.length) {
+                    grow(highWater + (highWater >> 1) + 1);
+                }
+                slot = highWater++;
+            }
+            idHi[slot] = hi;
+            idLo[slot] = lo;
+            parent[slot] = NO_SLOT;
+            firstChild[slot] = NO_SLOT;
+            nextSibling[slot] = NO_SLOT;
+            prevSibling[slot] = NO_SLOT;
+            subtreeHashes[slot] = 0;
+            insertIntoTable(slot);
+            count++;
+            return slot;
+        }
+
+        private void free(int slot) {
+            removeFromTable(slot);
+            names[slot] = null;
+            plans[slot] = null;
+            parent[slot] = NO_SLOT;
+            firstChild[slot] = NO_SLOT;
+            prevSibling[slot] = NO_SLOT;
+            nextSibling[slot] = freeHead;
+            freeHead = slot;
+            count--;
+        }
+
+        private void insertIntoTable(int slot) {
+            int mask = table.length - 1;
+            int i = hash(idHi[slot], idLo[slot]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = slot + 1;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones.
+        private void removeFromTable(int slot) {
+            int mask = table.length - 1;
+            int i = hash(idHi[slot], idLo[slot]) & mask;
+            while (table[i] != slot + 1) {
+                i = (i + 1) & mask;
+            }
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                int entry = table[j];
+                if (entry == 0) {
+                    break;
+                }
+                int home = hash(idHi[entry - 1], idLo[entry - 1]) & mask;
+                boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!stays) {
+                    table[i] = entry;
+                    i = j;
+                }
+            }
+            table[i] = 0;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            for (int slot = 0; slot < highWater; slot++) {
+                if (names[slot] != null) {
+                    insertIntoTable(slot);
+                }
+            }
+        }
+
+        private void grow(int capacity) {
+            idHi = Arrays.copyOf(idHi, capacity);
+            idLo = Arrays.copyOf(idLo, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            prevSibling = Arrays.copyOf(prevSibling, capacity);
+            names = Arrays.copyOf(names, capacity);
+            plans = Arrays.copyOf(plans, capacity);
+            types = Arrays.copyOf(types, capacity);
+            accessLevels = Arrays.copyOf(accessLevels, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            updatedAtMicros = Arrays.copyOf(updatedAtMicros, capacity);
+            subtreeHashes = Arrays.copyOf(subtreeHashes, capacity);
+        }
+
+        private static int hash(long hi, long lo) {
+            long h = hi ^ lo;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+}
@@ -3,46 +3,78 @@ package com.iotmining.services.tms.services;
 import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
 import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
 import com.iotmining.services.tms.repository.TenantRepository;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Configuration
-@RequiredArgsConstructor
 @Slf4j
 public class TenantInitializer {
 
     private final TenantRepository tenantRepository;
+    private final TenantClosureRepository tenantClosureRepository;
+    private final TransactionTemplate transactionTemplate;
 
     // Shared Constant for the System Tenant
     public static final UUID SYSTEM_TENANT_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
-    @PostConstruct
-    @Transactional
-    public void init() {
-        if (tenantRepository.existsById(SYSTEM_TENANT_ID)) {
-            log.info("TMS Boot: Platform Tenant already exists.");
-            return;
+    public TenantInitializer(TenantRepository tenantRepository, TenantClosureRepository tenantClosureRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.tenantRepository = tenantRepository;
+        this.tenantClosureRepository = tenantClosureRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Once the context is up, not @PostConstruct: init callbacks run on the
+    // raw bean, where @Transactional does nothing and insertPaths has no
+    // transaction to join. Ahead of the other ready listeners, so the
+    // hierarchy index warm-up already finds the platform tenant. Recorded
+    // as its own step on /actuator/startup.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        StartupStep step = event.getApplicationContext().getApplicationStartup().start("tms.platform-tenant.seed");
+        try {
+            init();
+        } finally {
+            step.end();
         }
+    }
+
+    public void init() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (tenantRepository.existsById(SYSTEM_TENANT_ID)) {
+                log.info("TMS Boot: Platform Tenant already exists.");
+                return;
+            }
 
-        log.info("TMS Boot: Creating Platform (System) Tenant...");
+            log.info("TMS Boot: Creating Platform (System) Tenant...");
 
-        Tenant systemTenant = new Tenant();
-        systemTenant.setTenantId(SYSTEM_TENANT_ID);
-        systemTenant.setTenantName("IIoTEdge Platform");
-        systemTenant.setSubscriptionPlan("INTERNAL");
-        systemTenant.setCreatedAt(Instant.now());
-        systemTenant.setTenantType(TenantType.PLATFORM);
-        systemTenant.setAccessLevel(TenantAccessLevel.SUPER_ADMIN);
-        systemTenant.setParent(null);
+            Tenant systemTenant = new Tenant();
+            systemTenant.setTenantId(SYSTEM_TENANT_ID);
+            systemTenant.setTenantName("IIoTEdge Platform");
+            systemTenant.setSubscriptionPlan("INTERNAL");
+            systemTenant.setCreatedAt(Instant.now());
+            systemTenant.setUpdatedAt(systemTenant.getCreatedAt());
+            systemTenant.setTenantType(TenantType.PLATFORM);
+            systemTenant.setAccessLevel(TenantAccessLevel.SUPER_ADMIN);
+            systemTenant.setParent(null);
 
-        tenantRepository.save(systemTenant);
-        log.info("TMS Boot: Platform Tenant Created successfully.");
+            tenantRepository.save(systemTenant);
+            tenantClosureRepository.insertPaths(List.of(SYSTEM_TENANT_ID));
+            log.info("TMS Boot: Platform Tenant Created successfully.");
+        });
     }
-}
\ No newline at end of file
+}
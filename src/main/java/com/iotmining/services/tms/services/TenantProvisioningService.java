@@ -0,0 +1,61 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.dto.TenantProvisioningResponse;
+import com.iotmining.services.tms.exceptions.TenantNotFoundException;
+import com.iotmining.services.tms.metrics.QueryBudget;
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Read and retry access to keyspace provisioning state. The rows are
+ * created by TenantService and advanced by TenantProvisioningWorker.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("tms.tenant.service")
+public class TenantProvisioningService {
+
+    private final TenantProvisioningRepository provisioningRepository;
+
+    @Transactional(readOnly = true)
+    @QueryBudget(1)
+    public TenantProvisioningResponse getProvisioning(UUID tenantId) {
+        return provisioningRepository.findById(tenantId)
+                .map(TenantProvisioningService::toResponse)
+                .orElseThrow(() -> new TenantNotFoundException(tenantId));
+    }
+
+    /**
+     * Puts a FAILED tenant back in the queue with a fresh attempt budget.
+     * Any other state is already queued, running or done.
+     */
+    @Transactional
+    @QueryBudget(2)
+    public TenantProvisioningResponse retry(UUID tenantId) {
+        TenantProvisioning row = provisioningRepository.findById(tenantId)
+                .orElseThrow(() -> new TenantNotFoundException(tenantId));
+        if (row.getStatus() != TenantProvisioning.Status.FAILED) {
+            throw new IllegalStateException("Provisioning of tenant " + tenantId + " is " + row.getStatus()
+                    + "; only FAILED provisioning can be retried.");
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        row.setStatus(TenantProvisioning.Status.PENDING);
+        row.setAttempts(0);
+        row.setNextAttemptAt(now);
+        row.setUpdatedAt(now);
+        return toResponse(row);
+    }
+
+    private static TenantProvisioningResponse toResponse(TenantProvisioning row) {
+        return new TenantProvisioningResponse(row.getTenantId(), row.getKeyspaceName(), row.getStatus(),
+                row.getAttempts(), row.getNextAttemptAt(), row.getLastError(), row.getUpdatedAt());
+    }
+}
@@ -2,36 +2,85 @@ package com.iotmining.services.tms.services;
 
 import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.configurations.CacheConfig;
+import com.iotmining.services.tms.datasource.ReadYourWrites;
+import com.iotmining.services.tms.dto.BulkCreateTenantResponse;
 import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
 import com.iotmining.services.tms.dto.CreateTenantRequest;
 import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantAncestryRequest;
+import com.iotmining.services.tms.dto.TenantAncestryResponse;
+import com.iotmining.services.tms.dto.TenantBatchGetRequest;
+import com.iotmining.services.tms.dto.TenantBatchGetResponse;
+import com.iotmining.services.tms.dto.TenantCursor;
 import com.iotmining.services.tms.dto.TenantSummaryResponse;
 import com.iotmining.services.tms.exceptions.TenantNotFoundException;
-
+import com.iotmining.services.tms.metrics.QueryBudget;
+import com.iotmining.services.tms.metrics.TenantMetrics;
 import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.model.TenantClosure;
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
 import com.iotmining.services.tms.repository.TenantRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("tms.tenant.service")
 public class TenantService {
 
+    // null and the virtual root both mean "top-level tenants", so they share
+    // one children-cache entry.
+    private static final String CHILDREN_CACHE_KEY =
+            "#parentId ?: T(com.iotmining.services.tms.services.TenantInitializer).SYSTEM_TENANT_ID";
+    private static final String CHILDREN_CACHE_KEY_OF_REQUEST =
+            "#request.parentId ?: T(com.iotmining.services.tms.services.TenantInitializer).SYSTEM_TENANT_ID";
+
+    public static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    // Ids bound per batchGet query: far below Postgres's 32767 bind
+    // parameters, and the padded IN list still fits one plan.
+    static final int BATCH_GET_CHUNK_SIZE = 1000;
+    // Tenants removed per subtree-delete statement: bounds the ids each
+    // statement returns and the rows it touches at once.
+    static final int DELETE_BATCH_SIZE = 1000;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    public static final int MAX_SEARCH_QUERY_LENGTH = 100;
+
     private final TenantRepository tenantRepository;
+    private final TenantClosureRepository tenantClosureRepository;
+    private final TenantProvisioningRepository provisioningRepository;
+    private final TenantHierarchyIndex hierarchyIndex;
+    private final TenantChangePublisher changePublisher;
+    private final TenantEventOutbox eventOutbox;
+    private final TenantMetrics metrics;
+    private final ReadYourWrites readYourWrites;
 
     // NOTE: TMS cannot inject UserRepository directly because Users belong to Auth Service.
     // If you need users populated here, you must use a Feign Client (REST Call) to Auth Service.
 
-    private static TenantType determineTenantType(List<String> roles) {
+    // determineTenantType, mapToSummary and buildCompanyTree are
+    // package-private for TenantServiceBenchmark (src/jmh).
+    static TenantType determineTenantType(List<String> roles) {
         if (roles == null || roles.isEmpty()) return TenantType.ORGANIZATION;
         if (roles.contains("ROLE_SUPER_ADMIN")) return TenantType.ORGANIZATION;
         if (roles.contains("ROLE_ADMIN")) return TenantType.SUB_TENANT;
@@ -46,14 +95,46 @@ public class TenantService {
         };
     }
 
-    @Transactional(readOnly = true)
+    // The read methods below are deliberately not @Transactional: once the
+    // hierarchy index is loaded they never touch the database, and opening a
+    // transaction would still borrow a pooled connection for nothing. The
+    // fallback queries run in TenantRepository's read-only transactions
+    // (declared on the interface), which is also what sends them to a
+    // replica when tms.db.replicas is on.
+    //
+    // A miss on the loaded index isn't final, though: another replica's
+    // creates only arrive through its change message, which can be lost
+    // (Redis down, a listener restart), and the next refresh may be 15
+    // minutes away. Those reads ask the database and index what they find.
+
+    @Cacheable(cacheNames = CacheConfig.TENANT_SUMMARIES, key = "#tenantId", unless = "#result == null")
+    @QueryBudget(1)
     public TenantSummaryResponse getTenantSummary(UUID tenantId) {
-        return tenantRepository.findById(tenantId)
-                .map(this::mapToSummary)
-                .orElse(null);
+        boolean indexed = hierarchyIndex.isReady();
+        if (indexed) {
+            TenantSummaryResponse summary = hierarchyIndex.find(tenantId);
+            if (summary != null) {
+                return summary;
+            }
+        }
+        TenantSummaryResponse summary = tenantRepository.findSummaryById(tenantId).orElse(null);
+        if (indexed && summary != null) {
+            backfillIndex(List.of(summary));
+        }
+        return summary;
     }
 
+    // A new tenant only changes its parent's children list (top-level
+    // tenants share the virtual-root key, see getSubTenants) - and every
+    // cached subtree containing that parent, which isn't worth resolving.
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TENANT_CHILDREN, key = CHILDREN_CACHE_KEY_OF_REQUEST),
+            @CacheEvict(cacheNames = CacheConfig.TENANT_SUBTREES, allEntries = true)
+    })
+    // parent lookup, keyspace check, tenant insert, closure insert, outbox
+    // insert, provisioning insert
+    @QueryBudget(6)
     public CreateTenantResponse createTenant(CreateTenantRequest request) {
         log.info("Attempting to create tenant: {}", request.getTenantName());
 
@@ -63,99 +144,550 @@ public class TenantService {
                     .orElseThrow(() -> new TenantNotFoundException(request.getParentId()));
         }
 
-        TenantType tenantType = determineTenantType(request.getRoles());
-
-        if (parent != null) {
-            validateHierarchy(parent.getTenantType(), tenantType);
-        } else if (tenantType == TenantType.SUB_TENANT) {
-            throw new IllegalStateException("A SUB_TENANT must have a parent ORGANIZATION.");
+        Tenant tenant = newTenant(request, parent, now());
+        String keyspaceName = keyspaceName(tenant.getTenantName());
+        if (provisioningRepository.existsByKeyspaceName(keyspaceName)) {
+            keyspaceName = keyspaceName(tenant.getTenantName(), tenant.getTenantId());
         }
 
-        TenantAccessLevel accessLevel = determineAccessLevel(tenantType);
-        UUID tenantId = UUID.randomUUID();
-        Instant now = Instant.now();
-
-        Tenant tenant = new Tenant();
-        tenant.setTenantId(tenantId);
-        tenant.setTenantName(request.getTenantName());
-        tenant.setSubscriptionPlan(request.getSubscriptionPlan() != null ? request.getSubscriptionPlan() : "BASIC");
-        tenant.setCreatedAt(now);
-        tenant.setParent(parent);
-        tenant.setTenantType(tenantType);
-        tenant.setAccessLevel(accessLevel);
-
         Tenant savedTenant = tenantRepository.save(tenant);
+        tenantClosureRepository.insertPaths(List.of(savedTenant.getTenantId()));
+        // The keyspace itself is set up afterwards by the provisioning
+        // worker; the caller polls GET /{tenantId}/provisioning.
+        provisioningRepository.save(TenantProvisioning.pending(savedTenant.getTenantId(), keyspaceName,
+                savedTenant.getCreatedAt()));
+
+        CreateTenantResponse response = mapToCreateResponse(savedTenant, keyspaceName);
+        log.info("Tenant created: ID={}, Keyspace={}", savedTenant.getTenantId(), response.getKeyspaceName());
+
+        TenantSummaryResponse summary = mapToSummary(savedTenant);
+        eventOutbox.tenantsCreated(List.of(summary));
+        afterCommit(() -> {
+            readYourWrites.recordWrite();
+            hierarchyIndex.put(summary);
+            changePublisher.tenantSaved(summary);
+        });
+
+        return response;
+    }
 
-        String keyspaceName = savedTenant.getTenantName().toLowerCase().replaceAll("[^a-z0-9]", "") + "_ks";
-        log.info("Tenant created: ID={}, Keyspace={}", savedTenant.getTenantId(), keyspaceName);
+    /**
+     * Creates many tenants in one transaction. Items are validated in order
+     * and each gets its own result: an item that fails (unknown parent,
+     * hierarchy violation, bad parentRef) is reported and skipped, and so
+     * is anything that names it as parentRef. The valid items are inserted
+     * together - existing parents are resolved with one query, the inserts
+     * go out as JDBC batches (hibernate.jdbc.batch_size, rewritten into
+     * multi-row INSERTs by the driver's reWriteBatchedInserts) and the
+     * closure rows for the whole batch are written by one statement.
+     * Bulk creates are rare, so every cached children list is dropped
+     * rather than collecting the affected parents.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TENANT_CHILDREN, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TENANT_SUBTREES, allEntries = true)
+    })
+    // parent lookup, keyspace check, closure and outbox inserts, and one
+    // INSERT per JDBC batch (<= 10 at MAX_TENANTS) each for tenants and
+    // provisioning rows
+    @QueryBudget(24)
+    public BulkCreateTenantResponse createTenants(List<CreateTenantRequest> requests) {
+        Set<UUID> parentIds = requests.stream()
+                .map(CreateTenantRequest::getParentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Tenant> existingParents = parentIds.isEmpty() ? Map.of()
+                : findParents(parentIds).stream()
+                        .collect(Collectors.toMap(Tenant::getTenantId, t -> t));
+
+        Set<String> keyspaceNames = requests.stream()
+                .map(request -> keyspaceName(request.getTenantName()))
+                .collect(Collectors.toSet());
+        metrics.recordInListSize("findTakenKeyspaceNames", keyspaceNames.size());
+        Set<String> takenKeyspaceNames = new HashSet<>(provisioningRepository.findTakenKeyspaceNames(keyspaceNames));
+
+        Map<String, Tenant> byRef = new HashMap<>();
+        Map<UUID, String> keyspaceNameOf = new HashMap<>();
+        List<Tenant> tenants = new ArrayList<>(requests.size());
+        List<BulkCreateTenantResponse.Result> results = new ArrayList<>(requests.size());
+        Instant now = now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTenantRequest request = requests.get(i);
+            try {
+                Tenant tenant = newTenant(request, resolveBulkParent(request, existingParents, byRef), now);
+                if (request.getRef() != null && byRef.putIfAbsent(request.getRef(), tenant) != null) {
+                    throw new IllegalStateException("Duplicate ref '" + request.getRef() + "' in this batch.");
+                }
+                String keyspaceName = keyspaceName(tenant.getTenantName());
+                if (!takenKeyspaceNames.add(keyspaceName)) {
+                    keyspaceName = keyspaceName(tenant.getTenantName(), tenant.getTenantId());
+                }
+                keyspaceNameOf.put(tenant.getTenantId(), keyspaceName);
+                tenants.add(tenant);
+                results.add(BulkCreateTenantResponse.Result.created(i, request.getRef(),
+                        mapToCreateResponse(tenant, keyspaceName)));
+            } catch (TenantNotFoundException | IllegalStateException ex) {
+                results.add(BulkCreateTenantResponse.Result.failed(i, request.getRef(), ex.getMessage()));
+            }
+        }
 
-        return new CreateTenantResponse(
-                savedTenant.getTenantId(),
-                savedTenant.getTenantName(),
-                savedTenant.getSubscriptionPlan(),
-                keyspaceName,
-                now,
-                tenantType,
-                accessLevel
-        );
+        if (!tenants.isEmpty()) {
+            tenantRepository.saveAll(tenants);
+            metrics.recordInListSize("insertPaths", tenants.size());
+            tenantClosureRepository.insertPaths(tenants.stream().map(Tenant::getTenantId).toList());
+            provisioningRepository.saveAll(tenants.stream()
+                    .map(t -> TenantProvisioning.pending(t.getTenantId(), keyspaceNameOf.get(t.getTenantId()), now))
+                    .toList());
+
+            List<TenantSummaryResponse> summaries = tenants.stream().map(TenantService::mapToSummary).toList();
+            eventOutbox.tenantsCreated(summaries);
+            afterCommit(() -> {
+                readYourWrites.recordWrite();
+                summaries.forEach(hierarchyIndex::put);
+                // One message for the batch, not one per tenant.
+                changePublisher.tenantsSaved(summaries);
+            });
+        }
+        log.info("Bulk tenant create: {} created, {} rejected", tenants.size(), requests.size() - tenants.size());
+
+        return new BulkCreateTenantResponse(tenants.size(), requests.size() - tenants.size(), results);
     }
 
+    /**
+     * Deletes the tenant and every tenant below it, returning how many went
+     * (0 if it didn't exist). One statement per DELETE_BATCH_SIZE tenants,
+     * all in one transaction - a compensating rollback of a fresh tenant is
+     * a single round trip plus the outbox insert.
+     */
+    // Neither the parent nor the subtree is known until the delete ran, and
+    // deletes are rare (compensating rollbacks), so drop every cached
+    // summary and children list.
     @Transactional
-    public void deleteTenant(UUID tenantId) {
-        if (tenantRepository.existsById(tenantId)) {
-            tenantRepository.deleteById(tenantId);
-            log.warn("Tenant deleted: {}", tenantId);
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TENANT_SUMMARIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TENANT_CHILDREN, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TENANT_SUBTREES, allEntries = true)
+    })
+    @QueryBudget(2) // one delete batch, outbox insert; a larger subtree takes a statement per batch
+    public int deleteTenant(UUID tenantId) {
+        if (TenantInitializer.SYSTEM_TENANT_ID.equals(tenantId)) {
+            throw new IllegalArgumentException("The platform tenant can't be deleted");
         }
+        List<UUID> deleted = new ArrayList<>();
+        List<UUID> batch;
+        do {
+            batch = tenantRepository.deleteSubtreeBatch(tenantId, DELETE_BATCH_SIZE);
+            deleted.addAll(batch);
+        } while (batch.size() == DELETE_BATCH_SIZE);
+        if (deleted.isEmpty()) {
+            return 0;
+        }
+        log.warn("Tenant deleted: {} ({} tenants including descendants)", tenantId, deleted.size());
+        eventOutbox.tenantsDeleted(deleted);
+        afterCommit(() -> {
+            readYourWrites.recordWrite();
+            hierarchyIndex.remove(tenantId);
+            changePublisher.tenantDeleted(tenantId);
+        });
+        return deleted.size();
     }
 
     @Transactional(readOnly = true)
+    @QueryBudget(2) // page + count
     public Page<TenantSummaryResponse> getAllTenants(Pageable pageable) {
-        return tenantRepository.findAll(pageable).map(this::mapToSummary);
+        return tenantRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * One keyset page of the platform listing in (name, id) order, starting
+     * after {@code after} ({@code null} for the first page).
+     */
+    @Transactional(readOnly = true)
+    @QueryBudget(1)
+    public Slice<TenantSummaryResponse> getTenantsAfter(TenantCursor after, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        Pageable page = PageRequest.ofSize(size);
+        if (after == null) {
+            return tenantRepository.findSummariesOrderedByName(page);
+        }
+        return tenantRepository.findSummariesByNameAfter(after.getTenantName(), after.getTenantId(), page);
     }
 
+    /** Approximate tenant count from Postgres statistics, or null if not yet analyzed. */
+    @QueryBudget(1)
+    public Long estimateTenantCount() {
+        long estimate = tenantRepository.estimateRowCount();
+        return estimate < 0 ? null : estimate;
+    }
+
+    /**
+     * Summaries for many tenants at once, in request order, plus the ids
+     * that don't exist. Duplicates are answered once. Without the index the
+     * ids are looked up BATCH_GET_CHUNK_SIZE at a time.
+     */
+    @QueryBudget(TenantBatchGetRequest.MAX_TENANT_IDS / BATCH_GET_CHUNK_SIZE)
+    public TenantBatchGetResponse getTenantSummaries(Collection<UUID> tenantIds) {
+        if (tenantIds.size() > TenantBatchGetRequest.MAX_TENANT_IDS) {
+            throw new IllegalArgumentException(
+                    "At most " + TenantBatchGetRequest.MAX_TENANT_IDS + " tenant ids per request");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(tenantIds);
+        Map<UUID, TenantSummaryResponse> found = new HashMap<>();
+        boolean indexed = hierarchyIndex.isReady();
+        List<UUID> pending = new ArrayList<>();
+        for (UUID id : ids) {
+            TenantSummaryResponse summary = indexed ? hierarchyIndex.find(id) : null;
+            if (summary != null) {
+                found.put(id, summary);
+            } else {
+                pending.add(id);
+            }
+        }
+        List<TenantSummaryResponse> fetched = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<UUID> chunk = pending.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, pending.size()));
+            metrics.recordInListSize("findSummariesByIdIn", chunk.size());
+            fetched.addAll(tenantRepository.findSummariesByIdIn(chunk));
+        }
+        fetched.forEach(summary -> found.put(summary.getTenantId(), summary));
+        if (indexed) {
+            backfillIndex(fetched);
+        }
+
+        List<TenantSummaryResponse> tenants = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            TenantSummaryResponse summary = found.get(id);
+            if (summary != null) {
+                tenants.add(summary);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new TenantBatchGetResponse(tenants, missing);
+    }
+
+    /**
+     * Up to {@code limit} tenants whose name matches {@code query}, best
+     * match first (see TenantRepositoryCustom.searchIds), optionally only
+     * within one tenant's subtree. The ids come from the trigram index;
+     * their summaries from the hierarchy index once it has loaded. Read-only
+     * so that both queries run on one replica when replicas are configured.
+     */
     @Transactional(readOnly = true)
+    @QueryBudget(2) // matching ids, then their summaries without the index
+    public List<TenantSummaryResponse> searchTenants(String query, boolean fuzzy, UUID within, int limit) {
+        String trimmed = query == null ? "" : query.strip();
+        if (trimmed.isEmpty() || trimmed.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be 1 to " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        List<UUID> ids = tenantRepository.searchIds(trimmed, fuzzy, within, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, TenantSummaryResponse> found = new HashMap<>();
+        boolean indexed = hierarchyIndex.isReady();
+        if (indexed) {
+            ids.forEach(id -> {
+                TenantSummaryResponse summary = hierarchyIndex.find(id);
+                if (summary != null) {
+                    found.put(id, summary);
+                }
+            });
+        }
+        List<UUID> pending = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!pending.isEmpty()) {
+            List<TenantSummaryResponse> fetched = tenantRepository.findSummariesByIdIn(pending);
+            fetched.forEach(summary -> found.put(summary.getTenantId(), summary));
+            if (indexed) {
+                backfillIndex(fetched);
+            }
+        }
+        // A tenant deleted between the two reads is just left out.
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TENANT_CHILDREN, key = CHILDREN_CACHE_KEY)
+    @QueryBudget(1)
     public List<TenantSummaryResponse> getSubTenants(UUID parentId) {
         // 1. Define the Virtual Root ID
         UUID rootId = UUID.fromString("00000000-0000-0000-0000-000000000000");
+        boolean topLevel = parentId == null || parentId.equals(rootId);
 
-        List<Tenant> tenants;
+        // A parent the index doesn't know goes to the database; its
+        // children aren't indexed from here, they couldn't be linked to it.
+        if (hierarchyIndex.isReady() && (topLevel || hierarchyIndex.find(parentId) != null)) {
+            return topLevel ? hierarchyIndex.roots() : hierarchyIndex.children(parentId);
+        }
 
         // 2. If ID is NULL or ZERO -> Fetch Top-Level Tenants (where parent is null)
-        if (parentId == null || parentId.equals(rootId)) {
-            tenants = tenantRepository.findByParentIsNull();
-        } else {
-            // 3. Otherwise fetch children of the specific parent
-            tenants = tenantRepository.findByParent_TenantId(parentId);
+        if (topLevel) {
+            return tenantRepository.findRootSummaries();
         }
-
-        return tenants.stream()
-                .map(this::mapToSummary)
-                .collect(Collectors.toList());
+        // 3. Otherwise fetch children of the specific parent
+        return tenantRepository.findChildSummaries(parentId);
     }
 
-    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TENANT_SUBTREES, key = "#tenantId")
+    @QueryBudget(1)
     public List<CompanyWithUsersResponse> getCompaniesAndUsers(UUID tenantId) {
-        Tenant node = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new TenantNotFoundException(tenantId));
+        boolean indexed = hierarchyIndex.isReady();
+        if (indexed) {
+            CompanyWithUsersResponse tree = hierarchyIndex.subtree(tenantId);
+            if (tree != null) {
+                metrics.recordTree(tree, "index");
+                List<CompanyWithUsersResponse> result = new ArrayList<>();
+                result.add(tree);
+                return result;
+            }
+        }
 
+        List<TenantSummaryResponse> subtree = tenantRepository.findSubtreeSummaries(tenantId);
+        if (subtree.isEmpty()) {
+            throw new TenantNotFoundException(tenantId);
+        }
+        if (indexed) {
+            backfillIndex(subtree);
+        }
+
+        CompanyWithUsersResponse tree = buildCompanyTree(subtree);
+        // Same rows, same version as the index would report.
+        tree.setVersion(HierarchyVersions.subtree(subtree));
+        metrics.recordTree(tree, "database");
         List<CompanyWithUsersResponse> result = new ArrayList<>();
-        result.add(buildCompanyTree(node));
+        result.add(tree);
         return result;
     }
 
+    /**
+     * Ancestor chains and membership checks for many tenants in one call,
+     * for services that authorize against the hierarchy. A principal is a
+     * member of a tenant if it is that tenant or one of its ancestors.
+     * From the index the response carries a version of the request body
+     * and the rows it was answered from, which the controller turns into
+     * an ETag.
+     */
+    @QueryBudget(1)
+    public TenantAncestryResponse resolveAncestry(TenantAncestryRequest request) {
+        List<UUID> tenantIds = request.getTenantIds() != null ? request.getTenantIds() : List.of();
+        List<TenantAncestryRequest.MembershipCheck> checks =
+                request.getMemberships() != null ? request.getMemberships() : List.of();
+
+        Set<UUID> lookup = new LinkedHashSet<>(tenantIds);
+        checks.forEach(check -> lookup.add(check.getTenantId()));
+
+        TenantHierarchyIndex.Ancestors ancestors = hierarchyIndex.isReady() ? hierarchyIndex.ancestors(lookup) : null;
+        Map<UUID, List<UUID>> chains;
+        String version = null;
+        if (ancestors == null) {
+            chains = findAncestorChains(lookup);
+        } else {
+            chains = ancestors.chains();
+            // Ids the index doesn't know are checked against the database;
+            // an answer that needed it isn't the index's, so it has no version.
+            Set<UUID> misses = lookup.stream().filter(id -> !ancestors.chains().containsKey(id))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<UUID, List<UUID>> fetched = misses.isEmpty() ? Map.of() : findAncestorChains(misses);
+            if (fetched.isEmpty()) {
+                version = ancestryVersion(ancestors.rowsHash(), tenantIds, checks);
+            } else {
+                chains = new HashMap<>(chains);
+                chains.putAll(fetched);
+            }
+        }
+
+        Map<UUID, List<UUID>> requested = new LinkedHashMap<>();
+        for (UUID tenantId : tenantIds) {
+            List<UUID> chain = chains.get(tenantId);
+            if (chain != null) {
+                requested.put(tenantId, chain);
+            }
+        }
+        List<TenantAncestryResponse.Membership> memberships = new ArrayList<>(checks.size());
+        for (TenantAncestryRequest.MembershipCheck check : checks) {
+            List<UUID> chain = chains.get(check.getTenantId());
+            boolean member = chain != null && (check.getPrincipalTenantId().equals(check.getTenantId())
+                    || chain.contains(check.getPrincipalTenantId()));
+            memberships.add(new TenantAncestryResponse.Membership(
+                    check.getPrincipalTenantId(), check.getTenantId(), member));
+        }
+        Map<UUID, List<UUID>> known = chains;
+        List<UUID> unknown = lookup.stream().filter(id -> !known.containsKey(id)).toList();
+
+        return new TenantAncestryResponse(version, requested, memberships, unknown);
+    }
+
+    // The index's hash of the rows the answer came from, with the request
+    // body folded in: the lookup set alone doesn't say which ids were asked
+    // for chains and which were paired with which principal.
+    private static String ancestryVersion(long rowsHash, List<UUID> tenantIds,
+                                          List<TenantAncestryRequest.MembershipCheck> checks) {
+        long hash = HierarchyVersions.fold(rowsHash, tenantIds.size());
+        for (UUID tenantId : tenantIds) {
+            hash = HierarchyVersions.fold(hash, tenantId);
+        }
+        for (TenantAncestryRequest.MembershipCheck check : checks) {
+            hash = HierarchyVersions.fold(hash, check.getPrincipalTenantId());
+            hash = HierarchyVersions.fold(hash, check.getTenantId());
+        }
+        return HierarchyVersions.format(hash);
+    }
+
+    /**
+     * The current version of {@code tenantId}'s descendant tree - the
+     * version getCompaniesAndUsers stamps on the tree's root - without
+     * building it. Derived from the rows alone, so the same on every
+     * replica. Null while the index isn't loaded, or for an unknown tenant.
+     */
+    @QueryBudget(0)
+    public String getSubtreeVersion(UUID tenantId) {
+        return hierarchyIndex.isReady() ? hierarchyIndex.subtreeVersion(tenantId) : null;
+    }
+
     // --- Helper Methods ---
 
-    private TenantSummaryResponse mapToSummary(Tenant t) {
+    // Index updates must only become visible once the write is durable - a
+    // rolled-back create would otherwise leave a phantom tenant in memory.
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Rows read from the database after an index miss, parents before
+    // children. Counted, since a steady stream of them means change
+    // messages are being lost.
+    private void backfillIndex(List<TenantSummaryResponse> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        metrics.recordIndexBackfill(rows.size());
+        rows.forEach(hierarchyIndex::put);
+    }
+
+    private List<Tenant> findParents(Set<UUID> parentIds) {
+        metrics.recordInListSize("findAllById", parentIds.size());
+        return tenantRepository.findAllById(parentIds);
+    }
+
+    // Rows arrive per descendant, shallowest first: the self row (which
+    // proves the tenant exists), then parent, grandparent, ...
+    private Map<UUID, List<UUID>> findAncestorChains(Set<UUID> tenantIds) {
+        if (tenantIds.isEmpty()) {
+            return Map.of();
+        }
+        metrics.recordInListSize("findAncestorPaths", tenantIds.size());
+        Map<UUID, List<UUID>> chains = new HashMap<>();
+        for (TenantClosure path : tenantClosureRepository.findAncestorPaths(tenantIds)) {
+            List<UUID> chain = chains.computeIfAbsent(path.getDescendantId(), id -> new ArrayList<>());
+            if (path.getDepth() > 0) {
+                chain.add(path.getAncestorId());
+            }
+        }
+        return chains;
+    }
+
+    private static Tenant resolveBulkParent(CreateTenantRequest request, Map<UUID, Tenant> existingParents,
+                                            Map<String, Tenant> byRef) {
+        if (request.getParentRef() != null) {
+            if (request.getParentId() != null) {
+                throw new IllegalStateException("Give either parentId or parentRef, not both.");
+            }
+            Tenant parent = byRef.get(request.getParentRef());
+            if (parent == null) {
+                throw new IllegalStateException("parentRef '" + request.getParentRef()
+                        + "' does not match an earlier, successfully validated item in this batch.");
+            }
+            return parent;
+        }
+        if (request.getParentId() != null) {
+            Tenant parent = existingParents.get(request.getParentId());
+            if (parent == null) {
+                throw new TenantNotFoundException(request.getParentId());
+            }
+            return parent;
+        }
+        return null;
+    }
+
+    private Tenant newTenant(CreateTenantRequest request, Tenant parent, Instant now) {
+        TenantType tenantType = determineTenantType(request.getRoles());
+
+        if (parent != null) {
+            validateHierarchy(parent.getTenantType(), tenantType);
+        } else if (tenantType == TenantType.SUB_TENANT) {
+            throw new IllegalStateException("A SUB_TENANT must have a parent ORGANIZATION.");
+        }
+
+        Tenant tenant = new Tenant();
+        tenant.setTenantId(UUID.randomUUID());
+        tenant.setTenantName(request.getTenantName());
+        tenant.setSubscriptionPlan(request.getSubscriptionPlan() != null ? request.getSubscriptionPlan() : "BASIC");
+        tenant.setCreatedAt(now);
+        tenant.setUpdatedAt(now);
+        tenant.setParent(parent);
+        tenant.setTenantType(tenantType);
+        tenant.setAccessLevel(determineAccessLevel(tenantType));
+        return tenant;
+    }
+
+    static String keyspaceName(String tenantName) {
+        return tenantName.toLowerCase().replaceAll("[^a-z0-9]", "") + "_ks";
+    }
+
+    // For a tenant whose name maps to a keyspace another tenant already
+    // has ("Site 1" under two organizations): the name's keyspace plus the
+    // start of the tenant's id. The unique index on keyspace_name stays the
+    // backstop for two creates racing for the same name.
+    static String keyspaceName(String tenantName, UUID tenantId) {
+        return tenantName.toLowerCase().replaceAll("[^a-z0-9]", "") + "_"
+                + tenantId.toString().substring(0, 8) + "_ks";
+    }
+
+    private CreateTenantResponse mapToCreateResponse(Tenant t, String keyspaceName) {
+        return new CreateTenantResponse(
+                t.getTenantId(),
+                t.getTenantName(),
+                t.getSubscriptionPlan(),
+                keyspaceName,
+                t.getCreatedAt(),
+                t.getTenantType(),
+                t.getAccessLevel()
+        );
+    }
+
+    static TenantSummaryResponse mapToSummary(Tenant t) {
         return new TenantSummaryResponse(
                 t.getTenantId(),
                 t.getTenantName(),
                 t.getSubscriptionPlan(),
                 t.getParent() != null ? t.getParent().getTenantId() : null,
                 t.getTenantType(),
-                t.getAccessLevel()
+                t.getAccessLevel(),
+                t.getVersion(),
+                t.getUpdatedAt()
         );
     }
 
+    // Truncated to what timestamptz keeps, like Tenant.touch().
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     private void validateHierarchy(TenantType parentType, TenantType childType) {
         if (parentType == TenantType.ORGANIZATION && childType == TenantType.ORGANIZATION) {
             throw new IllegalStateException("An ORGANIZATION cannot be a child of another ORGANIZATION.");
@@ -165,36 +697,21 @@ public class TenantService {
         }
     }
 
-    // Builds the full descendant tree breadth-first, fetching each level's
-    // children in one batched query instead of one query per node - a tree
-    // with N nodes across D levels costs O(D) queries here, not O(N).
-    private CompanyWithUsersResponse buildCompanyTree(Tenant root) {
+    // Assembles the descendant tree from one closure-table query (see
+    // TenantRepository.findSubtreeSummaries) - a single round trip however
+    // deep the hierarchy goes. Rows arrive shallowest first, so every row's
+    // parent DTO already exists when the row is reached.
+    static CompanyWithUsersResponse buildCompanyTree(List<TenantSummaryResponse> subtree) {
         Map<UUID, CompanyWithUsersResponse> byId = new HashMap<>();
-        Map<UUID, List<CompanyWithUsersResponse>> childrenById = new HashMap<>();
 
-        CompanyWithUsersResponse rootDto = new CompanyWithUsersResponse(mapToSummary(root), new ArrayList<>(), new ArrayList<>());
+        TenantSummaryResponse root = subtree.get(0);
+        CompanyWithUsersResponse rootDto = new CompanyWithUsersResponse(root, new ArrayList<>(), new ArrayList<>(), null);
         byId.put(root.getTenantId(), rootDto);
 
-        List<UUID> currentLevelIds = List.of(root.getTenantId());
-        while (!currentLevelIds.isEmpty()) {
-            List<Tenant> children = tenantRepository.findByParent_TenantIdIn(currentLevelIds);
-            if (children.isEmpty()) break;
-
-            List<UUID> nextLevelIds = new ArrayList<>();
-            for (Tenant child : children) {
-                CompanyWithUsersResponse childDto = new CompanyWithUsersResponse(mapToSummary(child), new ArrayList<>(), new ArrayList<>());
-                byId.put(child.getTenantId(), childDto);
-                childrenById.computeIfAbsent(child.getParent().getTenantId(), k -> new ArrayList<>()).add(childDto);
-                nextLevelIds.add(child.getTenantId());
-            }
-            currentLevelIds = nextLevelIds;
-        }
-
-        for (Map.Entry<UUID, CompanyWithUsersResponse> entry : byId.entrySet()) {
-            List<CompanyWithUsersResponse> kids = childrenById.get(entry.getKey());
-            if (kids != null) {
-                entry.getValue().getSubCompanies().addAll(kids);
-            }
+        for (TenantSummaryResponse child : subtree.subList(1, subtree.size())) {
+            CompanyWithUsersResponse childDto = new CompanyWithUsersResponse(child, new ArrayList<>(), new ArrayList<>(), null);
+            byId.put(child.getTenantId(), childDto);
+            byId.get(child.getParentId()).getSubCompanies().add(childDto);
         }
 
         return rootDto;
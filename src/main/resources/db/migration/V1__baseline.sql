@@ -0,0 +1,72 @@
+-- Baseline: the schema as ddl-auto: update left it before Flyway took over,
+-- written out by hand. Hibernate only validates it now
+-- (spring.jpa.hibernate.ddl-auto: validate), so a column added to an entity
+-- needs a migration here or the boot fails.
+--
+-- Runs on an empty database only. A database that ddl-auto created is
+-- baselined at this version instead (spring.flyway.baseline-on-migrate)
+-- and gets just V2 onwards, which is why every later migration is
+-- idempotent: it must work both on top of this file and on top of
+-- whatever ddl-auto produced. Indexes are built plainly here - the tables
+-- are empty - and CONCURRENTLY in the later migrations.
+
+CREATE TABLE tenants (
+    id                uuid                        NOT NULL,
+    name              varchar(255)                NOT NULL,
+    subscription_plan varchar(255)                NOT NULL,
+    created_at        timestamp(6) with time zone NOT NULL,
+    updated_at        timestamp(6) with time zone NOT NULL,
+    version           bigint                      NOT NULL DEFAULT 0,
+    parent_id         uuid,
+    tenant_type       varchar(255)                NOT NULL,
+    access_level      varchar(255)                NOT NULL,
+    CONSTRAINT tenants_pkey PRIMARY KEY (id),
+    -- NO ACTION, not RESTRICT: checked at the end of the statement, which
+    -- TenantRepository.deleteSubtreeBatch relies on.
+    CONSTRAINT fk_tenants_parent FOREIGN KEY (parent_id) REFERENCES tenants (id),
+    CONSTRAINT tenants_tenant_type_check
+        CHECK (tenant_type IN ('PLATFORM', 'ORGANIZATION', 'SUB_TENANT')),
+    CONSTRAINT tenants_access_level_check
+        CHECK (access_level IN ('SUPER_ADMIN', 'TENANT_ADMIN', 'OPERATIONAL', 'READ_ONLY'))
+);
+CREATE INDEX idx_tenants_parent_id ON tenants (parent_id);
+CREATE INDEX idx_tenants_tenant_type ON tenants (tenant_type);
+CREATE INDEX idx_tenants_name_id ON tenants (name, id);
+
+CREATE TABLE tenant_closure (
+    ancestor_id   uuid    NOT NULL,
+    descendant_id uuid    NOT NULL,
+    depth         integer NOT NULL,
+    CONSTRAINT tenant_closure_pkey PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX idx_tenant_closure_descendant ON tenant_closure (descendant_id);
+
+CREATE TABLE tenant_outbox (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    tenant_id  uuid                        NOT NULL,
+    event_type varchar(16)                 NOT NULL,
+    payload    text                        NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT tenant_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE tenant_provisioning (
+    tenant_id       uuid                        NOT NULL,
+    keyspace_name   varchar(255)                NOT NULL,
+    status          varchar(16)                 NOT NULL,
+    attempts        integer                     NOT NULL,
+    next_attempt_at timestamp(6) with time zone,
+    last_error      varchar(1000),
+    updated_at      timestamp(6) with time zone NOT NULL,
+    version         bigint                      NOT NULL,
+    CONSTRAINT tenant_provisioning_pkey PRIMARY KEY (tenant_id),
+    CONSTRAINT tenant_provisioning_status_check
+        CHECK (status IN ('PENDING', 'IN_PROGRESS', 'READY', 'FAILED'))
+);
+CREATE INDEX idx_tenant_provisioning_due ON tenant_provisioning (status, next_attempt_at);
+CREATE UNIQUE INDEX uq_tenant_provisioning_keyspace_name ON tenant_provisioning (keyspace_name);
+
+-- Name search (TenantRepositoryImpl.searchIds). pg_trgm is a trusted
+-- extension, so the database owner can create it without superuser.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_tenants_name_trgm ON tenants USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,29 @@
+-- Restricts tenant_type/access_level to the current TenantType and
+-- TenantAccessLevel values (com.iotmining.common.data.tenant). ddl-auto
+-- never adds these CHECK constraints to an existing table, so a database
+-- it created may lack them or still hold the old values. A no-op on top
+-- of V1, which already has both.
+--
+-- The constraints are a defense-in-depth data-integrity backstop, not
+-- something the application depends on to function.
+
+-- 1. Data cleanup - remap any rows still holding the old enum values
+-- (TenantType.COMPANY, TenantAccessLevel.SUPER/ADMIN) first, or the
+-- constraints below fail to apply.
+UPDATE tenants SET tenant_type = 'ORGANIZATION' WHERE tenant_type = 'COMPANY';
+UPDATE tenants SET access_level = 'SUPER_ADMIN' WHERE access_level = 'SUPER';
+UPDATE tenants SET access_level = 'TENANT_ADMIN' WHERE access_level = 'ADMIN';
+
+-- 2. Drop existing checks to prevent conflicts
+ALTER TABLE tenants DROP CONSTRAINT IF EXISTS tenants_tenant_type_check;
+ALTER TABLE tenants DROP CONSTRAINT IF EXISTS tenants_access_level_check;
+
+-- 3. Add Constraint for TenantType
+ALTER TABLE tenants
+ADD CONSTRAINT tenants_tenant_type_check
+CHECK (tenant_type IN ('PLATFORM', 'ORGANIZATION', 'SUB_TENANT'));
+
+-- 4. Add Constraint for TenantAccessLevel
+ALTER TABLE tenants
+ADD CONSTRAINT tenants_access_level_check
+CHECK (access_level IN ('SUPER_ADMIN', 'TENANT_ADMIN', 'OPERATIONAL', 'READ_ONLY'));
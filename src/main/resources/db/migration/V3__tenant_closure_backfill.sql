@@ -0,0 +1,31 @@
+-- Backfills tenant_closure (see com.iotmining.services.tms.model.TenantClosure)
+-- for every tenant that already exists. ddl-auto created the table empty
+-- on the first boot of a build that included it, and until it's populated
+-- the database fallback of the companies-with-users endpoint
+-- (TenantRepository.findSubtreeSummaries) returns 404 for pre-existing
+-- tenants. New tenants get their rows from TenantService.createTenant.
+--
+-- Idempotent (ON CONFLICT DO NOTHING), and a no-op on top of V1.
+
+-- 1. The table/index, in case the baselined database predates them.
+CREATE TABLE IF NOT EXISTS tenant_closure (
+    ancestor_id   uuid    NOT NULL,
+    descendant_id uuid    NOT NULL,
+    depth         integer NOT NULL,
+    CONSTRAINT tenant_closure_pkey PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX IF NOT EXISTS idx_tenant_closure_descendant ON tenant_closure (descendant_id);
+
+-- 2. One path per (ancestor, descendant) pair, walking parent_id upwards
+-- from every tenant - same statement as TenantClosureRepository.insertPaths,
+-- without the id filter.
+WITH RECURSIVE chain (ancestor_id, descendant_id, depth) AS (
+    SELECT t.id, t.id, 0 FROM tenants t
+    UNION ALL
+    SELECT p.parent_id, c.descendant_id, c.depth + 1
+    FROM chain c JOIN tenants p ON p.id = c.ancestor_id
+    WHERE p.parent_id IS NOT NULL
+)
+INSERT INTO tenant_closure (ancestor_id, descendant_id, depth)
+SELECT ancestor_id, descendant_id, depth FROM chain
+ON CONFLICT DO NOTHING;
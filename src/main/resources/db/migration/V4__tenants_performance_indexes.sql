@@ -0,0 +1,16 @@
+-- The tenants indexes the read paths depend on: parent_id (children and
+-- the hierarchy queries), tenant_type, and (name, id) for keyset
+-- pagination of GET /api/v1/tenants?cursor=. ddl-auto only created these
+-- as a side effect of the entity's @Index list, with a plain CREATE INDEX
+-- that blocks writes to tenants for the whole build - or not at all, when
+-- its ALTERs failed part-way. No-ops on top of V1.
+--
+-- CONCURRENTLY can't run inside a transaction, so Flyway runs this script
+-- without one (every statement in it is non-transactional; don't add a
+-- transactional one here). A build that fails part-way leaves an INVALID
+-- index that IF NOT EXISTS then skips: drop it and re-run the migration.
+-- New performance indexes follow the same pattern, one migration each.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_parent_id ON tenants (parent_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_tenant_type ON tenants (tenant_type);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_name_id ON tenants (name, id);
@@ -0,0 +1,14 @@
+-- Adds the row version (optimistic locking, and the single-tenant ETag)
+-- and updated_at (Last-Modified) columns to Tenant on a database that
+-- predates them. ddl-auto: update tried to add both as NOT NULL without a
+-- default, which Postgres refuses on a table that already has rows. A
+-- no-op on top of V1.
+--
+-- Cheap on a large table: since Postgres 11 ADD COLUMN with a constant
+-- DEFAULT doesn't rewrite the table. updated_at starts out as created_at
+-- for every existing tenant.
+
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone;
+UPDATE tenants SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE tenants ALTER COLUMN updated_at SET NOT NULL;
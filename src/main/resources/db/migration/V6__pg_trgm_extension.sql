@@ -0,0 +1,6 @@
+-- pg_trgm for the name search (TenantRepositoryImpl.searchIds), on a
+-- database that predates it. Its own migration because V7's index build
+-- must run outside a transaction and this must not. pg_trgm is a trusted
+-- extension, so the database owner can create it without superuser.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,7 @@
+-- Supports GET /api/v1/tenants/search: a trigram index on lower(name)
+-- serves case-insensitive prefix and substring LIKE patterns and the
+-- fuzzy word-similarity operator (<%). A no-op on top of V1.
+--
+-- Non-transactional, like V4: see there.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_name_trgm ON tenants USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,58 @@
+-- tenant_outbox (JpaTenantEventOutbox, TenantOutboxRelay) and
+-- tenant_provisioning (TenantProvisioningWorker) on a database that
+-- predates them. Both were only ever created by V1, which a database
+-- baselined from ddl-auto never runs, so without this it fails Hibernate's
+-- validation at boot. Also backfills a provisioning row for every tenant
+-- that predates the table: TenantService checks a new tenant's keyspace
+-- name against tenant_provisioning only, and GET /{id}/provisioning 404s
+-- without a row. A no-op on top of V1.
+--
+-- Transactional; the indexes are built CONCURRENTLY in V9, after the
+-- backfill.
+
+-- 1. The tables.
+CREATE TABLE IF NOT EXISTS tenant_outbox (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    tenant_id  uuid                        NOT NULL,
+    event_type varchar(16)                 NOT NULL,
+    payload    text                        NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT tenant_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS tenant_provisioning (
+    tenant_id       uuid                        NOT NULL,
+    keyspace_name   varchar(255)                NOT NULL,
+    status          varchar(16)                 NOT NULL,
+    attempts        integer                     NOT NULL,
+    next_attempt_at timestamp(6) with time zone,
+    last_error      varchar(1000),
+    updated_at      timestamp(6) with time zone NOT NULL,
+    version         bigint                      NOT NULL,
+    CONSTRAINT tenant_provisioning_pkey PRIMARY KEY (tenant_id),
+    CONSTRAINT tenant_provisioning_status_check
+        CHECK (status IN ('PENDING', 'IN_PROGRESS', 'READY', 'FAILED'))
+);
+
+-- 2. The keyspace each existing tenant was given when it was created - the
+-- name rule of TenantService.keyspaceName - already provisioned, so READY.
+-- Tenants whose names map to the same keyspace all used that one; the
+-- oldest keeps it and the others get the id-suffixed name a create would
+-- give them today, PENDING so the worker provisions it. The platform
+-- tenant has no keyspace (TenantInitializer writes no row either).
+INSERT INTO tenant_provisioning (tenant_id, keyspace_name, status, attempts, next_attempt_at, updated_at, version)
+SELECT id,
+       CASE WHEN nth = 1 THEN base || '_ks' ELSE base || '_' || left(id::text, 8) || '_ks' END,
+       CASE WHEN nth = 1 THEN 'READY' ELSE 'PENDING' END,
+       0,
+       CASE WHEN nth = 1 THEN NULL ELSE now() END,
+       now(),
+       0
+FROM (
+    SELECT t.id, k.base, row_number() OVER (PARTITION BY k.base ORDER BY t.created_at, t.id) AS nth
+    FROM tenants t
+    CROSS JOIN LATERAL (SELECT regexp_replace(lower(t.name), '[^a-z0-9]', '', 'g') AS base) k
+    WHERE t.tenant_type <> 'PLATFORM'
+      AND NOT EXISTS (SELECT 1 FROM tenant_provisioning p WHERE p.tenant_id = t.id)
+) existing
+ON CONFLICT DO NOTHING;
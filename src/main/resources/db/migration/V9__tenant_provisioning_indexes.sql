@@ -0,0 +1,10 @@
+-- The tenant_provisioning indexes, on a database V8 just created the
+-- table in: the worker's due-row scan, and the unique keyspace name
+-- TenantService relies on to detect a taken name. No-ops on top of V1.
+--
+-- Non-transactional, like V4: see there.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenant_provisioning_due
+    ON tenant_provisioning (status, next_attempt_at);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_tenant_provisioning_keyspace_name
+    ON tenant_provisioning (keyspace_name);
@@ -0,0 +1,29 @@
+package com.iotmining.services.tms;
+
+import com.iotmining.services.tms.support.IntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The scheduler Boot builds from application.yml: a thread for each
+ * @Scheduled job, so a relay blocked on Kafka acks can't hold up the
+ * provisioning poll or the index reload.
+ */
+@IntegrationTest
+@DisplayName("Scheduler pool")
+class SchedulingPoolTest {
+
+    @Autowired private ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    @DisplayName("has a thread for each scheduled job")
+    void threadPerJob() {
+        // TenantOutboxRelay, TenantProvisioningWorker, TenantHierarchyIndex
+        assertThat(taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize()).isGreaterThanOrEqualTo(3);
+        assertThat(taskScheduler.getThreadNamePrefix()).isEqualTo("tms-scheduling-");
+    }
+}
@@ -0,0 +1,141 @@
+package com.iotmining.services.tms;
+
+import com.iotmining.services.tms.support.IntegrationTestConfig;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * What the schema step costs at boot: Hibernate's {@code ddl-auto: update}
+ * (the old setup - introspect every table, diff, ALTER) versus Flyway
+ * finding nothing pending plus {@code ddl-auto: validate} (the current
+ * one).
+ *
+ * <p>Boots the whole application repeatedly against one already-migrated
+ * embedded Postgres, alternating the two modes, and reads the durations
+ * from a BufferingApplicationStartup: the {@code entityManagerFactory}
+ * bean (Hibernate's schema work, and Flyway's too - the factory waits for
+ * it) and the whole boot. The boot time includes starting
+ * IntegrationTestConfig's own, unused embedded Postgres, the same in both
+ * modes. Logs the median of each per mode; asserts nothing about the
+ * timings, which are too noisy on a shared box to gate on. Opt-in:</p>
+ *
+ * <pre>
+ * mvn test -Dtest=SchemaStartupBenchmarkTest -Dtms.benchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "tms.benchmark", matches = "true")
+@DisplayName("Boot time: ddl-auto update vs Flyway + validate")
+class SchemaStartupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaStartupBenchmarkTest.class);
+
+    private static final int ROUNDS = Integer.getInteger("tms.benchmark.rounds", 5);
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    @DisplayName("both modes boot against the migrated schema")
+    void compare() {
+        // Migrates the schema, and warms the JVM for both modes.
+        boot(Mode.FLYWAY);
+        boot(Mode.DDL_AUTO);
+
+        List<Result> ddlAuto = new ArrayList<>();
+        List<Result> flyway = new ArrayList<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            ddlAuto.add(boot(Mode.DDL_AUTO));
+            flyway.add(boot(Mode.FLYWAY));
+        }
+
+        log.info("{}", median(Mode.DDL_AUTO, ddlAuto));
+        log.info("{}", median(Mode.FLYWAY, flyway));
+        assertThat(flyway).hasSize(ROUNDS);
+    }
+
+    private static Result boot(Mode mode) {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(10_000);
+        long started = System.nanoTime();
+        // IntegrationTestConfig's pool, pointed at the shared database so
+        // every boot sees the same, already existing schema.
+        try (ConfigurableApplicationContext ignored = new SpringApplicationBuilder(
+                TenantManagementServiceApplication.class, IntegrationTestConfig.class)
+                .applicationStartup(startup)
+                .properties(
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "server.port=0",
+                        "logging.level.com.iotmining=WARN",
+                        "spring.datasource.hikari.jdbc-url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.flyway.enabled=" + (mode == Mode.FLYWAY),
+                        "spring.jpa.hibernate.ddl-auto=" + (mode == Mode.FLYWAY ? "validate" : "update"))
+                .run()) {
+            Duration total = Duration.ofNanos(System.nanoTime() - started);
+            return new Result(total, beanDuration(startup.getBufferedTimeline(), "entityManagerFactory"));
+        }
+    }
+
+    private static Duration beanDuration(StartupTimeline timeline, String beanName) {
+        return timeline.getEvents().stream()
+                .filter(event -> "spring.beans.instantiate".equals(event.getStartupStep().getName()))
+                .filter(event -> {
+                    for (var tag : event.getStartupStep().getTags()) {
+                        if ("beanName".equals(tag.getKey()) && beanName.equals(tag.getValue())) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .map(StartupTimeline.TimelineEvent::getDuration)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no startup step for bean " + beanName));
+    }
+
+    private static String median(Mode mode, List<Result> results) {
+        long[] totals = results.stream().mapToLong(r -> r.total.toMillis()).sorted().toArray();
+        long[] schema = results.stream().mapToLong(r -> r.schema.toMillis()).sorted().toArray();
+        return String.format("%-22s boot p50 %6d ms  schema step p50 %6d ms  (%d boots)", mode.label,
+                totals[totals.length / 2], schema[schema.length / 2], results.size());
+    }
+
+    private enum Mode {
+        DDL_AUTO("ddl-auto: update"),
+        FLYWAY("flyway + validate");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Result(Duration total, Duration schema) {
+    }
+}
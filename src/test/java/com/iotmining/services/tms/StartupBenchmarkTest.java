@@ -0,0 +1,182 @@
+package com.iotmining.services.tms;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.support.ServiceProcess;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup time of the built artifacts, side by side: the fat jar, the
+ * extracted jar, the extracted jar with the AppCDS archive
+ * ({@code mvn -Pcds}) and, if given, the native executable
+ * ({@code mvn -Pnative}).
+ *
+ * <p>Each configuration is started as its own process against one
+ * embedded Postgres, in turns, {@code tms.benchmark.rounds} times after
+ * one untimed round. Per configuration it logs the median time from
+ * process start until /actuator/health is UP, RSS at that point, and -
+ * from /actuator/startup - how long the {@code entityManagerFactory} (JPA
+ * bootstrap, Flyway included) and {@code eurekaClient} beans and the
+ * {@code tms.platform-tenant.seed} step took. Artifacts that don't exist are skipped.
+ * Asserts nothing about the timings. Build the artifacts for the profile
+ * the benchmark runs ({@code tms.benchmark.profile}, default dev):</p>
+ *
+ * <pre>
+ * mvn -Pcds -Dcds.profile=dev -DskipTests package
+ * mvn test -Dtest=StartupBenchmarkTest -Dtms.benchmark=true [-Dtms.native.binary=target/tenant-management-service]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "tms.benchmark", matches = "true")
+@DisplayName("Startup time: fat jar vs extracted vs AppCDS vs native")
+class StartupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmarkTest.class);
+
+    private static final int ROUNDS = Integer.getInteger("tms.benchmark.rounds", 5);
+    private static final String PROFILE = System.getProperty("tms.benchmark.profile", "dev");
+    private static final Path JAR = Path.of(System.getProperty("tms.benchmark.jar",
+            "target/tenant-management-service.jar"));
+    private static final Path CDS_DIRECTORY = Path.of(System.getProperty("tms.benchmark.cds-directory",
+            "target/cds"));
+    private static final String NATIVE_BINARY = System.getProperty("tms.native.binary", "");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path LOGS = Path.of("target/startup-benchmark");
+    private static final List<String> BEANS = List.of("entityManagerFactory", "eurekaClient");
+    private static final List<String> STEPS = List.of("tms.platform-tenant.seed");
+
+    private static EmbeddedPostgres postgres;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    @DisplayName("every available configuration starts and reports its timeline")
+    void compare() throws Exception {
+        Map<String, List<String>> configurations = configurations();
+        assertThat(configurations).as("no artifacts found - build with mvn -Pcds package first").isNotEmpty();
+
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        configurations.keySet().forEach(label -> results.put(label, new ArrayList<>()));
+        for (int round = 0; round <= ROUNDS; round++) {
+            for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+                Result result = boot(configuration.getKey(), configuration.getValue());
+                // Round 0 only warms the page cache and migrates the schema.
+                if (round > 0) {
+                    results.get(configuration.getKey()).add(result);
+                }
+            }
+        }
+
+        log.info("{} boots per configuration, profile {}, medians:", ROUNDS, PROFILE);
+        results.forEach((label, runs) -> log.info("{}", median(label, runs)));
+    }
+
+    private Map<String, List<String>> configurations() {
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        Path extracted = CDS_DIRECTORY.resolve(JAR.getFileName());
+        Path archive = CDS_DIRECTORY.resolve("application.jsa");
+        if (Files.exists(JAR)) {
+            configurations.put("fat jar", ServiceProcess.java(JAR));
+        }
+        if (Files.exists(extracted)) {
+            configurations.put("extracted", ServiceProcess.java(extracted));
+        }
+        if (Files.exists(extracted) && Files.exists(archive)) {
+            // An archive from another JDK build is ignored with a warning in the log.
+            configurations.put("extracted + AppCDS", ServiceProcess.java(extracted,
+                    "-XX:SharedArchiveFile=" + archive.toAbsolutePath()));
+        }
+        if (!NATIVE_BINARY.isBlank() && Files.exists(Path.of(NATIVE_BINARY))) {
+            configurations.put("native", List.of(Path.of(NATIVE_BINARY).toAbsolutePath().toString()));
+        }
+        configurations.keySet().forEach(label -> log.info("Benchmarking {}", label));
+        return configurations;
+    }
+
+    private Result boot(String label, List<String> command) throws Exception {
+        try (ServiceProcess service = ServiceProcess.start(label.replaceAll("\\W+", "-"), command,
+                postgres.getJdbcUrl("postgres", "postgres"), PROFILE, Map.of(), LOGS)) {
+            Duration startup = service.awaitHealthy(STARTUP_TIMEOUT);
+            long rss = service.rssKilobytes();
+            return new Result(startup, rss, stepDurations(service));
+        }
+    }
+
+    // Total time per bean (its dependencies included), from the first
+    // spring.beans.instantiate step tagged with its name, and per custom
+    // step by its name; -1 if absent.
+    private Map<String, Long> stepDurations(ServiceProcess service) throws Exception {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        BEANS.forEach(bean -> durations.put(bean, -1L));
+        STEPS.forEach(name -> durations.put(name, -1L));
+        HttpResponse<String> response = service.send("GET", "/actuator/startup", null, null, null);
+        if (response.statusCode() != 200) {
+            return durations;
+        }
+        for (JsonNode event : objectMapper.readTree(response.body()).path("timeline").path("events")) {
+            JsonNode step = event.path("startupStep");
+            String name = step.path("name").asText();
+            if (STEPS.contains(name) && durations.get(name) < 0) {
+                durations.put(name, Duration.parse(event.path("duration").asText()).toMillis());
+                continue;
+            }
+            if (!"spring.beans.instantiate".equals(name)) {
+                continue;
+            }
+            for (JsonNode tag : step.path("tags")) {
+                String bean = tag.path("value").asText();
+                if ("beanName".equals(tag.path("key").asText()) && durations.get(bean) != null
+                        && durations.get(bean) < 0) {
+                    durations.put(bean, Duration.parse(event.path("duration").asText()).toMillis());
+                }
+            }
+        }
+        return durations;
+    }
+
+    private static String median(String label, List<Result> results) {
+        StringBuilder line = new StringBuilder(String.format("%-20s boot %6d ms  RSS %5d MB", label,
+                median(results, r -> r.startup.toMillis()), median(results, r -> r.rssKilobytes) / 1024));
+        for (String name : results.get(0).steps.keySet()) {
+            line.append(String.format("  %s %5d ms", name, median(results, r -> r.steps.get(name))));
+        }
+        return line.toString();
+    }
+
+    private static long median(List<Result> results, ToLongFunction<Result> metric) {
+        long[] values = results.stream().mapToLong(metric).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private record Result(Duration startup, long rssKilobytes, Map<String, Long> steps) {
+    }
+}
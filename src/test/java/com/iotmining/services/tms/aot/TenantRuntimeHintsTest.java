@@ -0,0 +1,105 @@
+package com.iotmining.services.tms.aot;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.model.TenantClosure;
+import com.iotmining.services.tms.services.TenantInitializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.sql.Connection;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Native image hints")
+class TenantRuntimeHintsTest {
+
+    @Nested
+    @DisplayName("TenantRuntimeHints")
+    class Registrar {
+
+        private final RuntimeHints hints = new RuntimeHints();
+
+        Registrar() {
+            new TenantRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        }
+
+        @Test
+        @DisplayName("registers the entities and the @IdClass for Hibernate")
+        void entities() {
+            assertThat(RuntimeHintsPredicates.reflection().onType(Tenant.class)
+                    .withMemberCategories(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+            assertThat(RuntimeHintsPredicates.reflection().onType(TenantClosure.Key.class)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        }
+
+        @Test
+        @DisplayName("registers the JPQL constructor expression's target")
+        void constructorExpression() {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TenantSummaryResponse.class)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        }
+
+        @Test
+        @DisplayName("covers the cache keys' SpEL, the connection proxy and the migrations")
+        void spelProxyAndMigrations() throws NoSuchFieldException {
+            assertThat(RuntimeHintsPredicates.reflection()
+                    .onField(TenantInitializer.class.getField("SYSTEM_TENANT_ID"))).accepts(hints);
+            assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+            assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V1__baseline.sql"))
+                    .accepts(hints);
+        }
+    }
+
+    @Nested
+    @DisplayName("SecurityStarterBeanAotProcessor")
+    class StarterBeans {
+
+        private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        private final SecurityStarterBeanAotProcessor processor = new SecurityStarterBeanAotProcessor();
+
+        @Test
+        @DisplayName("registers the tenantSecurity bean's methods, whatever its package")
+        void tenantSecurity() {
+            beanFactory.registerBeanDefinition("tenantSecurity", new RootBeanDefinition(TenantSecurityStub.class));
+
+            BeanRegistrationAotContribution contribution =
+                    processor.processAheadOfTime(RegisteredBean.of(beanFactory, "tenantSecurity"));
+
+            RuntimeHints hints = new RuntimeHints();
+            GenerationContext generationContext = mock(GenerationContext.class);
+            when(generationContext.getRuntimeHints()).thenReturn(hints);
+            assertThat(contribution).isNotNull();
+            contribution.applyTo(generationContext, null);
+            assertThat(RuntimeHintsPredicates.reflection().onType(TenantSecurityStub.class)
+                    .withMemberCategories(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+        }
+
+        @Test
+        @DisplayName("leaves this service's own beans to Spring AOT")
+        void otherBeans() {
+            beanFactory.registerBeanDefinition("tenantInitializer",
+                    new RootBeanDefinition(TenantSecurityStub.class));
+
+            assertThat(processor.processAheadOfTime(RegisteredBean.of(beanFactory, "tenantInitializer"))).isNull();
+        }
+    }
+
+    static class TenantSecurityStub {
+        public boolean isTenantMember(String tenantId) {
+            return UUID.fromString(tenantId) != null;
+        }
+    }
+}
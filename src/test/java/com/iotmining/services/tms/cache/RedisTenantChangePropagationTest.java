@@ -0,0 +1,211 @@
+package com.iotmining.services.tms.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.configurations.CacheConfig;
+import com.iotmining.services.tms.configurations.RedisConfig;
+import com.iotmining.services.tms.datasource.ReadYourWrites;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.metrics.TenantMetrics;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import com.iotmining.services.tms.repository.TenantRepository;
+import com.iotmining.services.tms.services.TenantChangePublisher;
+import com.iotmining.services.tms.services.TenantEventOutbox;
+import com.iotmining.services.tms.services.TenantHierarchyIndex;
+import com.iotmining.services.tms.services.TenantService;
+import com.iotmining.services.tms.support.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two "replicas" - separate application contexts, each with its own L1
+ * caches, hierarchy index and mocked repository - sharing one real Redis.
+ * Skipped when Docker isn't available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Redis cache tier and change propagation")
+class RedisTenantChangePropagationTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private AnnotationConfigApplicationContext replicaA;
+    private AnnotationConfigApplicationContext replicaB;
+
+    @BeforeEach
+    void startReplicas() {
+        replicaA = replica();
+        replicaB = replica();
+        try (RedisConnection connection = replicaA.getBean(RedisConnectionFactory.class).getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+    }
+
+    @AfterEach
+    void stopReplicas() {
+        replicaA.close();
+        replicaB.close();
+    }
+
+    @Test
+    @DisplayName("a cold replica is served from the shared tier instead of the database")
+    void coldReplicaWarmsFromRedis() {
+        Tenant tenant = TestDataFactory.organization("Acme");
+        when(replicaA.getBean(TenantRepository.class).findSummaryById(tenant.getTenantId()))
+                .thenReturn(Optional.of(TestDataFactory.summary(tenant)));
+
+        replicaA.getBean(TenantService.class).getTenantSummary(tenant.getTenantId());
+
+        assertThat(replicaB.getBean(TenantService.class).getTenantSummary(tenant.getTenantId()).getTenantName())
+                .isEqualTo("Acme");
+        verifyNoInteractions(replicaB.getBean(TenantRepository.class));
+    }
+
+    @Test
+    @DisplayName("a create on one replica reaches the other replica's index and local cache")
+    void createPropagates() {
+        Tenant root = TestDataFactory.organization("Acme");
+        loadIndex(replicaA, root);
+        loadIndex(replicaB, root);
+        TenantService serviceB = replicaB.getBean(TenantService.class);
+        assertThat(serviceB.getSubTenants(root.getTenantId())).isEmpty();
+
+        TenantRepository repositoryA = replicaA.getBean(TenantRepository.class);
+        when(repositoryA.findById(root.getTenantId())).thenReturn(Optional.of(root));
+        when(repositoryA.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+        CreateTenantResponse created = replicaA.getBean(TenantService.class).createTenant(
+                new CreateTenantRequest("Site A", null, root.getTenantId(), List.of("ROLE_ADMIN")));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(serviceB.getSubTenants(root.getTenantId()))
+                        .extracting(TenantSummaryResponse::getTenantId)
+                        .containsExactly(created.getTenantId()));
+        verifyNoInteractions(replicaB.getBean(TenantRepository.class));
+    }
+
+    @Test
+    @DisplayName("a delete on one replica reaches the other replica's index and local cache")
+    void deletePropagates() {
+        Tenant tenant = TestDataFactory.organization("Acme");
+        loadIndex(replicaA, tenant);
+        loadIndex(replicaB, tenant);
+        TenantService serviceB = replicaB.getBean(TenantService.class);
+        assertThat(serviceB.getTenantSummary(tenant.getTenantId())).isNotNull();
+
+        when(replicaA.getBean(TenantRepository.class)
+                .deleteSubtreeBatch(tenant.getTenantId(), TenantService.DELETE_BATCH_SIZE))
+                .thenReturn(List.of(tenant.getTenantId()));
+        replicaA.getBean(TenantService.class).deleteTenant(tenant.getTenantId());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(serviceB.getTenantSummary(tenant.getTenantId())).isNull());
+    }
+
+    @Test
+    @DisplayName("a tree from the shared tier keeps its version, the same on every replica")
+    void sharedTreeKeepsVersion() {
+        Tenant root = TestDataFactory.organization("Acme");
+        loadIndex(replicaA, root);
+        String version = replicaA.getBean(TenantService.class).getCompaniesAndUsers(root.getTenantId()).get(0)
+                .getVersion();
+
+        assertThat(version).isNotNull();
+        assertThat(replicaB.getBean(TenantService.class).getCompaniesAndUsers(root.getTenantId()).get(0)
+                .getVersion()).isEqualTo(version);
+        verifyNoInteractions(replicaB.getBean(TenantRepository.class));
+    }
+
+    private static void loadIndex(AnnotationConfigApplicationContext replica, Tenant... tenants) {
+        TenantRepository repository = replica.getBean(TenantRepository.class);
+        when(repository.findSummariesOrderedById(any())).thenReturn(TestDataFactory.summaries(tenants));
+        replica.getBean(TenantHierarchyIndex.class).rebuild();
+        clearInvocations(repository);
+    }
+
+    private static AnnotationConfigApplicationContext replica() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "tms.cache.redis.enabled", "true",
+                "redis.host", REDIS.getHost(),
+                "redis.port", REDIS.getMappedPort(6379))));
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.register(CacheConfig.class, RedisConfig.class, ReplicaConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    @Configuration
+    static class ReplicaConfig {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory(Environment env) {
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                    env.getRequiredProperty("redis.host"), env.getRequiredProperty("redis.port", Integer.class)));
+        }
+
+        @Bean
+        StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+            return new StringRedisTemplate(connectionFactory);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build();
+        }
+
+        @Bean
+        TenantRepository tenantRepository() {
+            return mock(TenantRepository.class);
+        }
+
+        // Left unloaded unless a test calls loadIndex - an unloaded index
+        // falls through to the (mocked) repository, i.e. a cold replica.
+        @Bean
+        TenantHierarchyIndex tenantHierarchyIndex(TenantRepository tenantRepository) {
+            return new TenantHierarchyIndex(tenantRepository);
+        }
+
+        @Bean
+        TenantService tenantService(TenantRepository tenantRepository, TenantHierarchyIndex hierarchyIndex,
+                                    TenantChangePublisher changePublisher) {
+            return new TenantService(tenantRepository, mock(TenantClosureRepository.class),
+                    mock(TenantProvisioningRepository.class), hierarchyIndex,
+                    changePublisher, TenantEventOutbox.NONE, new TenantMetrics(new SimpleMeterRegistry()),
+                    new ReadYourWrites(Duration.ZERO));
+        }
+    }
+}
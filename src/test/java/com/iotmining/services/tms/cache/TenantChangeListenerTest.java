@@ -0,0 +1,127 @@
+package com.iotmining.services.tms.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.configurations.CacheConfig;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.services.TenantHierarchyIndex;
+import com.iotmining.services.tms.support.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantChangeListener")
+class TenantChangeListenerTest {
+
+    private static final String OWN_ORIGIN = "this-replica";
+
+    @Mock private TenantHierarchyIndex hierarchyIndex;
+    @Mock private TwoLevelCacheManager cacheManager;
+
+    // Same defaults as Boot's auto-configured ObjectMapper (ISO-8601 instants).
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private TenantChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new TenantChangeListener(objectMapper, OWN_ORIGIN, hierarchyIndex, cacheManager);
+    }
+
+    @Test
+    @DisplayName("applies another replica's create to the index")
+    void appliesRemoteSave() throws Exception {
+        Tenant parent = TestDataFactory.organization("Acme");
+        TenantSummaryResponse site = TestDataFactory.summary(TestDataFactory.subTenant("Site A", parent));
+
+        listener.onMessage(message(new TenantChangeMessage("other-replica",
+                TenantChangeMessage.Type.SAVED, site.getTenantId(), site)), null);
+
+        verify(hierarchyIndex).put(site);
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    @DisplayName("applies another replica's bulk create, sent as one message, to the index")
+    void appliesRemoteBulkSave() throws Exception {
+        Tenant parent = TestDataFactory.organization("Acme");
+        List<TenantSummaryResponse> created = TestDataFactory.summaries(parent,
+                TestDataFactory.subTenant("Site A", parent), TestDataFactory.subTenant("Site B", parent));
+
+        listener.onMessage(message(new TenantChangeMessage("other-replica",
+                TenantChangeMessage.Type.SAVED_BATCH, null, null, null, created)), null);
+
+        InOrder inOrder = inOrder(hierarchyIndex);
+        created.forEach(tenant -> inOrder.verify(hierarchyIndex).put(tenant));
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    @DisplayName("applies another replica's subtree delete to the index")
+    void appliesRemoteDelete() throws Exception {
+        Tenant tenant = TestDataFactory.organization("Acme");
+
+        listener.onMessage(message(new TenantChangeMessage("other-replica",
+                TenantChangeMessage.Type.DELETED, tenant.getTenantId(), null)), null);
+
+        verify(hierarchyIndex).remove(tenant.getTenantId());
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    @DisplayName("drops the local entries another replica evicted from the shared tier")
+    void appliesRemoteEvictions() throws Exception {
+        Tenant tenant = TestDataFactory.organization("Acme");
+
+        listener.onMessage(message(new TenantChangeMessage("other-replica",
+                TenantChangeMessage.Type.CACHE_EVICTED, tenant.getTenantId(), null,
+                CacheConfig.TENANT_CHILDREN)), null);
+        listener.onMessage(message(new TenantChangeMessage("other-replica",
+                TenantChangeMessage.Type.CACHE_CLEARED, null, null, CacheConfig.TENANT_SUBTREES)), null);
+
+        verify(cacheManager).evictLocal(CacheConfig.TENANT_CHILDREN, tenant.getTenantId());
+        verify(cacheManager).clearLocal(CacheConfig.TENANT_SUBTREES);
+        verifyNoInteractions(hierarchyIndex);
+    }
+
+    @Test
+    @DisplayName("ignores its own messages - the writer already updated itself")
+    void ignoresOwnMessages() throws Exception {
+        Tenant tenant = TestDataFactory.organization("Acme");
+
+        listener.onMessage(message(new TenantChangeMessage(OWN_ORIGIN,
+                TenantChangeMessage.Type.DELETED, tenant.getTenantId(), null)), null);
+
+        verifyNoInteractions(hierarchyIndex, cacheManager);
+    }
+
+    @Test
+    @DisplayName("ignores an unreadable message")
+    void ignoresMalformedMessages() {
+        listener.onMessage(new DefaultMessage("tms:tenant-changes".getBytes(StandardCharsets.UTF_8),
+                "not json".getBytes(StandardCharsets.UTF_8)), null);
+
+        verify(hierarchyIndex, never()).put(any());
+        verifyNoInteractions(cacheManager);
+    }
+
+    private DefaultMessage message(TenantChangeMessage change) throws Exception {
+        return new DefaultMessage("tms:tenant-changes".getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(change));
+    }
+}
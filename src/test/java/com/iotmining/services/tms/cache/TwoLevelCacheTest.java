@@ -0,0 +1,133 @@
+package com.iotmining.services.tms.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCache")
+class TwoLevelCacheTest {
+
+    @Mock private Cache remote;
+    @Mock private CacheInvalidationPublisher invalidations;
+
+    private CaffeineCache local;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        local = new CaffeineCache("tenantSummaries", Caffeine.newBuilder().build(), false);
+        cache = new TwoLevelCache(local, remote, invalidations);
+    }
+
+    @Test
+    @DisplayName("serves a local hit without asking the shared tier")
+    void localHit() {
+        local.put("k", "v");
+
+        assertThat(cache.get("k", String.class)).isEqualTo("v");
+        verify(remote, never()).get("k");
+    }
+
+    @Test
+    @DisplayName("back-fills the local tier from a shared hit")
+    void remoteHitBackFillsLocal() {
+        when(remote.get("k")).thenReturn(new SimpleValueWrapper("v"));
+
+        assertThat(cache.get("k", String.class)).isEqualTo("v");
+        assertThat(local.get("k", String.class)).isEqualTo("v");
+    }
+
+    @Test
+    @DisplayName("treats a failing shared tier as a miss and still caches locally")
+    void remoteFailureIsAMiss() {
+        when(remote.get("k")).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(remote).put("k", "loaded");
+
+        assertThat(cache.get("k", () -> "loaded")).isEqualTo("loaded");
+        assertThat(local.get("k", String.class)).isEqualTo("loaded");
+    }
+
+    @Test
+    @DisplayName("evicts from both tiers, or only locally on request")
+    void evictions() {
+        local.put("a", "1");
+        local.put("b", "2");
+
+        cache.evict("a");
+        cache.evictLocal("b");
+
+        assertThat(local.get("a")).isNull();
+        assertThat(local.get("b")).isNull();
+        verify(remote).evict("a");
+        verify(remote, never()).evict("b");
+        verify(invalidations).evicted("tenantSummaries", "a");
+        verify(invalidations, never()).evicted("tenantSummaries", "b");
+    }
+
+    @Test
+    @DisplayName("tells the other replicas only after the shared tier is evicted")
+    void invalidatesAfterRemoteEvict() {
+        cache.evict("a");
+        cache.clear();
+
+        InOrder inOrder = inOrder(remote, invalidations);
+        inOrder.verify(remote).evict("a");
+        inOrder.verify(invalidations).evicted("tenantSummaries", "a");
+        inOrder.verify(remote).clear();
+        inOrder.verify(invalidations).cleared("tenantSummaries");
+    }
+
+    @Test
+    @DisplayName("still tells the other replicas when the shared evict fails")
+    void invalidatesWhenRemoteFails() {
+        doThrow(new RedisConnectionFailureException("down")).when(remote).clear();
+
+        cache.clear();
+
+        verify(invalidations).cleared("tenantSummaries");
+    }
+
+    @Test
+    @DisplayName("evicts again after the delay, dropping a stale value a read in flight put back")
+    void reEvictsAfterDelay() {
+        ScheduledExecutorService reEvictions = Executors.newSingleThreadScheduledExecutor();
+        try {
+            cache = new TwoLevelCache(local, remote, invalidations, reEvictions, Duration.ofMillis(50));
+
+            cache.evict("a");
+            // A read that loaded the row before the write committed.
+            cache.put("a", "stale");
+
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                assertThat(local.get("a")).isNull();
+                verify(remote, times(2)).evict("a");
+                verify(invalidations, times(2)).evicted("tenantSummaries", "a");
+            });
+        } finally {
+            reEvictions.shutdownNow();
+        }
+    }
+}
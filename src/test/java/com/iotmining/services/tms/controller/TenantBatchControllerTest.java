@@ -0,0 +1,95 @@
+package com.iotmining.services.tms.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.common.data.tenant.TenantAccessLevel;
+import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.dto.TenantBatchGetRequest;
+import com.iotmining.services.tms.dto.TenantBatchGetResponse;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.exceptions.GlobalExceptionHandler;
+import com.iotmining.services.tms.services.TenantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web-layer tests for {@link TenantBatchController}, standalone MockMvc as
+ * in TenantControllerTest ({@code @PreAuthorize} out of scope).
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantBatchController")
+class TenantBatchControllerTest {
+
+    @Mock private TenantService tenantService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockMvc mockMvc;
+
+    private final UUID foundId = UUID.randomUUID();
+    private final UUID missingId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TenantBatchController(tenantService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private TenantBatchGetResponse response() {
+        TenantSummaryResponse found = new TenantSummaryResponse(foundId, "Acme", "PRO", null,
+                TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null);
+        return new TenantBatchGetResponse(List.of(found), List.of(missingId));
+    }
+
+    @Test
+    @DisplayName("GET /tenants:batchGet resolves a comma-separated id list")
+    void getWithIdList() throws Exception {
+        when(tenantService.getTenantSummaries(List.of(foundId, missingId))).thenReturn(response());
+
+        mockMvc.perform(get("/api/v1/tenants:batchGet").param("ids", foundId + "," + missingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenants[0].tenantName").value("Acme"))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
+    @Test
+    @DisplayName("POST /tenants:batchGet resolves the ids in the body")
+    void postWithBody() throws Exception {
+        when(tenantService.getTenantSummaries(List.of(foundId, missingId))).thenReturn(response());
+
+        mockMvc.perform(post("/api/v1/tenants:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TenantBatchGetRequest(List.of(foundId, missingId)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenants[0].tenantId").value(foundId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
+    @Test
+    @DisplayName("POST /tenants:batchGet returns 400 for an empty id list")
+    void rejectsEmptyBody() throws Exception {
+        mockMvc.perform(post("/api/v1/tenants:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tenantIds\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(tenantService);
+    }
+}
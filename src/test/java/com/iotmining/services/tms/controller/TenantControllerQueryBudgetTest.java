@@ -0,0 +1,105 @@
+package com.iotmining.services.tms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.support.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration counterpart of {@link TenantControllerTest}: each endpoint
+ * end to end against Postgres, failing on any {@code @QueryBudget}
+ * violation, and checking the whole request's statement count
+ * ({@code tms.http.server.sql.statements}) - which also catches queries
+ * issued outside the service, e.g. lazy loading during serialization.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "tms.query-budget.mode=FAIL",
+        "tms.hierarchy-index.enabled=false"})
+@DisplayName("TenantController query budgets")
+class TenantControllerQueryBudgetTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("every endpoint stays within its request's statement budget")
+    void endpoints() throws Exception {
+        UUID org = create(new CreateTenantRequest("Org " + UUID.randomUUID(), null, null, List.of()));
+        assertThat(maxStatements("POST", "/api/v1/tenants")).isLessThanOrEqualTo(5);
+        UUID site = null;
+        for (int i = 0; i < 5; i++) {
+            site = create(new CreateTenantRequest("Site " + i, null, org, List.of("ROLE_ADMIN")));
+        }
+
+        mockMvc.perform(get("/api/v1/tenants/{tenantId}", site)).andExpect(status().isOk());
+        assertThat(maxStatements("GET", "/api/v1/tenants/{tenantId}")).isLessThanOrEqualTo(1);
+
+        mockMvc.perform(get("/api/v1/tenants/children/{parentId}", org))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+        assertThat(maxStatements("GET", "/api/v1/tenants/children/{parentId}")).isLessThanOrEqualTo(1);
+
+        mockMvc.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", org))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].subCompanies.length()").value(5));
+        assertThat(maxStatements("GET", "/api/v1/tenants/{tenantId}/companies-with-users")).isLessThanOrEqualTo(1);
+
+        mockMvc.perform(get("/api/v1/tenants").param("size", "20")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tenants").param("cursor", "").param("includeTotal", "true"))
+                .andExpect(status().isOk());
+        assertThat(maxStatements("GET", "/api/v1/tenants")).isLessThanOrEqualTo(2);
+
+        mockMvc.perform(get("/api/v1/tenants/search").param("q", "site").param("within", org.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+        assertThat(maxStatements("GET", "/api/v1/tenants/search")).isLessThanOrEqualTo(2);
+
+        mockMvc.perform(get("/api/v1/tenants/{tenantId}/provisioning", site))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keyspaceName").value(startsWith("site4_")));
+        assertThat(maxStatements("GET", "/api/v1/tenants/{tenantId}/provisioning")).isLessThanOrEqualTo(1);
+
+        mockMvc.perform(delete("/api/v1/tenants/internal/{tenantId}", site)).andExpect(status().is2xxSuccessful());
+        assertThat(maxStatements("DELETE", "/api/v1/tenants/internal/{tenantId}")).isLessThanOrEqualTo(1);
+    }
+
+    private UUID create(CreateTenantRequest request) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/tenants")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(body);
+        return UUID.fromString(created.get("tenantId").asText());
+    }
+
+    private double maxStatements(String method, String uri) {
+        return meterRegistry.get("tms.http.server.sql.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .summary()
+                .max();
+    }
+}
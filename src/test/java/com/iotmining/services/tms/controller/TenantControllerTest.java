@@ -1,11 +1,20 @@
 package com.iotmining.services.tms.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.configurations.ContentNegotiationConfig;
+import com.iotmining.services.tms.dto.BulkCreateTenantRequest;
+import com.iotmining.services.tms.dto.BulkCreateTenantResponse;
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
 import com.iotmining.services.tms.dto.CreateTenantRequest;
 import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantAncestryRequest;
+import com.iotmining.services.tms.dto.TenantAncestryResponse;
+import com.iotmining.services.tms.dto.TenantCursor;
+import com.iotmining.services.tms.dto.TenantExportFilter;
 import com.iotmining.services.tms.dto.TenantSummaryResponse;
 import com.iotmining.services.tms.exceptions.GlobalExceptionHandler;
 import com.iotmining.services.tms.exceptions.TenantNotFoundException;
+import com.iotmining.services.tms.services.TenantExportService;
 import com.iotmining.services.tms.services.TenantService;
 import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
@@ -18,20 +27,40 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -48,13 +77,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class TenantControllerTest {
 
     @Mock private TenantService tenantService;
+    @Mock private TenantExportService tenantExportService;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
-        TenantController controller = new TenantController(tenantService);
+        TenantController controller = new TenantController(tenantService, tenantExportService);
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
@@ -120,6 +150,49 @@ class TenantControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/tenants/bulk")
+    class CreateTenants {
+
+        @Test
+        @DisplayName("returns 200 with per-item results")
+        void bulkCreate() throws Exception {
+            BulkCreateTenantRequest request = new BulkCreateTenantRequest(List.of(
+                    new CreateTenantRequest("Acme", null, null, null, "acme", null),
+                    new CreateTenantRequest("Acme Site", null, null, List.of("ROLE_ADMIN"), null, "acme")));
+            CreateTenantResponse acme = new CreateTenantResponse(
+                    UUID.randomUUID(), "Acme", "BASIC", "acme_ks", Instant.now(),
+                    TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN);
+            when(tenantService.createTenants(request.getTenants())).thenReturn(new BulkCreateTenantResponse(1, 1, List.of(
+                    BulkCreateTenantResponse.Result.created(0, "acme", acme),
+                    BulkCreateTenantResponse.Result.failed(1, null, "boom"))));
+
+            mockMvc.perform(post("/api/v1/tenants/bulk")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.results[0].tenant.tenantName").value("Acme"))
+                    .andExpect(jsonPath("$.results[1].error").value("boom"));
+        }
+
+        @Test
+        @DisplayName("returns 400 when an item is invalid or the list is empty")
+        void rejectsInvalidItems() throws Exception {
+            BulkCreateTenantRequest blankName = new BulkCreateTenantRequest(List.of(
+                    new CreateTenantRequest(" ", null, null, null)));
+
+            mockMvc.perform(post("/api/v1/tenants/bulk")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(blankName)))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/api/v1/tenants/bulk")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(new BulkCreateTenantRequest(List.of()))))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /api/v1/tenants/internal/{tenantId}")
     class RollbackTenantCreation {
@@ -134,6 +207,35 @@ class TenantControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/tenants/search")
+    class SearchTenants {
+
+        @Test
+        @DisplayName("passes the query, scope and limit through, fuzzy by default")
+        void searches() throws Exception {
+            UUID within = UUID.randomUUID();
+            TenantSummaryResponse site = new TenantSummaryResponse(UUID.randomUUID(), "Acme Site", "BASIC", within,
+                    TenantType.SUB_TENANT, TenantAccessLevel.TENANT_ADMIN, 0L, null);
+            when(tenantService.searchTenants("acme", true, within, 5)).thenReturn(List.of(site));
+
+            mockMvc.perform(get("/api/v1/tenants/search")
+                            .param("q", "acme").param("within", within.toString()).param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].tenantName").value("Acme Site"));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an invalid query")
+        void rejectsInvalidQuery() throws Exception {
+            when(tenantService.searchTenants(" ", false, null, 20))
+                    .thenThrow(new IllegalArgumentException("q must be 1 to 100 characters"));
+
+            mockMvc.perform(get("/api/v1/tenants/search").param("q", " ").param("fuzzy", "false"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/tenants/{tenantId}")
     class GetTenantDetails {
@@ -143,7 +245,7 @@ class TenantControllerTest {
         void returnsDetailsWhenFound() throws Exception {
             UUID tenantId = UUID.randomUUID();
             TenantSummaryResponse summary = new TenantSummaryResponse(
-                    tenantId, "Acme", "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN);
+                    tenantId, "Acme", "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null);
             when(tenantService.getTenantSummary(tenantId)).thenReturn(summary);
 
             mockMvc.perform(get("/api/v1/tenants/{tenantId}", tenantId))
@@ -151,6 +253,48 @@ class TenantControllerTest {
                     .andExpect(jsonPath("$.tenantName").value("Acme"));
         }
 
+        @Test
+        @DisplayName("tags the response with the row version and updated_at")
+        void tagsWithVersion() throws Exception {
+            UUID tenantId = UUID.randomUUID();
+            Instant updatedAt = Instant.parse("2026-01-02T03:04:05.000006Z");
+            when(tenantService.getTenantSummary(tenantId)).thenReturn(new TenantSummaryResponse(tenantId, "Acme",
+                    "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 3L, updatedAt));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}", tenantId))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3-1767323045000006\""))
+                    .andExpect(header().dateValue("Last-Modified", updatedAt.toEpochMilli()));
+        }
+
+        @Test
+        @DisplayName("returns 304 when If-None-Match carries the current tag")
+        void notModified() throws Exception {
+            UUID tenantId = UUID.randomUUID();
+            Instant updatedAt = Instant.parse("2026-01-02T03:04:05Z");
+            when(tenantService.getTenantSummary(tenantId)).thenReturn(new TenantSummaryResponse(tenantId, "Acme",
+                    "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 3L, updatedAt));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}", tenantId)
+                            .header("If-None-Match", "\"3-1767323045000000\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("doesn't match the tag of a deleted tenant re-created under the same id")
+        void recreatedTenant() throws Exception {
+            UUID tenantId = UUID.randomUUID();
+            when(tenantService.getTenantSummary(tenantId)).thenReturn(new TenantSummaryResponse(tenantId, "Acme",
+                    "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L,
+                    Instant.parse("2026-01-02T03:04:06Z")));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}", tenantId)
+                            .header("If-None-Match", "\"0-1767323045000000\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"0-1767323046000000\""));
+        }
+
         @Test
         @DisplayName("returns 404 when not found")
         void returnsNotFoundWhenMissing() throws Exception {
@@ -170,7 +314,7 @@ class TenantControllerTest {
         @DisplayName("returns a paginated listing")
         void returnsPagedListing() throws Exception {
             TenantSummaryResponse summary = new TenantSummaryResponse(
-                    UUID.randomUUID(), "Acme", "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN);
+                    UUID.randomUUID(), "Acme", "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null);
             when(tenantService.getAllTenants(any()))
                     .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 20), 1));
 
@@ -178,6 +322,68 @@ class TenantControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.content[0].tenantName").value("Acme"));
         }
+
+        @Test
+        @DisplayName("switches to keyset mode with a cursor and returns the next cursor")
+        void returnsCursorPage() throws Exception {
+            TenantSummaryResponse first = new TenantSummaryResponse(
+                    UUID.randomUUID(), "Acme", "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null);
+            TenantSummaryResponse second = new TenantSummaryResponse(
+                    UUID.randomUUID(), "Beta | Co", "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null);
+            when(tenantService.getTenantsAfter(null, 1))
+                    .thenReturn(new SliceImpl<>(List.of(first), PageRequest.ofSize(1), true));
+            TenantCursor afterFirst = new TenantCursor("Acme", first.getTenantId());
+            when(tenantService.getTenantsAfter(afterFirst, 1))
+                    .thenReturn(new SliceImpl<>(List.of(second), PageRequest.ofSize(1), false));
+            when(tenantService.estimateTenantCount()).thenReturn(2L);
+
+            mockMvc.perform(get("/api/v1/tenants").param("cursor", "").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].tenantName").value("Acme"))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextCursor").value(afterFirst.encode()))
+                    .andExpect(jsonPath("$.approximateTotal").doesNotExist());
+            mockMvc.perform(get("/api/v1/tenants").param("cursor", afterFirst.encode()).param("size", "1")
+                            .param("includeTotal", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].tenantName").value("Beta | Co"))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andExpect(jsonPath("$.approximateTotal").value(2));
+        }
+
+        @Test
+        @DisplayName("returns 400 for a malformed cursor")
+        void rejectsMalformedCursor() throws Exception {
+            mockMvc.perform(get("/api/v1/tenants").param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/tenants/export")
+    class ExportTenants {
+
+        @Test
+        @DisplayName("streams NDJSON with the filters passed through")
+        void streamsExport() throws Exception {
+            Instant from = Instant.parse("2024-01-01T00:00:00Z");
+            TenantExportFilter filter = new TenantExportFilter(TenantType.SUB_TENANT, from, null);
+            when(tenantExportService.export(eq(filter), any())).thenAnswer(inv -> {
+                inv.getArgument(1, OutputStream.class).write("{\"tenantName\":\"Acme\"}\n".getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+
+            MvcResult started = mockMvc.perform(get("/api/v1/tenants/export")
+                            .param("tenantType", "SUB_TENANT")
+                            .param("createdFrom", from.toString()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("{\"tenantName\":\"Acme\"}\n"));
+        }
     }
 
     @Nested
@@ -189,7 +395,7 @@ class TenantControllerTest {
         void returnsChildren() throws Exception {
             UUID parentId = UUID.randomUUID();
             TenantSummaryResponse child = new TenantSummaryResponse(
-                    UUID.randomUUID(), "Site 1", "PRO", parentId, TenantType.SUB_TENANT, TenantAccessLevel.OPERATIONAL);
+                    UUID.randomUUID(), "Site 1", "PRO", parentId, TenantType.SUB_TENANT, TenantAccessLevel.OPERATIONAL, 0L, null);
             when(tenantService.getSubTenants(parentId)).thenReturn(List.of(child));
 
             mockMvc.perform(get("/api/v1/tenants/children/{parentId}", parentId))
@@ -198,6 +404,73 @@ class TenantControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/tenants/ancestry")
+    class ResolveAncestry {
+
+        private final UUID rootId = UUID.randomUUID();
+        private final UUID siteId = UUID.randomUUID();
+        private final TenantAncestryRequest request = new TenantAncestryRequest(List.of(siteId),
+                List.of(new TenantAncestryRequest.MembershipCheck(rootId, siteId)));
+
+        private TenantAncestryResponse response(String version) {
+            return new TenantAncestryResponse(version, Map.of(siteId, List.of(rootId)),
+                    List.of(new TenantAncestryResponse.Membership(rootId, siteId, true)), List.of());
+        }
+
+        @Test
+        @DisplayName("returns chains and memberships with their version as ETag")
+        void returnsWithEtag() throws Exception {
+            when(tenantService.resolveAncestry(request)).thenReturn(response("abc-7"));
+
+            mockMvc.perform(post("/api/v1/tenants/ancestry")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"abc-7\""))
+                    .andExpect(jsonPath("$.ancestors['" + siteId + "'][0]").value(rootId.toString()))
+                    .andExpect(jsonPath("$.memberships[0].member").value(true));
+        }
+
+        @Test
+        @DisplayName("returns 304 without a body when If-None-Match is current")
+        void notModified() throws Exception {
+            when(tenantService.resolveAncestry(request)).thenReturn(response("abc-7"));
+
+            mockMvc.perform(post("/api/v1/tenants/ancestry")
+                            .header("If-None-Match", "\"abc-6\", \"abc-7\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("sends no ETag when answered from the database")
+        void noEtagFromDatabase() throws Exception {
+            when(tenantService.resolveAncestry(request)).thenReturn(response(null));
+
+            mockMvc.perform(post("/api/v1/tenants/ancestry")
+                            .header("If-None-Match", "\"abc-7\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"));
+        }
+
+        @Test
+        @DisplayName("returns 400 for more than MAX_ITEMS tenant ids")
+        void rejectsOversizedRequest() throws Exception {
+            TenantAncestryRequest tooMany = new TenantAncestryRequest(
+                    Collections.nCopies(TenantAncestryRequest.MAX_ITEMS + 1, siteId), null);
+
+            mockMvc.perform(post("/api/v1/tenants/ancestry")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(tooMany)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/tenants/{tenantId}/companies-with-users")
     class GetCompaniesWithUsers {
@@ -211,5 +484,85 @@ class TenantControllerTest {
             mockMvc.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", tenantId))
                     .andExpect(status().isNotFound());
         }
+
+        @Test
+        @DisplayName("tags the tree with the version it was built at, not the current one")
+        void tagsWithTreeVersion() throws Exception {
+            UUID tenantId = UUID.randomUUID();
+            CompanyWithUsersResponse tree = new CompanyWithUsersResponse(new TenantSummaryResponse(tenantId, "Acme",
+                    "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null),
+                    List.of(), List.of(), "abc-4");
+            when(tenantService.getSubtreeVersion(tenantId)).thenReturn("abc-5");
+            when(tenantService.getCompaniesAndUsers(tenantId)).thenReturn(List.of(tree));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", tenantId)
+                            .header("If-None-Match", "\"abc-3\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"abc-4\""))
+                    .andExpect(jsonPath("$[0].company.tenantName").value("Acme"));
+        }
+
+        @Test
+        @DisplayName("encodes the tree as Smile or CBOR when the client asks for it")
+        void negotiatesBinaryEncodings() throws Exception {
+            ContentNegotiationConfig config = new ContentNegotiationConfig();
+            MappingJackson2SmileHttpMessageConverter smile =
+                    config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+            MappingJackson2CborHttpMessageConverter cbor =
+                    config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+            MockMvc negotiating = MockMvcBuilders
+                    .standaloneSetup(new TenantController(tenantService, tenantExportService))
+                    .setMessageConverters(new MappingJackson2HttpMessageConverter(), smile, cbor)
+                    .build();
+            UUID tenantId = UUID.randomUUID();
+            Instant updatedAt = Instant.parse("2026-01-01T00:00:00Z");
+            CompanyWithUsersResponse tree = new CompanyWithUsersResponse(new TenantSummaryResponse(tenantId, "Acme",
+                    "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, updatedAt),
+                    List.of(), List.of(), null);
+            when(tenantService.getCompaniesAndUsers(tenantId)).thenReturn(List.of(tree));
+
+            for (AbstractJackson2HttpMessageConverter converter : List.of(smile, cbor)) {
+                MediaType mediaType = converter.getSupportedMediaTypes().get(0);
+                byte[] body = negotiating.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", tenantId)
+                                .accept(mediaType))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(mediaType))
+                        .andReturn().getResponse().getContentAsByteArray();
+
+                assertThat(converter.getObjectMapper().readValue(body, CompanyWithUsersResponse[].class))
+                        .containsExactly(tree);
+            }
+            negotiating.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", tenantId))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        }
+
+        @Test
+        @DisplayName("returns 304 without building the tree when If-None-Match is current")
+        void notModifiedSkipsTree() throws Exception {
+            UUID tenantId = UUID.randomUUID();
+            when(tenantService.getSubtreeVersion(tenantId)).thenReturn("abc-5");
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", tenantId)
+                            .header("If-None-Match", "\"abc-5\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"abc-5\""));
+
+            verify(tenantService, never()).getCompaniesAndUsers(tenantId);
+        }
+
+        @Test
+        @DisplayName("returns 304 against the tree's own version while the index loads")
+        void notModifiedWithoutIndex() throws Exception {
+            UUID tenantId = UUID.randomUUID();
+            CompanyWithUsersResponse tree = new CompanyWithUsersResponse(new TenantSummaryResponse(tenantId, "Acme",
+                    "PRO", null, TenantType.ORGANIZATION, TenantAccessLevel.TENANT_ADMIN, 0L, null),
+                    List.of(), List.of(), "abc-4");
+            when(tenantService.getCompaniesAndUsers(tenantId)).thenReturn(List.of(tree));
+
+            mockMvc.perform(get("/api/v1/tenants/{tenantId}/companies-with-users", tenantId)
+                            .header("If-None-Match", "\"abc-4\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"abc-4\""));
+        }
     }
 }
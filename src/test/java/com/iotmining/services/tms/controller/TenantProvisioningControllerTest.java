@@ -0,0 +1,93 @@
+package com.iotmining.services.tms.controller;
+
+import com.iotmining.services.tms.dto.TenantProvisioningResponse;
+import com.iotmining.services.tms.exceptions.GlobalExceptionHandler;
+import com.iotmining.services.tms.exceptions.TenantNotFoundException;
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.services.TenantProvisioningService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web-layer tests for {@link TenantProvisioningController}, standalone
+ * MockMvc as in TenantControllerTest ({@code @PreAuthorize} out of scope).
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantProvisioningController")
+class TenantProvisioningControllerTest {
+
+    @Mock private TenantProvisioningService provisioningService;
+
+    private MockMvc mockMvc;
+
+    private final UUID tenantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TenantProvisioningController(provisioningService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private TenantProvisioningResponse response(TenantProvisioning.Status status, int attempts) {
+        return new TenantProvisioningResponse(tenantId, "acme_ks", status, attempts, null, null, Instant.now());
+    }
+
+    @Test
+    @DisplayName("GET returns the provisioning status, never cacheable")
+    void getStatus() throws Exception {
+        when(provisioningService.getProvisioning(tenantId)).thenReturn(response(TenantProvisioning.Status.READY, 1));
+
+        mockMvc.perform(get("/api/v1/tenants/{id}/provisioning", tenantId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.keyspaceName").value("acme_ks"))
+                .andExpect(jsonPath("$.status").value("READY"));
+    }
+
+    @Test
+    @DisplayName("GET returns 404 for a tenant without provisioning")
+    void getUnknown() throws Exception {
+        when(provisioningService.getProvisioning(tenantId)).thenThrow(new TenantNotFoundException(tenantId));
+
+        mockMvc.perform(get("/api/v1/tenants/{id}/provisioning", tenantId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /retry requeues FAILED provisioning with 202")
+    void retry() throws Exception {
+        when(provisioningService.retry(tenantId)).thenReturn(response(TenantProvisioning.Status.PENDING, 0));
+
+        mockMvc.perform(post("/api/v1/tenants/{id}/provisioning/retry", tenantId))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.attempts").value(0));
+    }
+
+    @Test
+    @DisplayName("POST /retry returns 409 unless the provisioning had FAILED")
+    void retryNotFailed() throws Exception {
+        when(provisioningService.retry(tenantId))
+                .thenThrow(new IllegalStateException("only FAILED provisioning can be retried"));
+
+        mockMvc.perform(post("/api/v1/tenants/{id}/provisioning/retry", tenantId))
+                .andExpect(status().isConflict());
+    }
+}
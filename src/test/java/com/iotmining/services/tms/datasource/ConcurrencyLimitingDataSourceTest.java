@@ -0,0 +1,123 @@
+package com.iotmining.services.tms.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConcurrencyLimitingDataSource")
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock private DataSource target;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("times out once every permit is held, and a close frees one")
+    void boundsConcurrentConnections() throws SQLException {
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThat(dataSource.getActive()).isEqualTo(2);
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("2 database permits");
+
+        first.close();
+
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("closes the pooled connection, and releases only once on a repeated close")
+    void releasesOncePerConnection() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(target.getConnection()).thenReturn(pooled);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        verify(pooled, times(2)).close();
+        assertThat(dataSource.getActive()).isZero();
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThat(dataSource.getActive()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("gives the permit back when the pool fails to hand out a connection")
+    void releasesOnPoolFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        }
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    @DisplayName("queues a waiting thread until a connection is closed")
+    void waiterProceedsOnClose() throws Exception {
+        dataSource = new ConcurrencyLimitingDataSource(target, 1, Duration.ofSeconds(5));
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        Connection held = dataSource.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }, executor);
+            await().atMost(Duration.ofSeconds(5)).until(() -> dataSource.getWaiting() == 1);
+            assertThat(waiter).isNotDone();
+
+            held.close();
+
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("unwraps to itself as a Connection, and to anything else via the pooled connection")
+    void delegatesUnwrap() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(target.getConnection()).thenReturn(pooled);
+
+        Connection connection = dataSource.getConnection();
+
+        assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+        assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+        assertThat(connection.isWrapperFor(String.class)).isFalse();
+    }
+}
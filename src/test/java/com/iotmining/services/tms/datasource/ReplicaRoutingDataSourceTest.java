@@ -0,0 +1,206 @@
+package com.iotmining.services.tms.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Plain (lenient) mocks: every pooled connection answers the lag query,
+// whether a test reads through it or not.
+@DisplayName("ReplicaRoutingDataSource")
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replicaA = mock(DataSource.class);
+    private final DataSource replicaB = mock(DataSource.class);
+    private final AtomicReference<Double> lagB = new AtomicReference<>(0.0);
+    private final AtomicBoolean pinned = new AtomicBoolean();
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenAnswer(inv -> connection(0.0));
+        when(replicaA.getConnection()).thenAnswer(inv -> connection(0.0));
+        when(replicaB.getConnection()).thenAnswer(inv -> connection(lagB.get()));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("a", replicaA);
+        replicas.put("b", replicaB);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas, pinned::get, Duration.ofSeconds(5));
+        // Known up front, so the proxy doesn't borrow a connection to find out.
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        clearInvocations(primary);
+    }
+
+    @Test
+    @DisplayName("reads from the primary until the first health check passes")
+    void startsOnPrimary() throws SQLException {
+        read();
+
+        verify(primary).getConnection();
+        verify(replicaA, never()).getConnection();
+        verify(replicaB, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("sends read-only connections round-robin across healthy replicas")
+    void roundRobinsReads() throws SQLException {
+        healthChecked();
+
+        read();
+        read();
+
+        verify(replicaA).getConnection();
+        verify(replicaB).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("keeps read-write connections on the primary")
+    void writesGoToPrimary() throws SQLException {
+        healthChecked();
+
+        dataSource.getConnection().createStatement();
+
+        verify(primary).getConnection();
+        verify(replicaA, never()).getConnection();
+        verify(replicaB, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("skips a replica that falls behind until it catches up")
+    void skipsLaggingReplica() throws SQLException {
+        lagB.set(30.0);
+        healthChecked();
+
+        assertThat(dataSource.isHealthy("a")).isTrue();
+        assertThat(dataSource.isHealthy("b")).isFalse();
+        read();
+        read();
+        verify(replicaA, times(2)).getConnection();
+        verify(replicaB, never()).getConnection();
+
+        lagB.set(1.0);
+        healthChecked();
+
+        assertThat(dataSource.isHealthy("b")).isTrue();
+    }
+
+    @Test
+    @DisplayName("fails over to the next replica, then to the primary, when replicas refuse connections")
+    void failsOver() throws SQLException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+        healthChecked();
+        when(replicaA.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        read();
+
+        verify(replicaB).getConnection();
+        assertThat(dataSource.isHealthy("a")).isFalse();
+
+        when(replicaB.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        read();
+
+        verify(primary).getConnection();
+        assertThat(dataSource.isHealthy("b")).isFalse();
+        assertThat(registry.get("tms.db.reads").tag("reason", "no-healthy-replica").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("tms.db.replica.healthy").tag("replica", "a").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("pins reads to the primary while the read-your-writes window is open")
+    void pinsReadsAfterWrite() throws SQLException {
+        healthChecked();
+        pinned.set(true);
+
+        read();
+
+        verify(primary).getConnection();
+        verify(replicaA, never()).getConnection();
+        verify(replicaB, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("behind a limit per target, holds the primary and every replica at once")
+    void limitsEachTarget() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("a", limited(replicaA));
+        replicas.put("b", limited(replicaB));
+        dataSource = new ReplicaRoutingDataSource(limited(primary), replicas, pinned::get, Duration.ofSeconds(5));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        healthChecked();
+
+        // One permit each: with a single limit in front of the routing the
+        // second of these would time out.
+        Connection readA = openRead();
+        Connection readB = openRead();
+        Connection write = dataSource.getConnection();
+        write.createStatement();
+
+        verify(replicaA).getConnection();
+        verify(replicaB).getConnection();
+        verify(primary).getConnection();
+        readA.close();
+        readB.close();
+        write.close();
+    }
+
+    // What a read-only transaction does: mark the connection read-only,
+    // then run the first statement.
+    private void read() throws SQLException {
+        openRead().close();
+    }
+
+    private Connection openRead() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setReadOnly(true);
+        connection.createStatement();
+        return connection;
+    }
+
+    private static DataSource limited(DataSource target) {
+        return new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    private void healthChecked() {
+        dataSource.checkHealth();
+        clearInvocations(primary, replicaA, replicaB);
+    }
+
+    private static Connection connection(double lagSeconds) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        return connection;
+    }
+}
@@ -0,0 +1,103 @@
+package com.iotmining.services.tms.datasource;
+
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.repository.TenantRepository;
+import com.iotmining.services.tms.services.TenantService;
+import com.iotmining.services.tms.support.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Replicas on, with the replica a second embedded Postgres that has the
+ * schema but none of the primary's rows - so where a read went shows in
+ * what it returns as well as in tms.db.reads. The hierarchy index is off,
+ * so reads take the database fallback, and read-your-writes is off, so the
+ * seed's writes don't pin them to the primary.
+ */
+@IntegrationTest
+@TestPropertySource(properties = {
+        "tms.db.replicas.enabled=true",
+        "tms.db.replicas.read-your-writes=PT0S",
+        "tms.db.replicas.health-check-interval=PT0.2S",
+        "tms.hierarchy-index.enabled=false"})
+@DirtiesContext // its replica pools point at this class's replica
+@DisplayName("Read replica routing")
+class ReplicaRoutingIntegrationTest {
+
+    private static EmbeddedPostgres replica;
+
+    @Autowired private DataSource dataSource;
+    @Autowired private TenantService tenantService;
+    @Autowired private TenantRepository tenantRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private CreateTenantResponse organization;
+
+    @DynamicPropertySource
+    static void replicaUrl(DynamicPropertyRegistry registry) throws IOException {
+        replica = EmbeddedPostgres.start();
+        Flyway.configure().dataSource(replica.getPostgresDatabase()).load().migrate();
+        registry.add("tms.db.replicas.urls", () -> replica.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    static void stopReplica() throws IOException {
+        replica.close();
+    }
+
+    @BeforeEach
+    void seed() throws SQLException {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        await().atMost(Duration.ofSeconds(10)).until(() -> routing.isHealthy("replica-1"));
+        organization = tenantService.createTenant(
+                new CreateTenantRequest("Org " + UUID.randomUUID(), null, null, List.of()));
+    }
+
+    @Test
+    @DisplayName("a service read outside a transaction goes to the replica through the repository's transaction")
+    void fallbackReadsFromReplica() {
+        double before = replicaReads();
+
+        assertThat(tenantService.getTenantSummary(organization.getTenantId())).isNull();
+
+        assertThat(replicaReads()).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("reads inside a read-write transaction stay on the primary")
+    void readWriteTransactionUsesPrimary() {
+        double before = replicaReads();
+
+        assertThat(transactionTemplate.execute(status -> tenantRepository.findSummaryById(organization.getTenantId())))
+                .hasValueSatisfying(summary -> assertThat(summary.getTenantName()).startsWith("Org "));
+
+        assertThat(replicaReads()).isEqualTo(before);
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("tms.db.reads").tag("target", "replica").functionCounter().count();
+    }
+}
@@ -0,0 +1,175 @@
+package com.iotmining.services.tms.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Platform vs virtual threads for the workload that motivated virtual-thread
+ * mode: 1000 concurrent clients, each doing a short database-bound request,
+ * against the prod pool shape (20 connections, 2s connection-timeout).
+ *
+ * <ul>
+ *   <li>platform - a 200-thread pool, Tomcat's default max-threads; the
+ *       other 800 clients wait in its queue, as in Tomcat's accept queue</li>
+ *   <li>virtual, unbounded - one virtual thread per client straight onto
+ *       Hikari, i.e. virtual threads without ConcurrencyLimitingDataSource</li>
+ *   <li>virtual, bounded - the same behind ConcurrencyLimitingDataSource at
+ *       the pool size, as VirtualThreadConfig wires it</li>
+ * </ul>
+ *
+ * <p>Latency is measured from the moment the client issues the request, so
+ * queueing counts. Logs throughput, p50/p99 and errors per mode; asserts
+ * only that the bounded mode completes without errors, since timings on a
+ * shared box are too noisy to gate on. Opt-in ({@code -Dtms.benchmark=true})
+ * and skipped without Docker.</p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "tms.benchmark", matches = "true")
+@DisplayName("Virtual vs platform threads under 1000 concurrent clients")
+class VirtualThreadThroughputBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadThroughputBenchmarkTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("tms.benchmark.clients", 1000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("tms.benchmark.requests-per-client", 20);
+    private static final int POOL_SIZE = 20;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int TENANTS = 10_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static HikariDataSource pool;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(POSTGRES.getJdbcUrl());
+        config.setUsername(POSTGRES.getUsername());
+        config.setPassword(POSTGRES.getPassword());
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(2000);
+        pool = new HikariDataSource(config);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE tenants (id uuid PRIMARY KEY, name varchar(255) NOT NULL, "
+                    + "parent_id uuid)");
+            statement.execute("INSERT INTO tenants SELECT gen_random_uuid(), 'Site ' || i, NULL "
+                    + "FROM generate_series(1, " + TENANTS + ") i");
+        }
+    }
+
+    @AfterAll
+    static void close() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("bounded virtual threads serve the burst without errors")
+    void compare() throws InterruptedException {
+        run("warm-up", Executors.newVirtualThreadPerTaskExecutor(), bounded());
+
+        Result platform = run("platform (200 threads)", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), pool);
+        Result unbounded = run("virtual, unbounded", Executors.newVirtualThreadPerTaskExecutor(), pool);
+        Result limited = run("virtual, bounded", Executors.newVirtualThreadPerTaskExecutor(), bounded());
+
+        for (Result result : new Result[]{platform, unbounded, limited}) {
+            log.info("{}", result);
+        }
+        assertThat(limited.errors).isZero();
+    }
+
+    private static DataSource bounded() {
+        return new ConcurrencyLimitingDataSource(pool, POOL_SIZE, Duration.ofSeconds(30));
+    }
+
+    private static Result run(String mode, ExecutorService executor, DataSource dataSource)
+            throws InterruptedException {
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        long[] latencies = new long[total];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(total);
+        long started = System.nanoTime();
+        try (executor) {
+            // Each client issues its next request when the previous one
+            // returns; all CLIENTS are in flight at once.
+            for (int c = 0; c < CLIENTS; c++) {
+                executor.execute(new Runnable() {
+                    private int remaining = REQUESTS_PER_CLIENT;
+                    private long issued = System.nanoTime();
+
+                    @Override
+                    public void run() {
+                        try {
+                            request(dataSource);
+                        } catch (SQLException ex) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - issued;
+                        done.countDown();
+                        if (--remaining > 0) {
+                            issued = System.nanoTime();
+                            executor.execute(this);
+                        }
+                    }
+                });
+            }
+            done.await();
+        }
+        return new Result(mode, total, errors.get(), System.nanoTime() - started, latencies);
+    }
+
+    // A typical read: one indexed lookup plus a little server-side work,
+    // holding the connection for a few milliseconds.
+    private static void request(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*), pg_sleep(0.002) FROM tenants WHERE name > ?")) {
+            statement.setString(1, "Site 9");
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private record Result(String mode, int requests, int errors, long wallNanos, long[] latencies) {
+
+        long percentileMillis(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %8.0f req/s  p50 %5d ms  p99 %6d ms  errors %d/%d", mode,
+                    requests / (wallNanos / 1e9), percentileMillis(0.50), percentileMillis(0.99), errors, requests);
+        }
+    }
+}
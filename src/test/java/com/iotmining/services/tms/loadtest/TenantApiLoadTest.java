@@ -0,0 +1,317 @@
+package com.iotmining.services.tms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.dto.BulkCreateTenantRequest;
+import com.iotmining.services.tms.dto.BulkCreateTenantResponse;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.dto.TenantCursor;
+import com.iotmining.services.tms.support.IntegrationTest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: the whole application on a random port, against
+ * embedded Postgres binaries (see IntegrationTestConfig), driven over real HTTP.
+ *
+ * <p>Seeds a skewed hierarchy through the bulk endpoint - organization n
+ * has {@code largest-organization / n} sub-tenants, so a few large
+ * customers and a long tail of small ones - then drives a fixed mix of
+ * TenantController endpoints at a target rate. The load is open-model:
+ * each request is issued on schedule whether or not earlier ones have
+ * returned, and its latency is measured from when it was due, so a
+ * stalled server shows up as latency rather than as a lower request rate.</p>
+ *
+ * <p>Writes per-endpoint throughput, error rate and HdrHistogram latency
+ * percentiles (plus the encoded histogram) to {@code tms.loadtest.output}
+ * as JSON, for diffing between builds. Fails only if an endpoint's error
+ * rate exceeds {@code tms.loadtest.max-error-rate}. Opt-in:</p>
+ *
+ * <pre>
+ * mvn test -Dtest=TenantApiLoadTest -Dtms.loadtest=true -Dtms.loadtest.rps=500
+ * </pre>
+ */
+@IntegrationTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "logging.level.com.iotmining=WARN")
+@EnabledIfSystemProperty(named = "tms.loadtest", matches = "true")
+@DisplayName("Tenant API under load")
+class TenantApiLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantApiLoadTest.class);
+
+    private static final int RPS = Integer.getInteger("tms.loadtest.rps", 200);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("tms.loadtest.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("tms.loadtest.duration", "PT30S"));
+    private static final int ORGANIZATIONS = Integer.getInteger("tms.loadtest.organizations", 200);
+    private static final int LARGEST_ORGANIZATION = Integer.getInteger("tms.loadtest.largest-organization", 2000);
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("tms.loadtest.max-error-rate", "0.01"));
+    private static final Path OUTPUT = Path.of(System.getProperty("tms.loadtest.output",
+            "target/load-test/tenant-api.json"));
+
+    // Latencies are recorded in microseconds; anything slower is clamped.
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1_000;
+
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper objectMapper;
+    @Value("${spring.threads.virtual.enabled:false}") private boolean virtualThreads;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    private final List<UUID> organizations = new ArrayList<>();
+    private final List<TenantCursor> tenants = new ArrayList<>();
+
+    @Test
+    @DisplayName("serves the endpoint mix at the target rate within the error budget")
+    void load() throws Exception {
+        seed();
+        log.info("Seeded {} organizations, {} tenants; warming up for {}", organizations.size(), tenants.size(),
+                WARMUP);
+
+        drive(endpoints(), WARMUP);
+        List<Endpoint> endpoints = endpoints();
+        drive(endpoints, DURATION);
+
+        Files.createDirectories(OUTPUT.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(OUTPUT.toFile(), report(endpoints));
+        endpoints.forEach(endpoint -> log.info("{}", endpoint));
+        log.info("Results written to {}", OUTPUT.toAbsolutePath());
+
+        for (Endpoint endpoint : endpoints) {
+            assertThat(endpoint.errorRate()).as(endpoint.name + " error rate").isLessThanOrEqualTo(MAX_ERROR_RATE);
+        }
+    }
+
+    private List<Endpoint> endpoints() {
+        return List.of(
+                new Endpoint("GET /tenants/{id}", 0.40,
+                        () -> get("/api/v1/tenants/" + randomTenant().getTenantId())),
+                new Endpoint("GET /tenants/children/{parentId}", 0.20,
+                        () -> get("/api/v1/tenants/children/" + randomOrganization())),
+                new Endpoint("GET /tenants/{id}/companies-with-users", 0.15,
+                        () -> get("/api/v1/tenants/" + randomOrganization() + "/companies-with-users")),
+                new Endpoint("GET /tenants?page", 0.10,
+                        () -> get("/api/v1/tenants?size=20&page=" + ThreadLocalRandom.current().nextInt(50))),
+                new Endpoint("GET /tenants?cursor", 0.10,
+                        () -> get("/api/v1/tenants?size=100&cursor=" + randomTenant().encode())),
+                new Endpoint("POST /tenants", 0.05,
+                        () -> post("/api/v1/tenants", new CreateTenantRequest("Load Site " + created.incrementAndGet(),
+                                null, randomOrganization(), List.of("ROLE_ADMIN")))));
+    }
+
+    private void drive(List<Endpoint> endpoints, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService pacers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Endpoint endpoint : endpoints) {
+                long interval = (long) (1e9 / (RPS * endpoint.share));
+                pacers.execute(() -> {
+                    for (long due = start; due < end; due += interval) {
+                        long wait = due - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        send(endpoint, due);
+                    }
+                });
+            }
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void send(Endpoint endpoint, long due) {
+        inFlight.incrementAndGet();
+        client.sendAsync(endpoint.request.get(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    endpoint.record(System.nanoTime() - due, error != null || response.statusCode() >= 400);
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    // Organization n gets LARGEST_ORGANIZATION / n sub-tenants, one bulk
+    // request per organization.
+    private void seed() throws IOException, InterruptedException {
+        for (int n = 1; n <= ORGANIZATIONS; n++) {
+            List<CreateTenantRequest> items = new ArrayList<>();
+            CreateTenantRequest organization = new CreateTenantRequest("Org " + n, "ENTERPRISE", null, List.of());
+            organization.setRef("org");
+            items.add(organization);
+            for (int s = 1; s <= Math.max(1, LARGEST_ORGANIZATION / n); s++) {
+                CreateTenantRequest site = new CreateTenantRequest("Org " + n + " Site " + s, null, null,
+                        List.of("ROLE_ADMIN"));
+                site.setParentRef("org");
+                items.add(site);
+            }
+
+            HttpResponse<byte[]> response = client.send(post("/api/v1/tenants/bulk",
+                    new BulkCreateTenantRequest(items)), HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(200);
+            BulkCreateTenantResponse result = objectMapper.readValue(response.body(), BulkCreateTenantResponse.class);
+            assertThat(result.getFailed()).isZero();
+
+            organizations.add(result.getResults().get(0).getTenant().getTenantId());
+            for (BulkCreateTenantResponse.Result item : result.getResults()) {
+                tenants.add(new TenantCursor(item.getTenant().getTenantName(), item.getTenant().getTenantId()));
+            }
+        }
+    }
+
+    private UUID randomOrganization() {
+        return organizations.get(ThreadLocalRandom.current().nextInt(organizations.size()));
+    }
+
+    private TenantCursor randomTenant() {
+        return tenants.get(ThreadLocalRandom.current().nextInt(tenants.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private Map<String, Object> report(List<Endpoint> endpoints) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rps", RPS);
+        config.put("warmup", WARMUP.toString());
+        config.put("duration", DURATION.toString());
+        config.put("organizations", organizations.size());
+        config.put("tenants", tenants.size());
+        config.put("virtualThreads", virtualThreads);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            results.put(endpoint.name, endpoint.toReport(DURATION));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("label", System.getProperty("tms.loadtest.label", "local"));
+        report.put("config", config);
+        report.put("endpoints", results);
+        return report;
+    }
+
+    private static final class Endpoint {
+
+        private final String name;
+        private final double share;
+        private final Supplier<HttpRequest> request;
+        private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private Endpoint(String name, double share, Supplier<HttpRequest> request) {
+            this.name = name;
+            this.share = share;
+            this.request = request;
+        }
+
+        void record(long latencyNanos, boolean error) {
+            latencyMicros.recordValue(Math.min(latencyNanos / 1_000, HIGHEST_TRACKABLE_MICROS));
+            requests.increment();
+            if (error) {
+                errors.increment();
+            }
+        }
+
+        double errorRate() {
+            long total = requests.sum();
+            return total == 0 ? 0 : (double) errors.sum() / total;
+        }
+
+        Map<String, Object> toReport(Duration duration) {
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("min", latencyMicros.getMinValue());
+            latency.put("mean", Math.round(latencyMicros.getMean()));
+            latency.put("p50", latencyMicros.getValueAtPercentile(50));
+            latency.put("p90", latencyMicros.getValueAtPercentile(90));
+            latency.put("p99", latencyMicros.getValueAtPercentile(99));
+            latency.put("p999", latencyMicros.getValueAtPercentile(99.9));
+            latency.put("max", latencyMicros.getMaxValue());
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", requests.sum());
+            result.put("errors", errors.sum());
+            result.put("errorRate", errorRate());
+            result.put("throughput", (requests.sum() - errors.sum()) / (duration.toNanos() / 1e9));
+            result.put("latencyMicros", latency);
+            // Compressed HdrHistogram, so runs can be merged or re-plotted
+            // with the HdrHistogram tools rather than just the percentiles above.
+            result.put("histogram", encode(latencyMicros));
+            return result;
+        }
+
+        private static String encode(Histogram histogram) {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %7d req  %6.2f%% err  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms", name,
+                    requests.sum(), errorRate() * 100, latencyMicros.getValueAtPercentile(50) / 1e3,
+                    latencyMicros.getValueAtPercentile(99) / 1e3, latencyMicros.getMaxValue() / 1e3);
+        }
+    }
+}
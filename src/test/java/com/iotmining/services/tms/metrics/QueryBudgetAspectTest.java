@@ -0,0 +1,89 @@
+package com.iotmining.services.tms.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("QueryBudgetAspect")
+class QueryBudgetAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatementCounter counter = new SqlStatementCounter(registry);
+
+    @Test
+    @DisplayName("lets a call within its budget through")
+    void withinBudget() {
+        Repository repository = proxy(QueryBudgetAspect.Mode.FAIL);
+
+        assertThatCode(() -> repository.load(2)).doesNotThrowAnyException();
+        assertThat(registry.find("tms.query.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("in FAIL mode, fails the call and names the statements that ran")
+    void failMode() {
+        Repository repository = proxy(QueryBudgetAspect.Mode.FAIL);
+
+        assertThatThrownBy(() -> repository.load(3))
+                .isInstanceOf(QueryBudgetExceededError.class)
+                .hasMessageContaining("Repository.load issued 3 SQL statements, budget is 2")
+                .hasMessageContaining("select 3");
+    }
+
+    @Test
+    @DisplayName("in RECORD mode, counts the violation without failing")
+    void recordMode() {
+        Repository repository = proxy(QueryBudgetAspect.Mode.RECORD);
+
+        repository.load(3);
+        repository.load(5);
+
+        assertThat(registry.get("tms.query.budget.exceeded").tag("method", "Repository.load").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("never masks the exception of a failing call")
+    void keepsOriginalException() {
+        Repository repository = proxy(QueryBudgetAspect.Mode.FAIL);
+
+        assertThatThrownBy(() -> repository.loadThenFail(3)).isInstanceOf(IllegalStateException.class);
+        assertThat(registry.get("tms.query.budget.exceeded").counter().count()).isEqualTo(1);
+    }
+
+    private Repository proxy(QueryBudgetAspect.Mode mode) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Repository(counter));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new QueryBudgetAspect(counter, registry, mode, Duration.ofMinutes(1)));
+        return factory.getProxy();
+    }
+
+    static class Repository {
+
+        private final SqlStatementCounter counter;
+
+        Repository(SqlStatementCounter counter) {
+            this.counter = counter;
+        }
+
+        @QueryBudget(2)
+        public void load(int statements) {
+            for (int i = 1; i <= statements; i++) {
+                counter.inspect("select " + i);
+            }
+        }
+
+        @QueryBudget(2)
+        public void loadThenFail(int statements) {
+            load(statements);
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.iotmining.services.tms.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SqlStatementCounter and SqlStatementMetricsInterceptor")
+class SqlStatementMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private SqlStatementCounter counter;
+    private SqlStatementMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(registry);
+        interceptor = new SqlStatementMetricsInterceptor(counter, registry);
+    }
+
+    @Test
+    @DisplayName("records the statements of one request under its URI template")
+    void recordsPerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tenants/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/tenants/{tenantId}");
+
+        counter.inspect("select 1");
+        interceptor.preHandle(request, response, new Object());
+        counter.inspect("select 2");
+        counter.inspect("select 3");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(registry.get("tms.http.server.sql.statements")
+                .tag("method", "GET").tag("uri", "/api/v1/tenants/{tenantId}").summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(registry.get("tms.sql.statements").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("stops counting when a request goes async, and doesn't record it twice")
+    void asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tenants/export");
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(registry.find("tms.http.server.sql.statements").summary()).isNull();
+    }
+
+    @Test
+    @DisplayName("nested scopes each see the statements issued while they were open")
+    void nestedScopes() {
+        try (SqlStatementCounter.Scope outer = counter.open()) {
+            counter.inspect("select 1");
+            try (SqlStatementCounter.Scope inner = counter.open()) {
+                counter.inspect("select 2");
+                assertThat(inner.statements()).containsExactly("select 2");
+                inner.close();
+                assertThat(inner.count()).isEqualTo(1);
+            }
+            counter.inspect("select 3");
+            assertThat(outer.count()).isEqualTo(3);
+            assertThat(outer.statements()).containsExactly("select 1", "select 2", "select 3");
+        }
+    }
+}
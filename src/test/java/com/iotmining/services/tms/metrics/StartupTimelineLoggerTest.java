@@ -0,0 +1,56 @@
+package com.iotmining.services.tms.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StartupTimelineLogger")
+class StartupTimelineLoggerTest {
+
+    @Test
+    @DisplayName("ranks steps by self time, not counting the steps nested in them")
+    void ranksBySelfTime() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        // A cheap bean whose dependency is the slow one.
+        StartupStep service = startup.start("spring.beans.instantiate").tag("beanName", "tenantService");
+        StartupStep factory = startup.start("spring.beans.instantiate").tag("beanName", "entityManagerFactory");
+        Thread.sleep(60);
+        factory.end();
+        service.end();
+
+        List<StartupTimelineLogger.StepTime> slowest =
+                StartupTimelineLogger.slowestSteps(startup.getBufferedTimeline(), 1);
+
+        assertThat(slowest).singleElement().satisfies(step -> {
+            assertThat(step.description()).isEqualTo("spring.beans.instantiate beanName=entityManagerFactory");
+            assertThat(step.self()).isGreaterThanOrEqualTo(Duration.ofMillis(60));
+        });
+        assertThat(StartupTimelineLogger.slowestSteps(startup.getBufferedTimeline(), 5))
+                .extracting(StartupTimelineLogger.StepTime::description)
+                .containsExactly("spring.beans.instantiate beanName=entityManagerFactory",
+                        "spring.beans.instantiate beanName=tenantService");
+    }
+
+    @Test
+    @DisplayName("reports a parent's own time once its children are subtracted")
+    void parentSelfTime() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep parent = startup.start("spring.context.refresh");
+        StartupStep child = startup.start("spring.beans.instantiate").tag("beanName", "tenantInitializer");
+        Thread.sleep(20);
+        child.end();
+        parent.end();
+
+        StartupTimelineLogger.StepTime refresh = StartupTimelineLogger.slowestSteps(startup.getBufferedTimeline(), 5)
+                .stream().filter(step -> step.description().equals("spring.context.refresh")).findFirst().orElseThrow();
+
+        assertThat(refresh.total()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+        assertThat(refresh.self()).isLessThan(refresh.total());
+    }
+}
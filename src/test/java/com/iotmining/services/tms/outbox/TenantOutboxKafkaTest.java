@@ -0,0 +1,108 @@
+package com.iotmining.services.tms.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantLifecycleEvent;
+import com.iotmining.services.tms.repository.TenantOutboxRepository;
+import com.iotmining.services.tms.services.TenantService;
+import com.iotmining.services.tms.support.IntegrationTest;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * The outbox end to end: TenantService writes events in its transactions,
+ * the relay publishes them to an embedded Kafka broker. Query budgets are
+ * enforced, so they're checked with the outbox insert included.
+ */
+@IntegrationTest
+@EmbeddedKafka(partitions = 3, topics = TenantOutboxKafkaTest.TOPIC)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "tms.outbox.enabled=true",
+        "tms.outbox.topic=" + TenantOutboxKafkaTest.TOPIC,
+        "tms.outbox.batch-size=2",
+        "tms.outbox.linger=PT0.05S",
+        "tms.query-budget.mode=FAIL",
+        "tms.hierarchy-index.enabled=false"})
+@DisplayName("Tenant lifecycle outbox to Kafka")
+class TenantOutboxKafkaTest {
+
+    static final String TOPIC = "tms.tenant-lifecycle.test";
+
+    @Autowired private TenantService tenantService;
+    @Autowired private TenantOutboxRepository outboxRepository;
+    @Autowired private EmbeddedKafkaBroker broker;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Consumer<String, String> consumer;
+    private final List<ConsumerRecord<String, String>> received = new ArrayList<>();
+
+    @BeforeEach
+    void subscribe() {
+        consumer = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("outbox-test-" + UUID.randomUUID(), "false", broker),
+                new StringDeserializer(), new StringDeserializer()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void close() {
+        consumer.close();
+    }
+
+    @Test
+    @DisplayName("publishes each tenant's create and delete in order, then empties the outbox")
+    void publishesLifecycle() {
+        CreateTenantResponse org = tenantService.createTenant(
+                new CreateTenantRequest("Outbox Org " + UUID.randomUUID(), null, null, List.of()));
+        List<CreateTenantResponse> sites = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sites.add(tenantService.createTenant(
+                    new CreateTenantRequest("Site " + i, null, org.getTenantId(), List.of("ROLE_ADMIN"))));
+        }
+        tenantService.deleteTenant(sites.get(1).getTenantId());
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            KafkaTestUtils.getRecords(consumer, Duration.ofMillis(200)).forEach(received::add);
+            assertThat(received).hasSize(5);
+        });
+
+        List<TenantLifecycleEvent> siteEvents = received.stream()
+                .filter(record -> record.key().equals(sites.get(1).getTenantId().toString()))
+                .map(record -> read(record.value()))
+                .toList();
+        assertThat(siteEvents).extracting(TenantLifecycleEvent::getType)
+                .containsExactly(TenantLifecycleEvent.Type.CREATED, TenantLifecycleEvent.Type.DELETED);
+        assertThat(siteEvents.get(0).getTenant().getParentId()).isEqualTo(org.getTenantId());
+        assertThat(received).extracting(record -> read(record.value()).getEventId()).doesNotHaveDuplicates();
+        await().atMost(Duration.ofSeconds(5)).until(() -> outboxRepository.count() == 0);
+    }
+
+    private TenantLifecycleEvent read(String payload) {
+        try {
+            return objectMapper.readValue(payload, TenantLifecycleEvent.class);
+        } catch (Exception ex) {
+            throw new AssertionError(ex);
+        }
+    }
+}
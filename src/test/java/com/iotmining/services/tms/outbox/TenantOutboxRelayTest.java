@@ -0,0 +1,108 @@
+package com.iotmining.services.tms.outbox;
+
+import com.iotmining.services.tms.model.TenantOutboxEvent;
+import com.iotmining.services.tms.repository.TenantOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantOutboxRelay")
+class TenantOutboxRelayTest {
+
+    private static final String TOPIC = "tms.tenant-lifecycle";
+
+    @Mock private TenantOutboxRepository repository;
+    @Mock private KafkaTemplate<String, String> kafkaTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TenantOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new TenantOutboxRelay(repository, kafkaTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, TOPIC, 2,
+                Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("publishes oldest first, keyed by tenant, and deletes each batch once acknowledged")
+    @SuppressWarnings("unchecked")
+    void publishesInBatches() {
+        TenantOutboxEvent first = event(1);
+        TenantOutboxEvent second = event(2);
+        TenantOutboxEvent third = event(3);
+        when(repository.tryAdvisoryLock(anyLong())).thenReturn(true);
+        when(repository.findOldest(any())).thenReturn(List.of(first, second), List.of(third));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.drain();
+
+        ArgumentCaptor<ProducerRecord<String, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(3)).send(sent.capture());
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::key)
+                .containsExactly(first.getTenantId().toString(), second.getTenantId().toString(),
+                        third.getTenantId().toString());
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::value).containsExactly("e1", "e2", "e3");
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::topic).containsOnly(TOPIC);
+        verify(repository).deleteByIds(List.of(1L, 2L));
+        verify(repository).deleteByIds(List.of(3L));
+        verify(kafkaTemplate, times(2)).flush();
+        assertThat(meterRegistry.get("tms.outbox.published").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("keeps the batch for the next run when Kafka doesn't acknowledge it")
+    @SuppressWarnings("unchecked")
+    void keepsRowsOnFailure() {
+        when(repository.tryAdvisoryLock(anyLong())).thenReturn(true);
+        when(repository.findOldest(any())).thenReturn(List.of(event(1)));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.drain();
+
+        verify(repository, never()).deleteByIds(any());
+        assertThat(meterRegistry.get("tms.outbox.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("leaves the outbox to the replica holding the lock")
+    void skipsWithoutLock() {
+        when(repository.tryAdvisoryLock(anyLong())).thenReturn(false);
+
+        relay.drain();
+
+        verify(repository, never()).findOldest(any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static TenantOutboxEvent event(long id) {
+        return new TenantOutboxEvent(id, UUID.randomUUID(), "CREATED", "e" + id, Instant.now());
+    }
+}
@@ -0,0 +1,168 @@
+package com.iotmining.services.tms.provisioning;
+
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantProvisioningWorker")
+class TenantProvisioningWorkerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock private TenantProvisioningRepository repository;
+
+    private final FakeKeyspaceProvisioner provisioner = new FakeKeyspaceProvisioner(Duration.ZERO);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TenantProvisioningWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new TenantProvisioningWorker(repository, provisioner,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 2, MAX_ATTEMPTS,
+                Duration.ofSeconds(2), Duration.ofSeconds(60), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.destroy();
+    }
+
+    @Test
+    @DisplayName("claims no more rows than it has workers, and marks them in progress under a lease")
+    void claimsUpToIdleWorkers() {
+        TenantProvisioning first = pending("acme_ks");
+        TenantProvisioning second = pending("globex_ks");
+        when(repository.findDueForUpdate(any(), any(), any())).thenReturn(List.of(first, second));
+        when(repository.findById(any())).thenAnswer(inv -> Optional.of(
+                inv.getArgument(0).equals(first.getTenantId()) ? first : second));
+
+        worker.poll();
+
+        verify(repository).findDueForUpdate(any(), any(), argThat((Pageable page) -> page.getPageSize() == 2));
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(first.getStatus()).isEqualTo(TenantProvisioning.Status.READY);
+            assertThat(second.getStatus()).isEqualTo(TenantProvisioning.Status.READY);
+        });
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(provisioner.getProvisioned()).containsValues("acme_ks", "globex_ks");
+    }
+
+    @Test
+    @DisplayName("schedules a failed attempt for a retry after a backoff")
+    void retriesWithBackoff() {
+        TenantProvisioning row = inProgress(1);
+        when(repository.findById(row.getTenantId())).thenReturn(Optional.of(row));
+        provisioner.failNext(1);
+        Instant before = Instant.now();
+
+        worker.attempt(claim(row));
+
+        assertThat(row.getStatus()).isEqualTo(TenantProvisioning.Status.PENDING);
+        assertThat(row.getLastError()).contains("Simulated failure");
+        assertThat(row.getNextAttemptAt()).isAfter(before.plusMillis(999));
+        assertThat(meterRegistry.get("tms.provisioning.attempts").tag("outcome", "retry").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("gives up after max-attempts")
+    void failsAfterMaxAttempts() {
+        TenantProvisioning row = inProgress(MAX_ATTEMPTS);
+        when(repository.findById(row.getTenantId())).thenReturn(Optional.of(row));
+        provisioner.failNext(1);
+
+        worker.attempt(claim(row));
+
+        assertThat(row.getStatus()).isEqualTo(TenantProvisioning.Status.FAILED);
+        assertThat(row.getNextAttemptAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("fails a row whose last allowed attempt lost its lease instead of claiming it again")
+    void failsExpiredLeaseAtMaxAttempts() {
+        TenantProvisioning lost = inProgress(MAX_ATTEMPTS);
+        TenantProvisioning retried = inProgress(1);
+        when(repository.findDueForUpdate(any(), any(), any())).thenReturn(List.of(lost, retried));
+        when(repository.findById(retried.getTenantId())).thenReturn(Optional.of(retried));
+
+        worker.poll();
+
+        assertThat(lost.getStatus()).isEqualTo(TenantProvisioning.Status.FAILED);
+        assertThat(lost.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(lost.getNextAttemptAt()).isNull();
+        assertThat(lost.getLastError()).contains("Lease expired");
+        assertThat(meterRegistry.get("tms.provisioning.attempts").tag("outcome", "failed").counter().count())
+                .isEqualTo(1);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(retried.getStatus()).isEqualTo(TenantProvisioning.Status.READY));
+        assertThat(retried.getAttempts()).isEqualTo(2);
+        assertThat(provisioner.getProvisioned()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("leaves a row alone whose lease another attempt has taken over")
+    void supersededAttempt() {
+        TenantProvisioning row = inProgress(1);
+        TenantProvisioningWorker.Claim stale = claim(row);
+        row.setVersion(row.getVersion() + 1);
+        when(repository.findById(row.getTenantId())).thenReturn(Optional.of(row));
+
+        worker.attempt(stale);
+
+        assertThat(row.getStatus()).isEqualTo(TenantProvisioning.Status.IN_PROGRESS);
+        assertThat(meterRegistry.get("tms.provisioning.attempts").tag("outcome", "superseded").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("backs off exponentially with jitter, capped at max-backoff")
+    void backoff() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(worker.backoff(1)).isBetween(Duration.ofSeconds(1), Duration.ofSeconds(2));
+            assertThat(worker.backoff(3)).isBetween(Duration.ofSeconds(4), Duration.ofSeconds(8));
+            assertThat(worker.backoff(40)).isBetween(Duration.ofSeconds(30), Duration.ofSeconds(60));
+        }
+    }
+
+    private static TenantProvisioning pending(String keyspaceName) {
+        return TenantProvisioning.pending(UUID.randomUUID(), keyspaceName, Instant.now());
+    }
+
+    private static TenantProvisioning inProgress(int attempts) {
+        TenantProvisioning row = pending("acme_ks");
+        row.setStatus(TenantProvisioning.Status.IN_PROGRESS);
+        row.setAttempts(attempts);
+        row.setVersion(attempts);
+        return row;
+    }
+
+    private static TenantProvisioningWorker.Claim claim(TenantProvisioning row) {
+        return new TenantProvisioningWorker.Claim(row.getTenantId(), row.getKeyspaceName(), row.getAttempts(),
+                row.getVersion());
+    }
+}
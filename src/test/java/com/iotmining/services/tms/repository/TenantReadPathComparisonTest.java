@@ -0,0 +1,123 @@
+package com.iotmining.services.tms.repository;
+
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.support.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Before/after comparison for the projection read path: the same page of
+ * tenants loaded as managed entities and mapped (the old getAllTenants),
+ * versus selected straight into TenantSummaryResponse. Logs the median
+ * allocation and latency of each; asserts only the allocation ordering,
+ * since latency on a shared CI box is too noisy to gate on. Skipped when
+ * Docker isn't available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.cloud.config.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Tenant read path: entity hydration vs projection")
+class TenantReadPathComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantReadPathComparisonTest.class);
+
+    private static final int TENANTS = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 15;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired private TenantRepository tenantRepository;
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        Tenant org = TestDataFactory.organization("Acme");
+        List<Object[]> rows = new ArrayList<>(TENANTS);
+        rows.add(row(org.getTenantId(), "Acme", null, "ORGANIZATION", "TENANT_ADMIN"));
+        for (int i = 1; i < TENANTS; i++) {
+            rows.add(row(UUID.randomUUID(), "Site " + i, org.getTenantId(), "SUB_TENANT", "OPERATIONAL"));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tenants (id, name, subscription_plan, created_at, updated_at, "
+                + "version, parent_id, tenant_type, access_level) VALUES (?, ?, 'BASIC', ?, ?, 0, ?, ?, ?)", rows);
+    }
+
+    @Test
+    @DisplayName("the projection allocates less than loading and mapping entities")
+    void projectionAllocatesLess() {
+        Pageable page = PageRequest.of(0, TENANTS);
+
+        Measurement entities = measure(() -> tenantRepository.findAll(page).map(TestDataFactory::summary).getContent());
+        Measurement projection = measure(() -> tenantRepository.findAllSummaries(page).getContent());
+
+        log.info("{} tenants - entities: {} KB, {} ms; projection: {} KB, {} ms",
+                TENANTS, entities.allocatedBytes / 1024, entities.nanos / 1_000_000,
+                projection.allocatedBytes / 1024, projection.nanos / 1_000_000);
+        assertThat(projection.allocatedBytes).isLessThan(entities.allocatedBytes);
+    }
+
+    // Median of MEASURED_ROUNDS runs, each against an empty persistence
+    // context - as in a real request.
+    private Measurement measure(Supplier<List<TenantSummaryResponse>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            entityManager.clear();
+            assertThat(read.get()).hasSize(TENANTS);
+        }
+        long[] bytes = new long[MEASURED_ROUNDS];
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            entityManager.clear();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long started = System.nanoTime();
+            read.get();
+            nanos[i] = System.nanoTime() - started;
+            bytes[i] = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+        return new Measurement(median(bytes), median(nanos));
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private static Object[] row(UUID id, String name, UUID parentId, String type, String accessLevel) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return new Object[]{id, name, now, now, parentId, type, accessLevel};
+    }
+
+    private record Measurement(long allocatedBytes, long nanos) {
+    }
+}
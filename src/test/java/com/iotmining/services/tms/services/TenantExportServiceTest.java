@@ -0,0 +1,78 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.common.data.tenant.TenantAccessLevel;
+import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.dto.TenantExportFilter;
+import com.iotmining.services.tms.dto.TenantExportRow;
+import com.iotmining.services.tms.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantExportService")
+class TenantExportServiceTest {
+
+    @Mock private TenantRepository tenantRepository;
+
+    private TenantExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        // Same defaults as Boot's auto-configured ObjectMapper (ISO-8601 instants).
+        exportService = new TenantExportService(tenantRepository, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Test
+    @DisplayName("writes one JSON object per line and closes the cursor")
+    void writesNdjson() throws Exception {
+        TenantExportFilter filter = new TenantExportFilter(TenantType.ORGANIZATION, null, null);
+        UUID orgId = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30Z");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(tenantRepository.streamForExport(filter)).thenReturn(Stream.of(
+                new TenantExportRow(orgId, "Acme", "PRO", null, TenantType.ORGANIZATION,
+                        TenantAccessLevel.TENANT_ADMIN, createdAt),
+                new TenantExportRow(UUID.randomUUID(), "Beta", "BASIC", null, TenantType.ORGANIZATION,
+                        TenantAccessLevel.TENANT_ADMIN, createdAt))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(filter, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"tenantId\":\"" + orgId + "\"")
+                .contains("\"createdAt\":\"2024-05-01T10:15:30Z\"")
+                .startsWith("{");
+        assertThat(lines[1]).contains("\"tenantName\":\"Beta\"");
+        assertThat(lines[2]).isEmpty();
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("writes nothing for an empty result")
+    void emptyExport() throws Exception {
+        TenantExportFilter filter = new TenantExportFilter();
+        when(tenantRepository.streamForExport(filter)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exportService.export(filter, out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
@@ -0,0 +1,299 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.repository.TenantRepository;
+import com.iotmining.services.tms.support.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TenantHierarchyIndex")
+class TenantHierarchyIndexTest {
+
+    @Mock private TenantRepository tenantRepository;
+
+    private TenantHierarchyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TenantHierarchyIndex(tenantRepository);
+    }
+
+    @Test
+    @DisplayName("is not ready until the first load completes")
+    void notReadyBeforeLoad() {
+        assertThat(index.isReady()).isFalse();
+
+        index.replaceAll(List.of());
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("links children that are loaded before their parent")
+    void linksOutOfOrderRows() {
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant child = TestDataFactory.subTenant("Site A", root);
+
+        index.replaceAll(TestDataFactory.summaries(child, root));
+
+        assertThat(index.children(root.getTenantId()))
+                .extracting(TenantSummaryResponse::getTenantId)
+                .containsExactly(child.getTenantId());
+        assertThat(index.roots())
+                .extracting(TenantSummaryResponse::getTenantId)
+                .containsExactly(root.getTenantId());
+        assertThat(index.find(child.getTenantId()).getParentId()).isEqualTo(root.getTenantId());
+    }
+
+    @Test
+    @DisplayName("removing a tenant removes its whole subtree")
+    void removeDropsSubtree() {
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant siteA = TestDataFactory.subTenant("Site A", root);
+        Tenant siteB = TestDataFactory.subTenant("Site B", root);
+        Tenant line = TestDataFactory.subTenant("Line 1", siteA);
+        index.replaceAll(TestDataFactory.summaries(root, siteA, siteB, line));
+
+        index.remove(siteA.getTenantId());
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.find(line.getTenantId())).isNull();
+        assertThat(index.children(root.getTenantId()))
+                .extracting(TenantSummaryResponse::getTenantName)
+                .containsExactly("Site B");
+    }
+
+    @Test
+    @DisplayName("stays consistent across many inserts and deletes (table growth, slot reuse)")
+    void survivesChurn() {
+        Tenant root = TestDataFactory.organization("Acme");
+        index.replaceAll(TestDataFactory.summaries(root));
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.put(new TenantSummaryResponse(id, "Site " + i, "BASIC", root.getTenantId(),
+                    root.getTenantType(), root.getAccessLevel(), 0L, null));
+        }
+        for (int i = 0; i < ids.size(); i += 2) {
+            index.remove(ids.get(i));
+        }
+
+        assertThat(index.size()).isEqualTo(2_501);
+        assertThat(index.children(root.getTenantId())).hasSize(2_500);
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(index.find(ids.get(i)) == null).isEqualTo(i % 2 == 0);
+        }
+    }
+
+    @Test
+    @DisplayName("re-parents a tenant whose parent changes")
+    void putMovesTenant() {
+        Tenant orgA = TestDataFactory.organization("Org A");
+        Tenant orgB = TestDataFactory.organization("Org B");
+        Tenant site = TestDataFactory.subTenant("Site", orgA);
+        index.replaceAll(TestDataFactory.summaries(orgA, orgB, site));
+
+        site.setParent(orgB);
+        index.put(TestDataFactory.summary(site));
+
+        assertThat(index.children(orgA.getTenantId())).isEmpty();
+        assertThat(index.children(orgB.getTenantId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("builds the subtree DTO graph, or null for an unknown root")
+    void subtree() {
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant site = TestDataFactory.subTenant("Site A", root);
+        index.replaceAll(TestDataFactory.summaries(root, site));
+
+        CompanyWithUsersResponse tree = index.subtree(root.getTenantId());
+
+        assertThat(tree.getCompany().getTenantName()).isEqualTo("Acme");
+        assertThat(tree.getSubCompanies()).extracting(c -> c.getCompany().getTenantName()).containsExactly("Site A");
+        assertThat(index.subtree(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    @DisplayName("returns ancestor chains nearest first, hashed from the rows they were read from")
+    void ancestorsAndRowsHash() {
+        assertThat(index.ancestors(List.of(UUID.randomUUID()))).isNull();
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant site = TestDataFactory.subTenant("Site A", root);
+        Tenant line = TestDataFactory.subTenant("Line 1", site);
+        Tenant other = TestDataFactory.organization("Beta");
+        index.replaceAll(TestDataFactory.summaries(root, site, line, other));
+        UUID missingId = UUID.randomUUID();
+        List<UUID> lookup = List.of(line.getTenantId(), root.getTenantId(), missingId);
+
+        TenantHierarchyIndex.Ancestors before = index.ancestors(lookup);
+
+        assertThat(before.chains()).containsOnlyKeys(line.getTenantId(), root.getTenantId());
+        assertThat(before.chains().get(line.getTenantId())).containsExactly(site.getTenantId(), root.getTenantId());
+        assertThat(before.chains().get(root.getTenantId())).isEmpty();
+        assertThat(index.ancestors(List.of(root.getTenantId(), line.getTenantId(), missingId)).rowsHash())
+                .isNotEqualTo(before.rowsHash());
+
+        // Another replica's index, loaded from the same rows.
+        TenantHierarchyIndex replica = new TenantHierarchyIndex(tenantRepository);
+        replica.replaceAll(TestDataFactory.summaries(other, root, site, line));
+        assertThat(replica.ancestors(lookup).rowsHash()).isEqualTo(before.rowsHash());
+
+        index.remove(other.getTenantId());
+        assertThat(index.ancestors(lookup).rowsHash()).isEqualTo(before.rowsHash());
+
+        site.setTenantName("Site A2");
+        site.setVersion(site.getVersion() + 1);
+        index.put(TestDataFactory.summary(site));
+        assertThat(index.ancestors(lookup).rowsHash()).isNotEqualTo(before.rowsHash());
+    }
+
+    @Test
+    @DisplayName("a subtree's version changes with any tenant in it, and only then")
+    void subtreeVersions() {
+        assertThat(index.subtreeVersion(UUID.randomUUID())).isNull();
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant siteA = TestDataFactory.subTenant("Site A", root);
+        Tenant siteB = TestDataFactory.subTenant("Site B", root);
+        index.replaceAll(TestDataFactory.summaries(root, siteA, siteB));
+        String rootBefore = index.subtreeVersion(root.getTenantId());
+        String siteBBefore = index.subtreeVersion(siteB.getTenantId());
+
+        Tenant line = TestDataFactory.subTenant("Line 1", siteA);
+        index.put(TestDataFactory.summary(line));
+
+        assertThat(index.subtreeVersion(root.getTenantId())).isNotEqualTo(rootBefore);
+        assertThat(index.subtreeVersion(siteB.getTenantId())).isEqualTo(siteBBefore);
+        assertThat(index.subtree(root.getTenantId()).getVersion()).isEqualTo(index.subtreeVersion(root.getTenantId()));
+
+        index.remove(line.getTenantId());
+
+        // Back to the same rows, so back to the same version.
+        assertThat(index.subtreeVersion(root.getTenantId())).isEqualTo(rootBefore);
+    }
+
+    @Test
+    @DisplayName("a subtree's version depends only on its rows, not on load order or replica")
+    void subtreeVersionsFromRows() {
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant siteA = TestDataFactory.subTenant("Site A", root);
+        Tenant siteB = TestDataFactory.subTenant("Site B", root);
+        Tenant line = TestDataFactory.subTenant("Line 1", siteA);
+        index.replaceAll(TestDataFactory.summaries(root, siteA, siteB));
+        index.put(TestDataFactory.summary(line));
+        TenantHierarchyIndex other = new TenantHierarchyIndex(tenantRepository);
+        other.replaceAll(TestDataFactory.summaries(line, siteB, siteA, root));
+
+        assertThat(index.subtreeVersion(root.getTenantId()))
+                .isEqualTo(other.subtreeVersion(root.getTenantId()))
+                .isEqualTo(HierarchyVersions.subtree(TestDataFactory.summaries(root, siteA, siteB, line)));
+
+        siteB.setVersion(1);
+        index.put(TestDataFactory.summary(siteB));
+
+        assertThat(index.subtreeVersion(root.getTenantId()))
+                .isEqualTo(HierarchyVersions.subtree(TestDataFactory.summaries(root, siteA, siteB, line)));
+        assertThat(index.subtreeVersion(siteA.getTenantId())).isEqualTo(other.subtreeVersion(siteA.getTenantId()));
+    }
+
+    @Test
+    @DisplayName("keeps each tenant's row version and updated_at")
+    void keepsRowVersion() {
+        Tenant root = TestDataFactory.organization("Acme");
+        root.setVersion(7);
+        index.replaceAll(TestDataFactory.summaries(root));
+
+        TenantSummaryResponse found = index.find(root.getTenantId());
+
+        assertThat(found.getVersion()).isEqualTo(7);
+        assertThat(found.getUpdatedAt()).isEqualTo(root.getUpdatedAt().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    @Test
+    @DisplayName("rebuild pages through the repository by id and keeps writes made mid-load")
+    void rebuildPagesAndReplaysConcurrentWrites() {
+        ReflectionTestUtils.setField(index, "loadChunkSize", 2);
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant siteA = TestDataFactory.subTenant("Site A", root);
+        Tenant siteB = TestDataFactory.subTenant("Site B", root);
+        Tenant lateSite = TestDataFactory.subTenant("Late Site", root);
+        List<TenantSummaryResponse> firstChunk = TestDataFactory.summaries(root, siteA);
+
+        when(tenantRepository.findSummariesOrderedById(any())).thenAnswer(inv -> {
+            index.put(TestDataFactory.summary(lateSite));
+            return firstChunk;
+        });
+        when(tenantRepository.findSummariesAfter(eq(siteA.getTenantId()), any()))
+                .thenReturn(TestDataFactory.summaries(siteB));
+
+        index.rebuild();
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.children(root.getTenantId()))
+                .extracting(TenantSummaryResponse::getTenantName)
+                .containsExactlyInAnyOrder("Site A", "Site B", "Late Site");
+    }
+
+    @Test
+    @DisplayName("runs overlapping rebuilds one after the other, without losing writes made mid-load")
+    void serializesRebuilds() throws Exception {
+        Tenant root = TestDataFactory.organization("Acme");
+        Tenant lateSite = TestDataFactory.subTenant("Late Site", root);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tenantRepository.findSummariesOrderedById(any()))
+                .thenAnswer(inv -> {
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return TestDataFactory.summaries(root);
+                })
+                .thenReturn(TestDataFactory.summaries(root, lateSite));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Void> first = CompletableFuture.runAsync(index::rebuild, executor);
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Void> second = CompletableFuture.runAsync(index::rebuild, executor);
+            index.put(TestDataFactory.summary(lateSite));
+
+            await().during(Duration.ofMillis(200)).atMost(Duration.ofSeconds(1)).until(() -> !second.isDone());
+            release.countDown();
+
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        }
+
+        verify(tenantRepository, times(2)).findSummariesOrderedById(any());
+        assertThat(index.children(root.getTenantId()))
+                .extracting(TenantSummaryResponse::getTenantName)
+                .containsExactly("Late Site");
+    }
+}
@@ -0,0 +1,49 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.model.TenantClosure;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
+import com.iotmining.services.tms.repository.TenantRepository;
+import com.iotmining.services.tms.support.IntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The context boots against an empty embedded Postgres - migrations only,
+ * no platform tenant yet - so this is the first-boot path, seed included.
+ */
+@IntegrationTest
+@DisplayName("TenantInitializer on an empty database")
+class TenantInitializerIntegrationTest {
+
+    @Autowired private TenantInitializer tenantInitializer;
+    @Autowired private TenantRepository tenantRepository;
+    @Autowired private TenantClosureRepository tenantClosureRepository;
+
+    @Test
+    @DisplayName("seeds the platform tenant and its closure row at startup")
+    void seedsOnStartup() {
+        assertThat(tenantRepository.findById(TenantInitializer.SYSTEM_TENANT_ID))
+                .hasValueSatisfying(tenant -> assertThat(tenant.getTenantType()).isEqualTo(TenantType.PLATFORM));
+        assertThat(tenantClosureRepository.findAncestorPaths(List.of(TenantInitializer.SYSTEM_TENANT_ID)))
+                .extracting(TenantClosure::getAncestorId, TenantClosure::getDepth)
+                .containsExactly(tuple(TenantInitializer.SYSTEM_TENANT_ID, 0));
+    }
+
+    @Test
+    @DisplayName("is a no-op once the platform tenant exists")
+    void idempotent() {
+        long tenants = tenantRepository.count();
+
+        tenantInitializer.init();
+
+        assertThat(tenantRepository.count()).isEqualTo(tenants);
+        assertThat(tenantClosureRepository.findAncestorPaths(List.of(TenantInitializer.SYSTEM_TENANT_ID))).hasSize(1);
+    }
+}
@@ -3,16 +3,23 @@ package com.iotmining.services.tms.services;
 import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
 import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
 import com.iotmining.services.tms.repository.TenantRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,12 +29,14 @@ import static org.mockito.Mockito.when;
 class TenantInitializerTest {
 
     @Mock private TenantRepository tenantRepository;
+    @Mock private TenantClosureRepository tenantClosureRepository;
+    @Mock private PlatformTransactionManager transactionManager;
 
     private TenantInitializer initializer;
 
     @BeforeEach
     void setUp() {
-        initializer = new TenantInitializer(tenantRepository);
+        initializer = new TenantInitializer(tenantRepository, tenantClosureRepository, transactionManager);
     }
 
     @Test
@@ -37,7 +46,7 @@ class TenantInitializerTest {
 
         initializer.init();
 
-        verify(tenantRepository, never()).save(org.mockito.ArgumentMatchers.any());
+        verify(tenantRepository, never()).save(any());
     }
 
     @Test
@@ -54,5 +63,20 @@ class TenantInitializerTest {
         assertThat(saved.getTenantType()).isEqualTo(TenantType.PLATFORM);
         assertThat(saved.getAccessLevel()).isEqualTo(TenantAccessLevel.SUPER_ADMIN);
         assertThat(saved.getParent()).isNull();
+        verify(tenantClosureRepository).insertPaths(List.of(TenantInitializer.SYSTEM_TENANT_ID));
+    }
+
+    @Test
+    @DisplayName("writes the tenant and its closure row in one transaction")
+    void seedsInTransaction() {
+        when(tenantRepository.existsById(TenantInitializer.SYSTEM_TENANT_ID)).thenReturn(false);
+
+        initializer.init();
+
+        InOrder inOrder = inOrder(transactionManager, tenantRepository, tenantClosureRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(tenantRepository).save(any());
+        inOrder.verify(tenantClosureRepository).insertPaths(List.of(TenantInitializer.SYSTEM_TENANT_ID));
+        inOrder.verify(transactionManager).commit(any());
     }
 }
@@ -0,0 +1,171 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.configurations.CacheConfig;
+import com.iotmining.services.tms.datasource.ReadYourWrites;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.metrics.TenantMetrics;
+import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import com.iotmining.services.tms.repository.TenantRepository;
+import com.iotmining.services.tms.support.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exercises the {@code @Cacheable}/{@code @CacheEvict} wiring on
+ * {@link TenantService} through a real (minimal) Spring context - the
+ * annotations are inert in the plain-Mockito {@link TenantServiceTest}.
+ * The hierarchy index is never loaded here, so every cache miss reaches
+ * the mocked repository and can be counted.
+ */
+@SpringJUnitConfig({CacheConfig.class, TenantServiceCachingTest.Config.class})
+@DisplayName("TenantService caching")
+class TenantServiceCachingTest {
+
+    @Configuration
+    static class Config {
+
+        // Boot's converters, so CacheConfig's Duration property binds the same
+        // way it does in the running application.
+        @Bean
+        ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+
+        @Bean
+        TenantRepository tenantRepository() {
+            return mock(TenantRepository.class);
+        }
+
+        @Bean
+        TenantClosureRepository tenantClosureRepository() {
+            return mock(TenantClosureRepository.class);
+        }
+
+        @Bean
+        TenantService tenantService(TenantRepository tenantRepository, TenantClosureRepository tenantClosureRepository) {
+            return new TenantService(tenantRepository, tenantClosureRepository,
+                    mock(TenantProvisioningRepository.class),
+                    new TenantHierarchyIndex(tenantRepository), TenantChangePublisher.NONE,
+                    TenantEventOutbox.NONE, new TenantMetrics(new SimpleMeterRegistry()),
+                    new ReadYourWrites(Duration.ZERO));
+        }
+    }
+
+    @Autowired private TenantService tenantService;
+    @Autowired private TenantRepository tenantRepository;
+    @Autowired private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        reset(tenantRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("serves a repeated summary lookup from the cache")
+    void cachesSummaries() {
+        Tenant tenant = TestDataFactory.organization("Acme");
+        when(tenantRepository.findSummaryById(tenant.getTenantId())).thenReturn(Optional.of(TestDataFactory.summary(tenant)));
+
+        tenantService.getTenantSummary(tenant.getTenantId());
+        tenantService.getTenantSummary(tenant.getTenantId());
+
+        verify(tenantRepository, times(1)).findSummaryById(tenant.getTenantId());
+    }
+
+    @Test
+    @DisplayName("does not cache a missing tenant")
+    void doesNotCacheMisses() {
+        UUID missingId = UUID.randomUUID();
+        when(tenantRepository.findSummaryById(missingId)).thenReturn(Optional.empty());
+
+        tenantService.getTenantSummary(missingId);
+        tenantService.getTenantSummary(missingId);
+
+        verify(tenantRepository, times(2)).findSummaryById(missingId);
+    }
+
+    @Test
+    @DisplayName("caches a children list until a child is created under that parent")
+    void createEvictsParentChildren() {
+        Tenant parent = TestDataFactory.organization("Acme");
+        when(tenantRepository.findChildSummaries(parent.getTenantId())).thenReturn(List.of());
+        when(tenantRepository.findById(parent.getTenantId())).thenReturn(Optional.of(parent));
+        when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        tenantService.getSubTenants(parent.getTenantId());
+        tenantService.getSubTenants(parent.getTenantId());
+        verify(tenantRepository, times(1)).findChildSummaries(parent.getTenantId());
+
+        tenantService.createTenant(new CreateTenantRequest("Site 1", null, parent.getTenantId(), List.of("ROLE_ADMIN")));
+        tenantService.getSubTenants(parent.getTenantId());
+
+        verify(tenantRepository, times(2)).findChildSummaries(parent.getTenantId());
+    }
+
+    @Test
+    @DisplayName("shares one top-level entry between null and the virtual root")
+    void topLevelKeyIsShared() {
+        when(tenantRepository.findRootSummaries()).thenReturn(List.of());
+
+        tenantService.getSubTenants(null);
+        tenantService.getSubTenants(TenantInitializer.SYSTEM_TENANT_ID);
+
+        verify(tenantRepository, times(1)).findRootSummaries();
+    }
+
+    @Test
+    @DisplayName("caches a descendant tree until a tenant is created anywhere")
+    void createEvictsSubtrees() {
+        Tenant root = TestDataFactory.organization("Acme");
+        when(tenantRepository.findSubtreeSummaries(root.getTenantId())).thenReturn(TestDataFactory.summaries(root));
+        when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        tenantService.getCompaniesAndUsers(root.getTenantId());
+        tenantService.getCompaniesAndUsers(root.getTenantId());
+        verify(tenantRepository, times(1)).findSubtreeSummaries(root.getTenantId());
+
+        tenantService.createTenant(new CreateTenantRequest("Other Org", null, null, null));
+        tenantService.getCompaniesAndUsers(root.getTenantId());
+
+        verify(tenantRepository, times(2)).findSubtreeSummaries(root.getTenantId());
+    }
+
+    @Test
+    @DisplayName("evicts the summary of a deleted tenant")
+    void deleteEvictsSummary() {
+        Tenant tenant = TestDataFactory.organization("Acme");
+        when(tenantRepository.findSummaryById(tenant.getTenantId())).thenReturn(Optional.of(TestDataFactory.summary(tenant)));
+        when(tenantRepository.deleteSubtreeBatch(tenant.getTenantId(), TenantService.DELETE_BATCH_SIZE))
+                .thenReturn(List.of(tenant.getTenantId()));
+
+        tenantService.getTenantSummary(tenant.getTenantId());
+        tenantService.deleteTenant(tenant.getTenantId());
+        tenantService.getTenantSummary(tenant.getTenantId());
+
+        verify(tenantRepository, times(2)).findSummaryById(tenant.getTenantId());
+    }
+}
@@ -0,0 +1,167 @@
+package com.iotmining.services.tms.services;
+
+import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
+import com.iotmining.services.tms.dto.CreateTenantRequest;
+import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantAncestryRequest;
+import com.iotmining.services.tms.dto.TenantCursor;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
+import com.iotmining.services.tms.repository.TenantRepository;
+import com.iotmining.services.tms.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration counterpart of {@link TenantServiceTest}: the real service
+ * against Postgres, with every {@code @QueryBudget} enforced - a call that
+ * regresses into per-row queries fails here with QueryBudgetExceededError.
+ * The hierarchy index is off, so the reads take the database path.
+ */
+@IntegrationTest
+@TestPropertySource(properties = {
+        "tms.query-budget.mode=FAIL",
+        "tms.hierarchy-index.enabled=false"})
+@DisplayName("TenantService query budgets")
+class TenantServiceQueryBudgetTest {
+
+    @Autowired private TenantService tenantService;
+    @Autowired private TenantClosureRepository tenantClosureRepository;
+    @Autowired private TenantProvisioningRepository provisioningRepository;
+    @Autowired private TenantRepository tenantRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private CreateTenantResponse organization;
+    private final List<CreateTenantResponse> sites = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        organization = tenantService.createTenant(
+                new CreateTenantRequest("Org " + UUID.randomUUID(), null, null, List.of()));
+        for (int i = 0; i < 5; i++) {
+            sites.add(tenantService.createTenant(new CreateTenantRequest("Site " + i, null,
+                    organization.getTenantId(), List.of("ROLE_ADMIN"))));
+        }
+    }
+
+    @Test
+    @DisplayName("reads stay within budget however many tenants they return")
+    void reads() {
+        assertThat(tenantService.getTenantSummary(sites.get(0).getTenantId()).getParentId())
+                .isEqualTo(organization.getTenantId());
+        assertThat(tenantService.getSubTenants(organization.getTenantId())).hasSize(5);
+        CompanyWithUsersResponse tree = tenantService.getCompaniesAndUsers(organization.getTenantId()).get(0);
+        assertThat(tree.getSubCompanies()).hasSize(5);
+        assertThat(tenantService.getAllTenants(PageRequest.of(0, 20)).getContent()).isNotEmpty();
+        assertThat(tenantService.getTenantsAfter(new TenantCursor(organization.getTenantName(),
+                organization.getTenantId()), 20).getContent()).isNotEmpty();
+        tenantService.estimateTenantCount();
+        List<TenantAncestryRequest.MembershipCheck> checks = sites.stream()
+                .map(site -> new TenantAncestryRequest.MembershipCheck(organization.getTenantId(), site.getTenantId()))
+                .toList();
+        assertThat(tenantService.resolveAncestry(new TenantAncestryRequest(List.of(), checks)).getMemberships())
+                .allMatch(membership -> membership.isMember());
+        List<UUID> ids = new ArrayList<>(sites.stream().map(CreateTenantResponse::getTenantId).toList());
+        ids.add(UUID.randomUUID());
+        assertThat(tenantService.getTenantSummaries(ids).getMissing()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("bulk create stays within budget for a whole organization")
+    void bulkCreate() {
+        List<CreateTenantRequest> requests = new ArrayList<>();
+        CreateTenantRequest org = new CreateTenantRequest("Bulk Org", null, null, List.of(), "org", null);
+        requests.add(org);
+        for (int i = 0; i < 1_200; i++) {
+            requests.add(new CreateTenantRequest("Bulk Site " + i, null, null, List.of("ROLE_ADMIN"), null, "org"));
+        }
+        requests.add(new CreateTenantRequest("Existing Org Site", null, organization.getTenantId(),
+                List.of("ROLE_ADMIN")));
+
+        assertThat(tenantService.createTenants(requests).getFailed()).isZero();
+    }
+
+    @Test
+    @DisplayName("delete stays within budget")
+    void delete() {
+        UUID site = sites.get(0).getTenantId();
+
+        assertThat(tenantService.deleteTenant(site)).isEqualTo(1);
+
+        assertThat(tenantService.getSubTenants(organization.getTenantId())).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("searches names by prefix, substring and typo, scoped to a subtree")
+    void search() {
+        UUID org = organization.getTenantId();
+        tenantService.createTenant(new CreateTenantRequest("Wolverhampton Depot", null, org, List.of("ROLE_ADMIN")));
+
+        assertThat(tenantService.searchTenants("SITE", false, org, 3)).hasSize(3)
+                .allSatisfy(site -> assertThat(site.getParentId()).isEqualTo(org));
+        assertThat(tenantService.searchTenants("depot", false, org, 20)).isEmpty();
+        assertThat(tenantService.searchTenants("depot", true, org, 20))
+                .extracting(TenantSummaryResponse::getTenantName).containsExactly("Wolverhampton Depot");
+        assertThat(tenantService.searchTenants("wolverhamptn", true, org, 20))
+                .extracting(TenantSummaryResponse::getTenantName).containsExactly("Wolverhampton Depot");
+        assertThat(tenantService.searchTenants("site_", false, org, 20)).isEmpty(); // _ is literal
+        assertThat(tenantService.searchTenants(organization.getTenantName(), false, null, 20))
+                .extracting(TenantSummaryResponse::getTenantId).containsExactly(org);
+    }
+
+    @Test
+    @DisplayName("gives tenants with the same name different keyspaces")
+    void uniqueKeyspaces() {
+        CreateTenantResponse first = tenantService.createTenant(
+                new CreateTenantRequest("Twin " + UUID.randomUUID(), null, null, List.of()));
+        CreateTenantResponse second = tenantService.createTenant(
+                new CreateTenantRequest(first.getTenantName().toUpperCase(), null, null, List.of()));
+
+        assertThat(second.getKeyspaceName()).isNotEqualTo(first.getKeyspaceName());
+        assertThat(provisioningRepository.findTakenKeyspaceNames(
+                List.of(first.getKeyspaceName(), second.getKeyspaceName()))).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("deletes a whole subtree in one statement, closure and provisioning rows included")
+    void deleteSubtree() {
+        UUID site = sites.get(0).getTenantId();
+        CreateTenantResponse area = tenantService.createTenant(
+                new CreateTenantRequest("Area", null, site, List.of("ROLE_ADMIN")));
+
+        assertThat(tenantService.deleteTenant(organization.getTenantId())).isEqualTo(7);
+
+        assertThat(tenantService.getTenantSummary(area.getTenantId())).isNull();
+        assertThat(tenantService.getTenantSummary(organization.getTenantId())).isNull();
+        assertThat(tenantClosureRepository.findAncestorPaths(List.of(area.getTenantId(), site))).isEmpty();
+        assertThat(provisioningRepository.findAllById(List.of(area.getTenantId(), site))).isEmpty();
+        assertThat(tenantService.deleteTenant(organization.getTenantId())).isZero();
+    }
+
+    @Test
+    @DisplayName("doesn't serve a deleted tenant from the persistence context afterwards")
+    void deleteSubtreeClearsPersistenceContext() {
+        UUID site = sites.get(0).getTenantId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(tenantRepository.findById(site)).isPresent();
+
+            assertThat(tenantRepository.deleteSubtreeBatch(site, TenantService.DELETE_BATCH_SIZE))
+                    .containsExactly(site);
+
+            assertThat(tenantRepository.findById(site)).isEmpty();
+        });
+    }
+}
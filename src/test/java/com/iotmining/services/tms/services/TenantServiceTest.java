@@ -2,34 +2,57 @@ package com.iotmining.services.tms.services;
 
 import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.datasource.ReadYourWrites;
+import com.iotmining.services.tms.dto.BulkCreateTenantResponse;
 import com.iotmining.services.tms.dto.CompanyWithUsersResponse;
 import com.iotmining.services.tms.dto.CreateTenantRequest;
 import com.iotmining.services.tms.dto.CreateTenantResponse;
+import com.iotmining.services.tms.dto.TenantAncestryRequest;
+import com.iotmining.services.tms.dto.TenantAncestryResponse;
+import com.iotmining.services.tms.dto.TenantBatchGetRequest;
+import com.iotmining.services.tms.dto.TenantBatchGetResponse;
+import com.iotmining.services.tms.dto.TenantCursor;
 import com.iotmining.services.tms.dto.TenantSummaryResponse;
 import com.iotmining.services.tms.exceptions.TenantNotFoundException;
+import com.iotmining.services.tms.metrics.TenantMetrics;
 import com.iotmining.services.tms.model.Tenant;
+import com.iotmining.services.tms.model.TenantClosure;
+import com.iotmining.services.tms.model.TenantProvisioning;
+import com.iotmining.services.tms.repository.TenantClosureRepository;
+import com.iotmining.services.tms.repository.TenantProvisioningRepository;
 import com.iotmining.services.tms.repository.TenantRepository;
 import com.iotmining.services.tms.support.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,12 +60,23 @@ import static org.mockito.Mockito.when;
 class TenantServiceTest {
 
     @Mock private TenantRepository tenantRepository;
-
+    @Mock private TenantClosureRepository tenantClosureRepository;
+    @Mock private TenantProvisioningRepository provisioningRepository;
+    @Mock private TenantChangePublisher changePublisher;
+    @Mock private TenantEventOutbox eventOutbox;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+    private TenantHierarchyIndex hierarchyIndex;
     private TenantService tenantService;
 
+    // The index starts unloaded, so every test below exercises the database
+    // fallback unless it loads the index itself (see ServedFromIndex).
     @BeforeEach
     void setUp() {
-        tenantService = new TenantService(tenantRepository);
+        hierarchyIndex = new TenantHierarchyIndex(tenantRepository);
+        tenantService = new TenantService(tenantRepository, tenantClosureRepository, provisioningRepository,
+                hierarchyIndex, changePublisher, eventOutbox, new TenantMetrics(meterRegistry), readYourWrites);
     }
 
     @Nested
@@ -50,10 +84,11 @@ class TenantServiceTest {
     class GetTenantSummary {
 
         @Test
-        @DisplayName("returns the mapped summary when the tenant exists")
+        @DisplayName("returns the summary projection when the tenant exists")
         void returnsSummaryWhenFound() {
             Tenant tenant = TestDataFactory.organization("Acme");
-            when(tenantRepository.findById(tenant.getTenantId())).thenReturn(Optional.of(tenant));
+            when(tenantRepository.findSummaryById(tenant.getTenantId()))
+                    .thenReturn(Optional.of(TestDataFactory.summary(tenant)));
 
             TenantSummaryResponse result = tenantService.getTenantSummary(tenant.getTenantId());
 
@@ -65,7 +100,7 @@ class TenantServiceTest {
         @DisplayName("returns null when the tenant does not exist")
         void returnsNullWhenNotFound() {
             UUID missingId = UUID.randomUUID();
-            when(tenantRepository.findById(missingId)).thenReturn(Optional.empty());
+            when(tenantRepository.findSummaryById(missingId)).thenReturn(Optional.empty());
 
             assertThat(tenantService.getTenantSummary(missingId)).isNull();
         }
@@ -86,6 +121,53 @@ class TenantServiceTest {
             assertThat(response.getTenantType()).isEqualTo(TenantType.ORGANIZATION);
             assertThat(response.getAccessLevel()).isEqualTo(TenantAccessLevel.TENANT_ADMIN);
             assertThat(response.getSubscriptionPlan()).isEqualTo("PRO");
+            verify(tenantClosureRepository).insertPaths(List.of(response.getTenantId()));
+            verify(eventOutbox).tenantsCreated(argThat(events -> events.size() == 1
+                    && events.get(0).getTenantId().equals(response.getTenantId())));
+        }
+
+        @Test
+        @DisplayName("queues the keyspace for provisioning instead of setting it up inline")
+        void queuesProvisioning() {
+            when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            CreateTenantResponse response = tenantService.createTenant(
+                    new CreateTenantRequest("Acme Corp", null, null, null));
+
+            ArgumentCaptor<TenantProvisioning> queued = ArgumentCaptor.forClass(TenantProvisioning.class);
+            verify(provisioningRepository).save(queued.capture());
+            assertThat(queued.getValue().getTenantId()).isEqualTo(response.getTenantId());
+            assertThat(queued.getValue().getKeyspaceName()).isEqualTo("acmecorp_ks")
+                    .isEqualTo(response.getKeyspaceName());
+            assertThat(queued.getValue().getStatus()).isEqualTo(TenantProvisioning.Status.PENDING);
+            assertThat(queued.getValue().getNextAttemptAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("pins reads to the primary once the create is done")
+        void opensReadYourWritesWindow() {
+            when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+            assertThat(readYourWrites.isActive()).isFalse();
+
+            tenantService.createTenant(new CreateTenantRequest("Acme", null, null, null));
+
+            assertThat(readYourWrites.isActive()).isTrue();
+        }
+
+        @Test
+        @DisplayName("gives the tenant its own keyspace when the name's one is taken")
+        void disambiguatesTakenKeyspace() {
+            when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(provisioningRepository.existsByKeyspaceName("acmecorp_ks")).thenReturn(true);
+
+            CreateTenantResponse response = tenantService.createTenant(
+                    new CreateTenantRequest("Acme Corp", null, null, null));
+
+            assertThat(response.getKeyspaceName())
+                    .isEqualTo("acmecorp_" + response.getTenantId().toString().substring(0, 8) + "_ks");
+            ArgumentCaptor<TenantProvisioning> queued = ArgumentCaptor.forClass(TenantProvisioning.class);
+            verify(provisioningRepository).save(queued.capture());
+            assertThat(queued.getValue().getKeyspaceName()).isEqualTo(response.getKeyspaceName());
         }
 
         @Test
@@ -163,6 +245,121 @@ class TenantServiceTest {
             assertThatThrownBy(() -> tenantService.createTenant(request))
                     .isInstanceOf(TenantNotFoundException.class);
             verify(tenantRepository, never()).save(any());
+            verifyNoInteractions(eventOutbox);
+        }
+    }
+
+    @Nested
+    @DisplayName("createTenants")
+    class CreateTenants {
+
+        @Test
+        @DisplayName("resolves parents in one query, including parents created earlier in the batch")
+        @SuppressWarnings("unchecked")
+        void createsBatchWithInBatchParents() {
+            Tenant existing = TestDataFactory.organization("Existing Org");
+            when(tenantRepository.findAllById(Set.of(existing.getTenantId()))).thenReturn(List.of(existing));
+            List<CreateTenantRequest> requests = List.of(
+                    new CreateTenantRequest("Acme", null, null, null, "acme", null),
+                    new CreateTenantRequest("Acme Site", null, null, List.of("ROLE_ADMIN"), null, "acme"),
+                    new CreateTenantRequest("Existing Site", null, existing.getTenantId(), List.of("ROLE_ADMIN")));
+
+            BulkCreateTenantResponse response = tenantService.createTenants(requests);
+
+            assertThat(response.getCreated()).isEqualTo(3);
+            assertThat(response.getFailed()).isZero();
+            ArgumentCaptor<List<Tenant>> saved = ArgumentCaptor.forClass(List.class);
+            verify(tenantRepository).saveAll(saved.capture());
+            assertThat(saved.getValue()).hasSize(3);
+            assertThat(saved.getValue().get(1).getParent()).isSameAs(saved.getValue().get(0));
+            assertThat(saved.getValue().get(2).getParent()).isSameAs(existing);
+            verify(tenantClosureRepository).insertPaths(saved.getValue().stream().map(Tenant::getTenantId).toList());
+            verify(tenantRepository, never()).findById(any());
+            ArgumentCaptor<List<TenantSummaryResponse>> events = ArgumentCaptor.forClass(List.class);
+            verify(eventOutbox).tenantsCreated(events.capture());
+            ArgumentCaptor<List<TenantProvisioning>> queued = ArgumentCaptor.forClass(List.class);
+            verify(provisioningRepository).saveAll(queued.capture());
+            assertThat(queued.getValue()).extracting(TenantProvisioning::getKeyspaceName)
+                    .containsExactly("acme_ks", "acmesite_ks", "existingsite_ks");
+            assertThat(events.getValue()).extracting(TenantSummaryResponse::getTenantId)
+                    .containsExactlyElementsOf(saved.getValue().stream().map(Tenant::getTenantId).toList());
+            verify(changePublisher).tenantsSaved(events.getValue());
+            verify(changePublisher, never()).tenantSaved(any());
+            assertThat(meterRegistry.get("tms.sql.in.list.size").tag("query", "findAllById").summary().max())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("tms.sql.in.list.size").tag("query", "insertPaths").summary().max())
+                    .isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("checks every keyspace with one lookup and keeps them unique within the batch")
+        void disambiguatesKeyspaces() {
+            when(provisioningRepository.findTakenKeyspaceNames(Set.of("acme_ks", "globex_ks")))
+                    .thenReturn(List.of("globex_ks"));
+
+            BulkCreateTenantResponse response = tenantService.createTenants(List.of(
+                    new CreateTenantRequest("Acme", null, null, null),
+                    new CreateTenantRequest("ACME", null, null, null),
+                    new CreateTenantRequest("Globex", null, null, null)));
+
+            assertThat(response.getResults())
+                    .extracting(result -> result.getTenant().getKeyspaceName())
+                    .satisfiesExactly(
+                            name -> assertThat(name).isEqualTo("acme_ks"),
+                            name -> assertThat(name).startsWith("acme_").isNotEqualTo("acme_ks"),
+                            name -> assertThat(name).startsWith("globex_").isNotEqualTo("globex_ks"));
+            verify(provisioningRepository).findTakenKeyspaceNames(any());
+        }
+
+        @Test
+        @DisplayName("reports invalid items and skips their in-batch children")
+        void reportsPerItemFailures() {
+            UUID missingParent = UUID.randomUUID();
+            when(tenantRepository.findAllById(Set.of(missingParent))).thenReturn(List.of());
+            List<CreateTenantRequest> requests = List.of(
+                    new CreateTenantRequest("Orphan", null, missingParent, List.of("ROLE_ADMIN"), "orphan", null),
+                    new CreateTenantRequest("Orphan Child", null, null, List.of("ROLE_ADMIN"), null, "orphan"),
+                    new CreateTenantRequest("Lonely Site", null, null, List.of("ROLE_ADMIN")),
+                    new CreateTenantRequest("Acme", null, null, null, "acme", null),
+                    new CreateTenantRequest("Acme Again", null, null, null, "acme", null));
+
+            BulkCreateTenantResponse response = tenantService.createTenants(requests);
+
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getFailed()).isEqualTo(4);
+            assertThat(response.getResults())
+                    .extracting(BulkCreateTenantResponse.Result::getError)
+                    .satisfiesExactly(
+                            e -> assertThat(e).contains(missingParent.toString()),
+                            e -> assertThat(e).contains("parentRef 'orphan'"),
+                            e -> assertThat(e).contains("must have a parent"),
+                            e -> assertThat(e).isNull(),
+                            e -> assertThat(e).contains("Duplicate ref 'acme'"));
+        }
+
+        @Test
+        @DisplayName("rejects an item that gives both parentId and parentRef")
+        void rejectsParentIdWithParentRef() {
+            Tenant existing = TestDataFactory.organization("Existing Org");
+            when(tenantRepository.findAllById(any())).thenReturn(List.of(existing));
+
+            BulkCreateTenantResponse response = tenantService.createTenants(List.of(
+                    new CreateTenantRequest("Acme", null, null, null, "acme", null),
+                    new CreateTenantRequest("Site", null, existing.getTenantId(), List.of("ROLE_ADMIN"), null, "acme")));
+
+            assertThat(response.getResults().get(1).getError()).contains("not both");
+        }
+
+        @Test
+        @DisplayName("writes nothing when every item is rejected")
+        void nothingToInsert() {
+            BulkCreateTenantResponse response = tenantService.createTenants(List.of(
+                    new CreateTenantRequest("Lonely Site", null, null, List.of("ROLE_ADMIN"))));
+
+            assertThat(response.getFailed()).isEqualTo(1);
+            verify(tenantRepository, never()).saveAll(any());
+            verify(provisioningRepository, never()).saveAll(any());
+            verifyNoInteractions(tenantClosureRepository, eventOutbox);
         }
     }
 
@@ -171,25 +368,98 @@ class TenantServiceTest {
     class DeleteTenant {
 
         @Test
-        @DisplayName("deletes the tenant when it exists")
-        void deletesExistingTenant() {
+        @DisplayName("deletes the tenant with its subtree in one statement")
+        void deletesSubtree() {
             UUID tenantId = UUID.randomUUID();
-            when(tenantRepository.existsById(tenantId)).thenReturn(true);
+            UUID childId = UUID.randomUUID();
+            when(tenantRepository.deleteSubtreeBatch(tenantId, TenantService.DELETE_BATCH_SIZE))
+                    .thenReturn(List.of(childId, tenantId));
 
-            tenantService.deleteTenant(tenantId);
+            assertThat(tenantService.deleteTenant(tenantId)).isEqualTo(2);
 
-            verify(tenantRepository).deleteById(tenantId);
+            verify(tenantRepository).deleteSubtreeBatch(tenantId, TenantService.DELETE_BATCH_SIZE);
+            verify(eventOutbox).tenantsDeleted(List.of(childId, tenantId));
+        }
+
+        @Test
+        @DisplayName("deletes a large subtree in batches until one comes back short")
+        void deletesInBatches() {
+            UUID tenantId = UUID.randomUUID();
+            List<UUID> fullBatch = new ArrayList<>();
+            for (int i = 0; i < TenantService.DELETE_BATCH_SIZE; i++) {
+                fullBatch.add(UUID.randomUUID());
+            }
+            when(tenantRepository.deleteSubtreeBatch(tenantId, TenantService.DELETE_BATCH_SIZE))
+                    .thenReturn(fullBatch, List.of(tenantId));
+
+            assertThat(tenantService.deleteTenant(tenantId)).isEqualTo(TenantService.DELETE_BATCH_SIZE + 1);
+
+            verify(tenantRepository, times(2)).deleteSubtreeBatch(tenantId, TenantService.DELETE_BATCH_SIZE);
+            verify(eventOutbox).tenantsDeleted(argThat(ids -> ids.size() == TenantService.DELETE_BATCH_SIZE + 1
+                    && ids.get(ids.size() - 1).equals(tenantId)));
         }
 
         @Test
         @DisplayName("is a no-op when the tenant does not exist")
         void noOpWhenMissing() {
             UUID tenantId = UUID.randomUUID();
-            when(tenantRepository.existsById(tenantId)).thenReturn(false);
+            when(tenantRepository.deleteSubtreeBatch(tenantId, TenantService.DELETE_BATCH_SIZE))
+                    .thenReturn(List.of());
+
+            assertThat(tenantService.deleteTenant(tenantId)).isZero();
 
-            tenantService.deleteTenant(tenantId);
+            verifyNoInteractions(eventOutbox, changePublisher);
+        }
+
+        @Test
+        @DisplayName("refuses to delete the platform tenant")
+        void refusesPlatformTenant() {
+            assertThatThrownBy(() -> tenantService.deleteTenant(TenantInitializer.SYSTEM_TENANT_ID))
+                    .isInstanceOf(IllegalArgumentException.class);
 
-            verify(tenantRepository, never()).deleteById(any());
+            verifyNoInteractions(tenantRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("searchTenants")
+    class SearchTenants {
+
+        @Test
+        @DisplayName("returns the matching summaries in the search's rank order")
+        void keepsRankOrder() {
+            Tenant acme = TestDataFactory.organization("Acme");
+            Tenant acmeSite = TestDataFactory.subTenant("Acme Site", acme);
+            when(tenantRepository.searchIds("acm", true, null, 20))
+                    .thenReturn(List.of(acmeSite.getTenantId(), acme.getTenantId()));
+            when(tenantRepository.findSummariesByIdIn(List.of(acmeSite.getTenantId(), acme.getTenantId())))
+                    .thenReturn(TestDataFactory.summaries(acme, acmeSite));
+
+            assertThat(tenantService.searchTenants("  acm ", true, null, 20))
+                    .extracting(TenantSummaryResponse::getTenantName)
+                    .containsExactly("Acme Site", "Acme");
+        }
+
+        @Test
+        @DisplayName("skips the summary lookup when nothing matches")
+        void noMatches() {
+            when(tenantRepository.searchIds("zzz", false, null, 5)).thenReturn(List.of());
+
+            assertThat(tenantService.searchTenants("zzz", false, null, 5)).isEmpty();
+
+            verify(tenantRepository, never()).findSummariesByIdIn(any());
+        }
+
+        @Test
+        @DisplayName("rejects a blank query and an out-of-range limit")
+        void validatesArguments() {
+            assertThatThrownBy(() -> tenantService.searchTenants(" ", true, null, 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> tenantService.searchTenants("acme", true, null,
+                    TenantService.MAX_SEARCH_RESULTS + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verifyNoInteractions(tenantRepository);
         }
     }
 
@@ -198,11 +468,12 @@ class TenantServiceTest {
     class GetAllTenants {
 
         @Test
-        @DisplayName("delegates to the repository's paginated query and maps each entry")
+        @DisplayName("delegates to the repository's paginated projection query")
         void returnsPagedSummaries() {
             Tenant tenant = TestDataFactory.organization("Acme");
             Pageable pageable = PageRequest.of(0, 20);
-            when(tenantRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(tenant)));
+            when(tenantRepository.findAllSummaries(pageable))
+                    .thenReturn(new PageImpl<>(TestDataFactory.summaries(tenant)));
 
             var page = tenantService.getAllTenants(pageable);
 
@@ -211,6 +482,44 @@ class TenantServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getTenantsAfter")
+    class GetTenantsAfter {
+
+        @Test
+        @DisplayName("starts from the beginning without a cursor, and seeks past the cursor with one")
+        void seeksByNameAndId() {
+            TenantCursor cursor = new TenantCursor("Acme", UUID.randomUUID());
+            when(tenantRepository.findSummariesOrderedByName(PageRequest.ofSize(50))).thenReturn(new SliceImpl<>(List.of()));
+            when(tenantRepository.findSummariesByNameAfter("Acme", cursor.getTenantId(), PageRequest.ofSize(50)))
+                    .thenReturn(new SliceImpl<>(List.of()));
+
+            tenantService.getTenantsAfter(null, 50);
+            tenantService.getTenantsAfter(cursor, 50);
+
+            verify(tenantRepository).findSummariesOrderedByName(PageRequest.ofSize(50));
+            verify(tenantRepository).findSummariesByNameAfter("Acme", cursor.getTenantId(), PageRequest.ofSize(50));
+        }
+
+        @Test
+        @DisplayName("rejects a page size outside 1..MAX_CURSOR_PAGE_SIZE")
+        void rejectsBadSize() {
+            assertThatThrownBy(() -> tenantService.getTenantsAfter(null, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> tenantService.getTenantsAfter(null, TenantService.MAX_CURSOR_PAGE_SIZE + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("reports no estimate until the table has statistics")
+        void estimateCount() {
+            when(tenantRepository.estimateRowCount()).thenReturn(-1L, 1234L);
+
+            assertThat(tenantService.estimateTenantCount()).isNull();
+            assertThat(tenantService.estimateTenantCount()).isEqualTo(1234L);
+        }
+    }
+
     @Nested
     @DisplayName("getSubTenants")
     class GetSubTenants {
@@ -219,19 +528,19 @@ class TenantServiceTest {
         @DisplayName("returns top-level tenants when parentId is null")
         void returnsTopLevelWhenNull() {
             Tenant root = TestDataFactory.organization("Acme");
-            when(tenantRepository.findByParentIsNull()).thenReturn(List.of(root));
+            when(tenantRepository.findRootSummaries()).thenReturn(TestDataFactory.summaries(root));
 
             List<TenantSummaryResponse> result = tenantService.getSubTenants(null);
 
             assertThat(result).hasSize(1);
-            verify(tenantRepository, never()).findByParent_TenantId(any());
+            verify(tenantRepository, never()).findChildSummaries(any());
         }
 
         @Test
         @DisplayName("returns top-level tenants when parentId is the virtual root UUID")
         void returnsTopLevelWhenVirtualRoot() {
             Tenant root = TestDataFactory.organization("Acme");
-            when(tenantRepository.findByParentIsNull()).thenReturn(List.of(root));
+            when(tenantRepository.findRootSummaries()).thenReturn(TestDataFactory.summaries(root));
 
             List<TenantSummaryResponse> result = tenantService.getSubTenants(
                     UUID.fromString("00000000-0000-0000-0000-000000000000"));
@@ -244,7 +553,7 @@ class TenantServiceTest {
         void returnsChildrenOfParent() {
             Tenant parent = TestDataFactory.organization("Acme");
             Tenant child = TestDataFactory.subTenant("Acme Site 1", parent);
-            when(tenantRepository.findByParent_TenantId(parent.getTenantId())).thenReturn(List.of(child));
+            when(tenantRepository.findChildSummaries(parent.getTenantId())).thenReturn(TestDataFactory.summaries(child));
 
             List<TenantSummaryResponse> result = tenantService.getSubTenants(parent.getTenantId());
 
@@ -257,31 +566,32 @@ class TenantServiceTest {
     @DisplayName("getCompaniesAndUsers")
     class GetCompaniesAndUsers {
 
+        @Test
+        @DisplayName("has no subtree version before the index is loaded")
+        void noVersionWithoutIndex() {
+            assertThat(tenantService.getSubtreeVersion(UUID.randomUUID())).isNull();
+        }
+
         @Test
         @DisplayName("throws TenantNotFoundException when the root tenant does not exist")
         void throwsWhenRootMissing() {
             UUID missingId = UUID.randomUUID();
-            when(tenantRepository.findById(missingId)).thenReturn(Optional.empty());
+            when(tenantRepository.findSubtreeSummaries(missingId)).thenReturn(List.of());
 
             assertThatThrownBy(() -> tenantService.getCompaniesAndUsers(missingId))
                     .isInstanceOf(TenantNotFoundException.class);
         }
 
         @Test
-        @DisplayName("builds the full descendant tree using one batched query per level, not per node")
-        void buildsTreeWithBatchedQueries() {
+        @DisplayName("builds the full descendant tree from a single subtree query")
+        void buildsTreeFromSingleSubtreeQuery() {
             Tenant root = TestDataFactory.organization("Acme");
             Tenant childA = TestDataFactory.subTenant("Site A", root);
             Tenant childB = TestDataFactory.subTenant("Site B", root);
             Tenant grandchild = TestDataFactory.subTenant("Line 1", childA);
 
-            when(tenantRepository.findById(root.getTenantId())).thenReturn(Optional.of(root));
-            when(tenantRepository.findByParent_TenantIdIn(List.of(root.getTenantId())))
-                    .thenReturn(List.of(childA, childB));
-            when(tenantRepository.findByParent_TenantIdIn(List.of(childA.getTenantId(), childB.getTenantId())))
-                    .thenReturn(List.of(grandchild));
-            when(tenantRepository.findByParent_TenantIdIn(List.of(grandchild.getTenantId())))
-                    .thenReturn(List.of());
+            when(tenantRepository.findSubtreeSummaries(root.getTenantId()))
+                    .thenReturn(TestDataFactory.summaries(root, childA, childB, grandchild));
 
             List<CompanyWithUsersResponse> result = tenantService.getCompaniesAndUsers(root.getTenantId());
 
@@ -294,6 +604,325 @@ class TenantServiceTest {
                     .findFirst().orElseThrow();
             assertThat(childADto.getSubCompanies()).hasSize(1);
             assertThat(childADto.getSubCompanies().get(0).getCompany().getTenantName()).isEqualTo("Line 1");
+            assertThat(meterRegistry.get("tms.tenant.tree.size").tag("source", "database").summary().max())
+                    .isEqualTo(4);
+            assertThat(meterRegistry.get("tms.tenant.tree.depth").tag("source", "database").summary().max())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("stamps a tree from the database with the version the index would report")
+        void treeVersionFromDatabase() {
+            Tenant root = TestDataFactory.organization("Acme");
+            Tenant child = TestDataFactory.subTenant("Site A", root);
+            when(tenantRepository.findSubtreeSummaries(root.getTenantId()))
+                    .thenReturn(TestDataFactory.summaries(root, child));
+
+            String version = tenantService.getCompaniesAndUsers(root.getTenantId()).get(0).getVersion();
+
+            hierarchyIndex.replaceAll(TestDataFactory.summaries(child, root));
+            assertThat(version).isEqualTo(tenantService.getSubtreeVersion(root.getTenantId()));
+        }
+    }
+
+    @Nested
+    @DisplayName("getTenantSummaries")
+    class GetTenantSummaries {
+
+        @Test
+        @DisplayName("returns found tenants in request order and reports missing ids")
+        void reportsMissing() {
+            Tenant acme = TestDataFactory.organization("Acme");
+            Tenant other = TestDataFactory.organization("Other");
+            UUID missingId = UUID.randomUUID();
+            List<UUID> ids = List.of(other.getTenantId(), missingId, acme.getTenantId(), other.getTenantId());
+            when(tenantRepository.findSummariesByIdIn(List.of(other.getTenantId(), missingId, acme.getTenantId())))
+                    .thenReturn(TestDataFactory.summaries(acme, other));
+
+            TenantBatchGetResponse response = tenantService.getTenantSummaries(ids);
+
+            assertThat(response.getTenants()).extracting(TenantSummaryResponse::getTenantName)
+                    .containsExactly("Other", "Acme");
+            assertThat(response.getMissing()).containsExactly(missingId);
+        }
+
+        @Test
+        @DisplayName("splits large id sets into BATCH_GET_CHUNK_SIZE queries")
+        void chunksLargeIdSets() {
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < TenantService.BATCH_GET_CHUNK_SIZE * 2 + 1; i++) {
+                ids.add(UUID.randomUUID());
+            }
+            when(tenantRepository.findSummariesByIdIn(any())).thenReturn(List.of());
+
+            TenantBatchGetResponse response = tenantService.getTenantSummaries(ids);
+
+            verify(tenantRepository, times(3)).findSummariesByIdIn(any());
+            assertThat(response.getMissing()).hasSize(ids.size());
+            assertThat(meterRegistry.get("tms.sql.in.list.size").tag("query", "findSummariesByIdIn")
+                    .summary().max()).isEqualTo(TenantService.BATCH_GET_CHUNK_SIZE);
+        }
+
+        @Test
+        @DisplayName("rejects more than MAX_TENANT_IDS ids")
+        void rejectsOversizedRequest() {
+            List<UUID> ids = Collections.nCopies(TenantBatchGetRequest.MAX_TENANT_IDS + 1, UUID.randomUUID());
+
+            assertThatThrownBy(() -> tenantService.getTenantSummaries(ids))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(tenantRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("resolveAncestry")
+    class ResolveAncestry {
+
+        @Test
+        @DisplayName("builds chains and memberships from one closure-table query, without a version")
+        void fromClosureTable() {
+            Tenant root = TestDataFactory.organization("Acme");
+            Tenant site = TestDataFactory.subTenant("Site A", root);
+            Tenant other = TestDataFactory.organization("Other");
+            UUID missingId = UUID.randomUUID();
+            when(tenantClosureRepository.findAncestorPaths(Set.of(site.getTenantId(), root.getTenantId(), missingId)))
+                    .thenReturn(List.of(
+                            new TenantClosure(root.getTenantId(), root.getTenantId(), 0),
+                            new TenantClosure(site.getTenantId(), site.getTenantId(), 0),
+                            new TenantClosure(root.getTenantId(), site.getTenantId(), 1)));
+
+            TenantAncestryResponse response = tenantService.resolveAncestry(new TenantAncestryRequest(
+                    List.of(site.getTenantId(), missingId),
+                    List.of(new TenantAncestryRequest.MembershipCheck(root.getTenantId(), site.getTenantId()),
+                            new TenantAncestryRequest.MembershipCheck(other.getTenantId(), site.getTenantId()),
+                            new TenantAncestryRequest.MembershipCheck(root.getTenantId(), root.getTenantId()))));
+
+            assertThat(response.getHierarchyVersion()).isNull();
+            assertThat(response.getAncestors()).containsOnlyKeys(site.getTenantId());
+            assertThat(response.getAncestors().get(site.getTenantId())).containsExactly(root.getTenantId());
+            assertThat(response.getMemberships())
+                    .extracting(TenantAncestryResponse.Membership::isMember)
+                    .containsExactly(true, false, true);
+            assertThat(response.getUnknown()).containsExactly(missingId);
+        }
+
+        @Test
+        @DisplayName("skips the query for an empty request")
+        void emptyRequest() {
+            TenantAncestryResponse response = tenantService.resolveAncestry(new TenantAncestryRequest(null, null));
+
+            assertThat(response.getAncestors()).isEmpty();
+            assertThat(response.getMemberships()).isEmpty();
+            verifyNoInteractions(tenantClosureRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("when the hierarchy index is loaded")
+    class ServedFromIndex {
+
+        private Tenant root;
+        private Tenant childA;
+        private Tenant childB;
+        private Tenant grandchild;
+
+        @BeforeEach
+        void loadIndex() {
+            root = TestDataFactory.organization("Acme");
+            childA = TestDataFactory.subTenant("Site A", root);
+            childB = TestDataFactory.subTenant("Site B", root);
+            grandchild = TestDataFactory.subTenant("Line 1", childA);
+            hierarchyIndex.replaceAll(TestDataFactory.summaries(root, childA, childB, grandchild));
+        }
+
+        @Test
+        @DisplayName("answers getTenantSummary without touching the repository")
+        void summaryFromIndex() {
+            TenantSummaryResponse result = tenantService.getTenantSummary(childA.getTenantId());
+
+            assertThat(result.getTenantName()).isEqualTo("Site A");
+            assertThat(result.getParentId()).isEqualTo(root.getTenantId());
+            verifyNoInteractions(tenantRepository);
+        }
+
+        @Test
+        @DisplayName("answers getSubTenants for a parent and for the virtual root")
+        void childrenFromIndex() {
+            assertThat(tenantService.getSubTenants(root.getTenantId()))
+                    .extracting(TenantSummaryResponse::getTenantName)
+                    .containsExactlyInAnyOrder("Site A", "Site B");
+            assertThat(tenantService.getSubTenants(null))
+                    .extracting(TenantSummaryResponse::getTenantName)
+                    .containsExactly("Acme");
+            verifyNoInteractions(tenantRepository);
+        }
+
+        @Test
+        @DisplayName("builds the descendant tree in memory")
+        void treeFromIndex() {
+            List<CompanyWithUsersResponse> result = tenantService.getCompaniesAndUsers(root.getTenantId());
+
+            CompanyWithUsersResponse rootDto = result.get(0);
+            assertThat(rootDto.getSubCompanies()).hasSize(2);
+            CompanyWithUsersResponse childADto = rootDto.getSubCompanies().stream()
+                    .filter(c -> c.getCompany().getTenantName().equals("Site A"))
+                    .findFirst().orElseThrow();
+            assertThat(childADto.getSubCompanies()).extracting(c -> c.getCompany().getTenantName())
+                    .containsExactly("Line 1");
+            verifyNoInteractions(tenantRepository);
+        }
+
+        @Test
+        @DisplayName("stamps the tree with the same version getSubtreeVersion reports")
+        void treeVersionFromIndex() {
+            String version = tenantService.getSubtreeVersion(root.getTenantId());
+
+            assertThat(version).isNotNull();
+            assertThat(tenantService.getCompaniesAndUsers(root.getTenantId()).get(0).getVersion()).isEqualTo(version);
+        }
+
+        @Test
+        @DisplayName("throws TenantNotFoundException for an unknown tree root")
+        void treeRootMissing() {
+            UUID missingId = UUID.randomUUID();
+
+            assertThatThrownBy(() -> tenantService.getCompaniesAndUsers(missingId))
+                    .isInstanceOf(TenantNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("applies creates and deletes to the index and publishes them to other replicas")
+        void writesUpdateIndex() {
+            when(tenantRepository.findById(root.getTenantId())).thenReturn(Optional.of(root));
+            when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
+            CreateTenantResponse created = tenantService.createTenant(new CreateTenantRequest(
+                    "Site C", null, root.getTenantId(), List.of("ROLE_ADMIN")));
+
+            assertThat(tenantService.getSubTenants(root.getTenantId())).hasSize(3);
+            verify(changePublisher).tenantSaved(tenantService.getTenantSummary(created.getTenantId()));
+
+            when(tenantRepository.deleteSubtreeBatch(created.getTenantId(), TenantService.DELETE_BATCH_SIZE))
+                    .thenReturn(List.of(created.getTenantId()));
+            tenantService.deleteTenant(created.getTenantId());
+
+            assertThat(tenantService.getTenantSummary(created.getTenantId())).isNull();
+            assertThat(tenantService.getSubTenants(root.getTenantId())).hasSize(2);
+            verify(changePublisher).tenantDeleted(created.getTenantId());
+        }
+
+        @Test
+        @DisplayName("answers resolveAncestry in memory, with a version")
+        void ancestryFromIndex() {
+            TenantAncestryResponse response = tenantService.resolveAncestry(new TenantAncestryRequest(
+                    List.of(grandchild.getTenantId()),
+                    List.of(new TenantAncestryRequest.MembershipCheck(childB.getTenantId(), grandchild.getTenantId()))));
+
+            assertThat(response.getHierarchyVersion()).isNotNull();
+            assertThat(response.getAncestors().get(grandchild.getTenantId()))
+                    .containsExactly(childA.getTenantId(), root.getTenantId());
+            assertThat(response.getMemberships().get(0).isMember()).isFalse();
+            verifyNoInteractions(tenantRepository, tenantClosureRepository);
+        }
+
+        @Test
+        @DisplayName("versions resolveAncestry by request body, the same on every replica")
+        void ancestryVersionPerBody() {
+            TenantAncestryRequest chains = new TenantAncestryRequest(List.of(grandchild.getTenantId()), List.of());
+            TenantAncestryRequest check = new TenantAncestryRequest(List.of(),
+                    List.of(new TenantAncestryRequest.MembershipCheck(root.getTenantId(), grandchild.getTenantId())));
+            TenantHierarchyIndex replicaIndex = new TenantHierarchyIndex(tenantRepository);
+            replicaIndex.replaceAll(TestDataFactory.summaries(root, childA, childB, grandchild));
+            TenantService replica = new TenantService(tenantRepository, tenantClosureRepository, provisioningRepository,
+                    replicaIndex, changePublisher, eventOutbox, new TenantMetrics(meterRegistry), readYourWrites);
+
+            String version = tenantService.resolveAncestry(chains).getHierarchyVersion();
+
+            assertThat(tenantService.resolveAncestry(check).getHierarchyVersion()).isNotEqualTo(version);
+            assertThat(replica.resolveAncestry(chains).getHierarchyVersion()).isEqualTo(version);
+        }
+
+        @Test
+        @DisplayName("answers getTenantSummaries from the index, asking the repository only for misses")
+        void batchGetFromIndex() {
+            UUID missingId = UUID.randomUUID();
+
+            TenantBatchGetResponse response = tenantService.getTenantSummaries(
+                    List.of(grandchild.getTenantId(), missingId, root.getTenantId()));
+
+            assertThat(response.getTenants()).extracting(TenantSummaryResponse::getTenantName)
+                    .containsExactly("Line 1", "Acme");
+            assertThat(response.getMissing()).containsExactly(missingId);
+            verify(tenantRepository).findSummariesByIdIn(List.of(missingId));
+            verifyNoMoreInteractions(tenantRepository);
+        }
+
+        @Nested
+        @DisplayName("and misses a tenant another replica created")
+        class IndexMiss {
+
+            private Tenant siteC;
+            private TenantSummaryResponse siteCSummary;
+
+            @BeforeEach
+            void createElsewhere() {
+                siteC = TestDataFactory.subTenant("Site C", root);
+                siteCSummary = TestDataFactory.summary(siteC);
+            }
+
+            @Test
+            @DisplayName("getTenantSummary falls back to the repository and indexes the tenant")
+            void summary() {
+                when(tenantRepository.findSummaryById(siteC.getTenantId())).thenReturn(Optional.of(siteCSummary));
+
+                assertThat(tenantService.getTenantSummary(siteC.getTenantId())).isEqualTo(siteCSummary);
+
+                assertThat(hierarchyIndex.find(siteC.getTenantId())).isNotNull();
+                assertThat(tenantService.getSubTenants(root.getTenantId())).hasSize(3);
+                assertThat(meterRegistry.get("tms.hierarchy.index.backfill").counter().count()).isEqualTo(1);
+            }
+
+            @Test
+            @DisplayName("getCompaniesAndUsers builds the tree from the repository and indexes it")
+            void tree() {
+                Tenant line = TestDataFactory.subTenant("Line 9", siteC);
+                when(tenantRepository.findSubtreeSummaries(siteC.getTenantId()))
+                        .thenReturn(TestDataFactory.summaries(siteC, line));
+
+                CompanyWithUsersResponse tree = tenantService.getCompaniesAndUsers(siteC.getTenantId()).get(0);
+
+                assertThat(tree.getSubCompanies()).extracting(c -> c.getCompany().getTenantName())
+                        .containsExactly("Line 9");
+                assertThat(hierarchyIndex.children(siteC.getTenantId())).hasSize(1);
+            }
+
+            @Test
+            @DisplayName("getSubTenants of an unindexed parent asks the repository")
+            void children() {
+                Tenant line = TestDataFactory.subTenant("Line 9", siteC);
+                when(tenantRepository.findChildSummaries(siteC.getTenantId()))
+                        .thenReturn(TestDataFactory.summaries(line));
+
+                assertThat(tenantService.getSubTenants(siteC.getTenantId()))
+                        .extracting(TenantSummaryResponse::getTenantName)
+                        .containsExactly("Line 9");
+            }
+
+            @Test
+            @DisplayName("resolveAncestry checks the misses against the closure table, without a version")
+            void ancestry() {
+                when(tenantClosureRepository.findAncestorPaths(Set.of(siteC.getTenantId()))).thenReturn(List.of(
+                        new TenantClosure(siteC.getTenantId(), siteC.getTenantId(), 0),
+                        new TenantClosure(root.getTenantId(), siteC.getTenantId(), 1)));
+
+                TenantAncestryResponse response = tenantService.resolveAncestry(new TenantAncestryRequest(
+                        List.of(childA.getTenantId()),
+                        List.of(new TenantAncestryRequest.MembershipCheck(root.getTenantId(), siteC.getTenantId()))));
+
+                assertThat(response.getHierarchyVersion()).isNull();
+                assertThat(response.getAncestors().get(childA.getTenantId())).containsExactly(root.getTenantId());
+                assertThat(response.getMemberships().get(0).isMember()).isTrue();
+                assertThat(response.getUnknown()).isEmpty();
+            }
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.iotmining.services.tms.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Training run for the AppCDS archive, run by {@code mvn -Pcds package}
+ * (see the cds profile in pom.xml):
+ *
+ * <pre>
+ * CdsArchiveTrainer &lt;extracted jar&gt; &lt;archive&gt; [profile, default prod]
+ * </pre>
+ *
+ * <p>Starts the extracted jar with {@code -XX:ArchiveClassesAtExit} and
+ * {@code -Dspring.context.exit=onRefresh}: the context refreshes - every
+ * bean created, Flyway and Hibernate's validation included - and the JVM
+ * exits before anything starts serving, dumping the classes it loaded.
+ * Flyway and Hibernate's validation need a database while the context
+ * refreshes, so the run gets a throwaway embedded Postgres. Redis, Kafka and Eureka are
+ * only contacted once the context has started, which the run never gets
+ * to. The JWT key is random - nothing is validated.</p>
+ */
+public final class CdsArchiveTrainer {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private CdsArchiveTrainer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: CdsArchiveTrainer <extracted jar> <archive> [profile]");
+        }
+        Path jar = Path.of(args[0]);
+        Path archive = Path.of(args[1]).toAbsolutePath();
+        String profile = args.length > 2 ? args[2] : "prod";
+        Files.deleteIfExists(archive);
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             ServiceProcess training = ServiceProcess.start("cds-training",
+                     ServiceProcess.java(jar, "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh"),
+                     postgres.getJdbcUrl("postgres", "postgres"), profile,
+                     Map.of("JWT_SECRET_KEY_BASE64", Base64.getEncoder().encodeToString(key)),
+                     archive.getParent())) {
+            int exitCode = training.awaitExit(TIMEOUT);
+            if (exitCode != 0 || !Files.exists(archive)) {
+                throw new IllegalStateException("CDS training run failed (exit " + exitCode + "), see "
+                        + training.log());
+            }
+            System.out.printf("CDS archive %s (%d MB) trained with profile %s%n", archive,
+                    Files.size(archive) / (1024 * 1024), profile);
+        }
+    }
+}
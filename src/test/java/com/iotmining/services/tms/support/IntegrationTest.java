@@ -0,0 +1,33 @@
+package com.iotmining.services.tms.support;
+
+import com.iotmining.services.tms.TenantManagementServiceApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The whole application against embedded Postgres, see
+ * IntegrationTestConfig, with config server and Eureka off and keyspaces
+ * provisioned by the fake. Add test specific properties with
+ * {@code @TestPropertySource}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(classes = {TenantManagementServiceApplication.class, IntegrationTestConfig.class},
+        properties = {
+                "spring.cloud.config.enabled=false",
+                "eureka.client.enabled=false",
+                "tms.provisioning.enabled=true",
+                "tms.provisioning.provisioner=fake",
+                "spring.jpa.show-sql=false"})
+public @interface IntegrationTest {
+
+    @AliasFor(annotation = SpringBootTest.class)
+    SpringBootTest.WebEnvironment webEnvironment() default SpringBootTest.WebEnvironment.MOCK;
+}
@@ -0,0 +1,92 @@
+package com.iotmining.services.tms.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.io.IOException;
+
+/**
+ * Test wiring for {@link IntegrationTest}s: the application's own
+ * configuration, with Postgres replaced by embedded binaries (no Docker
+ * needed) and authentication stubbed out.
+ *
+ * <p>Every request runs as a principal holding ROLE_SUPER_ADMIN and
+ * SCOPE_INTERNAL, and {@code @tenantSecurity} allows everything, so the
+ * {@code @PreAuthorize} rules are evaluated but always pass. JWT
+ * validation is not exercised - or measured, in the load test.</p>
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class IntegrationTestConfig {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    // Bound to spring.datasource.hikari.* so the pool is sized and tuned
+    // (reWriteBatchedInserts etc.) exactly as the active profile says.
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+        dataSource.setUsername("postgres");
+        return dataSource;
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    SecurityFilterChain loadTestSecurityFilterChain(HttpSecurity http) throws Exception {
+        return http.securityMatcher("/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .anonymous(anonymous -> anonymous.principal("load-test")
+                        .authorities("ROLE_SUPER_ADMIN", "SCOPE_INTERNAL"))
+                .authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+                .build();
+    }
+
+    // Replaces the security starter's bean after every definition, including
+    // auto-configured ones, has been registered.
+    @Bean
+    static BeanDefinitionRegistryPostProcessor permitAllTenantSecurity() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+                BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+                if (registry.containsBeanDefinition("tenantSecurity")) {
+                    registry.removeBeanDefinition("tenantSecurity");
+                }
+                registry.registerBeanDefinition("tenantSecurity", new RootBeanDefinition(PermitAll.class));
+            }
+        };
+    }
+
+    public static class PermitAll {
+
+        public boolean isSuperAdmin() {
+            return true;
+        }
+
+        public boolean isTenantMember(String tenantId) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.iotmining.services.tms.support;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service as a separate OS process - a native binary, the fat jar or
+ * the extracted jar - pointed at a given Postgres on a free port, for the
+ * tests that measure or smoke-test a build artifact rather than a context
+ * in this JVM. Output goes to {@code <logDir>/<label>.log}.
+ *
+ * <p>Config server and Eureka registration/fetching are switched off at
+ * runtime (not through {@code eureka.client.enabled}, which a native image
+ * has already evaluated), so every build does the same work.</p>
+ */
+public final class ServiceProcess implements AutoCloseable {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    private final String label;
+    private final Process process;
+    private final int port;
+    private final long startedNanos;
+    private final Path log;
+
+    private ServiceProcess(String label, Process process, int port, long startedNanos, Path log) {
+        this.label = label;
+        this.process = process;
+        this.port = port;
+        this.startedNanos = startedNanos;
+        this.log = log;
+    }
+
+    /**
+     * Starts {@code command} with the datasource at {@code jdbcUrl} (user
+     * postgres), the given profile and any extra environment.
+     */
+    public static ServiceProcess start(String label, List<String> command, String jdbcUrl, String profile,
+                                       Map<String, String> extraEnv, Path logDir) throws IOException {
+        Files.createDirectories(logDir);
+        int port = freePort();
+        Path log = logDir.resolve(label + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        Map<String, String> env = builder.environment();
+        env.put("SPRING_PROFILES_ACTIVE", profile);
+        env.put("SERVER_PORT", Integer.toString(port));
+        env.put("SPRING_DATASOURCE_URL", jdbcUrl);
+        env.put("SPRING_DATASOURCE_USERNAME", "postgres");
+        env.put("SPRING_DATASOURCE_PASSWORD", "postgres");
+        env.put("SPRING_CLOUD_CONFIG_ENABLED", "false");
+        env.put("EUREKA_CLIENT_REGISTER_WITH_EUREKA", "false");
+        env.put("EUREKA_CLIENT_FETCH_REGISTRY", "false");
+        env.putAll(extraEnv);
+        long started = System.nanoTime();
+        return new ServiceProcess(label, builder.start(), port, started, log);
+    }
+
+    /** {@code java [jvmArgs] -jar jar}, on the JVM running the tests. */
+    public static List<String> java(Path jar, String... jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of(jvmArgs));
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        return command;
+    }
+
+    /**
+     * Waits until /actuator/health reports UP and returns the time since
+     * the process was started.
+     */
+    public Duration awaitHealthy(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new AssertionError(label + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                HttpResponse<String> health = send("GET", "/actuator/health", null, null, null);
+                if (health.statusCode() == 200 && health.body().contains("\"UP\"")) {
+                    return Duration.ofNanos(System.nanoTime() - startedNanos);
+                }
+            } catch (IOException notListeningYet) {
+                // keep polling
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError(label + " not healthy within " + timeout + ", see " + log);
+    }
+
+    /** Waits for a process that exits by itself (a training run) and returns its exit code. */
+    public int awaitExit(Duration timeout) throws InterruptedException {
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new AssertionError(label + " still running after " + timeout + ", see " + log);
+        }
+        return process.exitValue();
+    }
+
+    public HttpResponse<String> send(String method, String path, String bearerToken, String contentType,
+                                     byte[] body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        if (bearerToken != null) {
+            request.header("Authorization", "Bearer " + bearerToken);
+        }
+        return CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Resident set size in kB, from /proc - Linux only; -1 elsewhere. */
+    public long rssKilobytes() throws IOException {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    public Path log() {
+        return log;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.iotmining.services.tms.support;
 
 import com.iotmining.common.data.tenant.TenantAccessLevel;
 import com.iotmining.common.data.tenant.TenantType;
+import com.iotmining.services.tms.dto.TenantSummaryResponse;
 import com.iotmining.services.tms.model.Tenant;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 public final class TestDataFactory {
@@ -18,6 +21,7 @@ public final class TestDataFactory {
         tenant.setTenantName(name);
         tenant.setSubscriptionPlan("BASIC");
         tenant.setCreatedAt(Instant.now());
+        tenant.setUpdatedAt(tenant.getCreatedAt());
         tenant.setParent(parent);
         tenant.setTenantType(type);
         tenant.setAccessLevel(accessLevel);
@@ -31,4 +35,20 @@ public final class TestDataFactory {
     public static Tenant subTenant(String name, Tenant parent) {
         return tenant(name, TenantType.SUB_TENANT, TenantAccessLevel.OPERATIONAL, parent);
     }
+
+    public static TenantSummaryResponse summary(Tenant tenant) {
+        return new TenantSummaryResponse(
+                tenant.getTenantId(),
+                tenant.getTenantName(),
+                tenant.getSubscriptionPlan(),
+                tenant.getParent() != null ? tenant.getParent().getTenantId() : null,
+                tenant.getTenantType(),
+                tenant.getAccessLevel(),
+                tenant.getVersion(),
+                tenant.getUpdatedAt());
+    }
+
+    public static List<TenantSummaryResponse> summaries(Tenant... tenants) {
+        return Arrays.stream(tenants).map(TestDataFactory::summary).toList();
+    }
 }